@@ -0,0 +1,15 @@
+package org.example.springboot.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "认领申请审核DTO")
+public class ClaimAuditDTO {
+    @Schema(description = "申请ID")
+    private Long id;
+    @Schema(description = "审核结果(1通过,2拒绝)")
+    private Integer status;
+    @Schema(description = "审核备注")
+    private String auditRemark;
+}
@@ -0,0 +1,17 @@
+package org.example.springboot.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "认领申请审核结果DTO")
+public class ClaimAuditResultDTO {
+    @Schema(description = "申请ID")
+    private Long id;
+    @Schema(description = "是否处理成功")
+    private boolean success;
+    @Schema(description = "结果码，与接口返回码一致")
+    private String code;
+    @Schema(description = "结果说明")
+    private String message;
+}
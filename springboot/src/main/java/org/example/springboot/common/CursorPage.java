@@ -0,0 +1,29 @@
+package org.example.springboot.common;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 游标分页结果（不统计总数，适用于无限滚动）
+ */
+@Data
+public class CursorPage<T> {
+    private List<T> records;
+
+    /**
+     * 下一页游标，没有更多数据时为空
+     */
+    private String nextCursor;
+
+    private boolean hasMore;
+
+    public CursorPage() {
+    }
+
+    public CursorPage(List<T> records, String nextCursor, boolean hasMore) {
+        this.records = records;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+}
@@ -6,6 +6,8 @@ public enum ResultCode {
     VALIDATE_FAILED("404", "参数检验失败"),
     UNAUTHORIZED("401", "暂未登录或token已经过期"),
     FORBIDDEN("403", "没有相关权限"),
+    CONFLICT("409", "数据已被修改，请刷新后重试"),
+    TOO_MANY_REQUESTS("429", "请求过多，请稍后再试"),
     SYSTEM_ERROR("500", "系统错误");
 
     private String code;
@@ -0,0 +1,84 @@
+package org.example.springboot.config;
+
+import org.example.springboot.storage.BlobStore;
+import org.example.springboot.storage.LocalBlobStore;
+import org.example.springboot.storage.S3BlobStore;
+import org.example.springboot.util.FileUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * 上传文件存储配置
+ * file.storage.type=local 使用本地磁盘（单节点）；file.storage.type=s3 使用 S3 兼容的对象存储（多节点部署），
+ * 文件由客户端通过预签名地址直接从存储下载
+ */
+@Configuration
+public class BlobStoreConfig {
+    private static final Logger log = LoggerFactory.getLogger(BlobStoreConfig.class);
+
+    @Value("${file.storage.type:local}")
+    private String type;
+
+    @Value("${file.storage.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${file.storage.s3.region:us-east-1}")
+    private String region;
+
+    @Value("${file.storage.s3.bucket:}")
+    private String bucket;
+
+    @Value("${file.storage.s3.access-key:}")
+    private String accessKey;
+
+    @Value("${file.storage.s3.secret-key:}")
+    private String secretKey;
+
+    @Value("${file.storage.s3.path-style:true}")
+    private boolean pathStyle;
+
+    @Value("${file.storage.s3.multipart-threshold:8MB}")
+    private DataSize multipartThreshold;
+
+    @Value("${file.storage.s3.part-size:8MB}")
+    private DataSize partSize;
+
+    @Value("${file.storage.s3.upload-concurrency:4}")
+    private int uploadConcurrency;
+
+    @Value("${file.storage.s3.presign-ttl:10m}")
+    private Duration presignTtl;
+
+    @Value("${file.storage.s3.request-timeout:30s}")
+    private Duration requestTimeout;
+
+    @Value("${file.storage.s3.exists-cache-ttl:30s}")
+    private Duration existsCacheTtl;
+
+    @Bean
+    public BlobStore blobStore() {
+        BlobStore store;
+        if ("s3".equalsIgnoreCase(type)) {
+            if (endpoint.isBlank() || bucket.isBlank()) {
+                throw new IllegalStateException("file.storage.s3.endpoint 和 file.storage.s3.bucket 不能为空");
+            }
+            store = new S3BlobStore(new S3BlobStore.Options(endpoint, region, bucket, accessKey, secretKey, pathStyle,
+                    multipartThreshold.toBytes(), partSize.toBytes(), uploadConcurrency, presignTtl, requestTimeout,
+                    existsCacheTtl));
+            log.info("上传文件使用对象存储: endpoint={}, bucket={}", endpoint, bucket);
+        } else {
+            store = new LocalBlobStore(Paths.get(FileUtil.FILE_BASE_PATH));
+            log.info("上传文件使用本地存储: {}", FileUtil.FILE_BASE_PATH);
+        }
+        // FileUtil 为静态工具类，启动时设置一次
+        FileUtil.setBlobStore(store);
+        return store;
+    }
+}
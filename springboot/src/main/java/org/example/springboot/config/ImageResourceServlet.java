@@ -0,0 +1,375 @@
+package org.example.springboot.config;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.springboot.enumClass.ImageVariant;
+import org.example.springboot.storage.BlobStore;
+import org.example.springboot.util.FileUtil;
+import org.example.springboot.util.ImageUtil;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 上传图片访问 Servlet
+ *
+ * 直接注册在 Servlet 容器上，不经过 DispatcherServlet，也不经过 Spring Security 过滤器链：
+ * 1. 强 ETag 与 If-None-Match 返回 304；内容寻址的文件名不可变，设置一年的 immutable 缓存
+ * 2. 支持单段 Range / If-Range 请求
+ * 3. 容器支持 sendfile 时交给容器零拷贝发送，否则用 FileChannel.transferTo 写出
+ * 4. 请求衍生图（缩略图、大图）且客户端接受 WebP 时，存在 WebP 版本则返回 WebP
+ * 5. 衍生图还不存在（异步生成中或无法生成）时重定向到原图
+ * 使用对象存储时不经过应用节点传输内容，重定向到存储的预签名地址
+ */
+public class ImageResourceServlet extends HttpServlet {
+
+    /**
+     * 内容寻址的文件名：摘要(32位十六进制)[_衍生图后缀].扩展名
+     */
+    private static final Pattern IMMUTABLE_NAME = Pattern.compile("^[0-9a-f]{32}(_[a-z]+)?\\.[a-z0-9]+$");
+
+    private static final String IMMUTABLE_CACHE = "public, max-age=31536000, immutable";
+    private static final String MUTABLE_CACHE = "public, max-age=86400";
+
+    /**
+     * 预签名地址会过期，重定向响应只允许短时间缓存
+     */
+    private static final String REDIRECT_CACHE = "private, max-age=60";
+
+    /**
+     * 小文件直接写出比 sendfile 更快（与 Tomcat 默认的 sendfileSize 一致）
+     */
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    /**
+     * 没有 WebP 编码插件时不会生成 WebP 衍生图，不做内容协商（对象存储上省去一次必然落空的 HEAD）
+     */
+    private static final boolean WEBP_ENABLED = ImageUtil.canWrite("webp");
+
+    /**
+     * Servlet 映射路径对应的存储目录，如映射到 /img/* 时为 /img
+     */
+    private final String baseDir;
+
+    public ImageResourceServlet(String baseDir) {
+        this.baseDir = baseDir;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serve(request, response, true);
+    }
+
+    @Override
+    protected void doHead(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serve(request, response, false);
+    }
+
+    private void serve(HttpServletRequest request, HttpServletResponse response, boolean writeBody) throws IOException {
+        String pathInfo = request.getPathInfo();
+        if (pathInfo != null && !FileUtil.isLocalStore()) {
+            redirect(request, response, baseDir + pathInfo);
+            return;
+        }
+        Path file = pathInfo == null ? null : FileUtil.locate(baseDir + pathInfo);
+        if (file == null || file.getFileName().toString().startsWith(".")) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        boolean negotiable = WEBP_ENABLED && isDerivative(file.getFileName().toString());
+        if (negotiable && accepts(request.getHeader("Accept"), "image/webp")) {
+            Path webp = file.resolveSibling(webpName(file.getFileName().toString()));
+            if (Files.isRegularFile(webp)) {
+                file = webp;
+            }
+        }
+
+        BasicFileAttributes attributes = null;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            // 文件不存在
+        }
+        if (attributes == null || !attributes.isRegularFile()) {
+            if (!redirectToOriginal(request, response, baseDir + pathInfo)) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            }
+            return;
+        }
+
+        String fileName = file.getFileName().toString();
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        boolean immutable = IMMUTABLE_NAME.matcher(fileName).matches();
+        String etag = immutable
+                ? "\"" + fileName.substring(0, fileName.lastIndexOf('.')) + "-" + Long.toHexString(length) + "\""
+                : "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + "\"";
+
+        response.setHeader("ETag", etag);
+        response.setHeader("Cache-Control", immutable ? IMMUTABLE_CACHE : MUTABLE_CACHE);
+        response.setDateHeader("Last-Modified", lastModified);
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        if (negotiable) {
+            response.setHeader("Vary", "Accept");
+        }
+
+        if (notModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        String contentType = request.getServletContext().getMimeType(fileName);
+        response.setContentType(contentType != null ? contentType : "application/octet-stream");
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader("Range");
+        if (range != null && ifRangeMatches(request.getHeader("If-Range"), etag, lastModified)) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setHeader("Content-Range", "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (!writeBody || count <= 0) {
+            return;
+        }
+
+        if (count >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            // 由容器在请求结束后用 sendfile 发送，数据不经过用户态
+            request.setAttribute("org.apache.tomcat.sendfile.filename", file.toAbsolutePath().toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", start);
+            request.setAttribute("org.apache.tomcat.sendfile.end", end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    /**
+     * 对象存储：重定向到预签名地址，由存储直接处理缓存校验和 Range
+     */
+    private static void redirect(HttpServletRequest request, HttpServletResponse response, String webPath) throws IOException {
+        BlobStore store = FileUtil.blobStore();
+        String key = FileUtil.keyOf(webPath);
+        if (key == null || key.substring(key.lastIndexOf('/') + 1).startsWith(".")) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String fileName = key.substring(key.lastIndexOf('/') + 1);
+        if (isDerivative(fileName)) {
+            boolean webpServed = false;
+            if (WEBP_ENABLED) {
+                response.setHeader("Vary", "Accept");
+                if (accepts(request.getHeader("Accept"), "image/webp")) {
+                    String webp = key.substring(0, key.length() - fileName.length()) + webpName(fileName);
+                    if (store.exists(webp)) {
+                        key = webp;
+                        webpServed = true;
+                    }
+                }
+            }
+            // 存在性结果由存储短时间缓存
+            if (!webpServed && !store.exists(key) && redirectToOriginal(request, response, webPath)) {
+                return;
+            }
+        }
+        URI location = store.presignedGet(key);
+        if (location == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setHeader("Cache-Control", REDIRECT_CACHE);
+        response.sendRedirect(location.toString());
+    }
+
+    /**
+     * 衍生图不存在时重定向到同目录下的原图，原图扩展名未知，按上传图片可能的格式依次查找；
+     * 衍生图稍后会生成，重定向只允许短时间缓存
+     * @return 是否已重定向
+     */
+    private static boolean redirectToOriginal(HttpServletRequest request, HttpServletResponse response,
+                                              String webPath) throws IOException {
+        for (String original : originalCandidates(webPath)) {
+            if (FileUtil.exists(original)) {
+                String uri = request.getRequestURI();
+                response.setHeader("Cache-Control", REDIRECT_CACHE);
+                response.sendRedirect(uri.substring(0, uri.lastIndexOf('/') + 1)
+                        + original.substring(original.lastIndexOf('/') + 1));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 衍生图路径对应的可能的原图路径，不是衍生图时返回空列表
+     */
+    static List<String> originalCandidates(String webPath) {
+        String fileName = webPath.substring(webPath.lastIndexOf('/') + 1);
+        List<String> candidates = new ArrayList<>();
+        if (!isDerivative(fileName)) {
+            return candidates;
+        }
+        String base = webPath.substring(0, webPath.lastIndexOf('_'));
+        for (String format : ImageUtil.FORMATS) {
+            candidates.add(base + "." + format);
+        }
+        return candidates;
+    }
+
+    private static boolean notModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return etagMatches(ifNoneMatch, etag, true);
+        }
+        long ifModifiedSince = parseDate(request, "If-Modified-Since");
+        return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * If-Range 只接受强 ETag 或日期，不匹配时忽略 Range 返回完整内容
+     */
+    static boolean ifRangeMatches(String ifRange, String etag, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return etagMatches(ifRange, etag, false);
+        }
+        try {
+            long date = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return lastModified / 1000 == date / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    static boolean etagMatches(String header, String etag, boolean weak) {
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                if (!weak) {
+                    continue;
+                }
+                value = value.substring(2);
+            }
+            if (value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 解析单段 Range
+     * @return [start, end]；多段范围返回空数组（按完整内容响应）；无法满足返回 null
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                // 后缀范围：最后 N 个字节
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0 || length == 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                if (dash == spec.length() - 1) {
+                    end = length - 1;
+                } else {
+                    end = Long.parseLong(spec.substring(dash + 1));
+                    if (end < start) {
+                        // 语法无效的范围按完整内容响应
+                        return new long[0];
+                    }
+                    end = Math.min(end, length - 1);
+                }
+            }
+            if (start >= length) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private static long parseDate(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static boolean accepts(String accept, String mediaType) {
+        return accept != null && accept.contains(mediaType);
+    }
+
+    private static boolean isDerivative(String name) {
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (name.endsWith("_" + variant.getSuffix() + ".jpg")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String webpName(String jpegName) {
+        return jpegName.substring(0, jpegName.length() - ".jpg".length()) + ".webp";
+    }
+}
@@ -114,6 +114,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             "/api/user/add",
             "/api/lost-item/list",
             "/api/found-item/list",
+            "/api/lost-item/search",
+            "/api/found-item/search",
+            "/api/lost-item/scroll",
+            "/api/found-item/scroll",
             "/api/item-category/list",
             "/api/email/",
             "/api/file/",
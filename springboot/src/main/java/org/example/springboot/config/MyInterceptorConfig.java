@@ -1,25 +1,16 @@
 package org.example.springboot.config;
 
-import org.example.springboot.util.FileUtil;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
-import java.nio.file.Path;
-
 @Configuration
 public class MyInterceptorConfig implements WebMvcConfigurer {
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        Path projectRootPath = null;
-        projectRootPath = Path.of(FileUtil.FILE_BASE_PATH);
-        String imgFolderPath = projectRootPath.resolve("img").toAbsolutePath().toString();
-        
-        // 添加两个资源映射，一个带/api前缀，一个不带
-        registry.addResourceHandler("/api/img/**").addResourceLocations("file:" + imgFolderPath + "/");
-        registry.addResourceHandler("/img/**").addResourceLocations("file:" + imgFolderPath + "/");
-
         registry.addResourceHandler("doc.html")
                 .addResourceLocations("classpath:/META-INF/resources/");
         registry.addResourceHandler("swagger-ui.html")
@@ -27,4 +18,18 @@ public class MyInterceptorConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/webjars/**")
                 .addResourceLocations("classpath:/META-INF/resources/webjars/");
     }
+
+    /**
+     * 上传文件访问：注册为独立 Servlet，不经过 DispatcherServlet，
+     * 缓存校验、Range 和零拷贝发送见 ImageResourceServlet。
+     * 只映射只读的 /img 前缀；/file/** 是 FileController 的上传和管理接口，必须留给 DispatcherServlet
+     */
+    @Bean
+    public ServletRegistrationBean<ImageResourceServlet> imageResourceServlet() {
+        // 两个映射，一个带/api前缀，一个不带
+        ServletRegistrationBean<ImageResourceServlet> registration =
+                new ServletRegistrationBean<>(new ImageResourceServlet("/img"), "/img/*", "/api/img/*");
+        registration.setName("imageResourceServlet");
+        return registration;
+    }
 }
@@ -1,11 +1,14 @@
 package org.example.springboot.config;
 
 import jakarta.annotation.Resource;
+import jakarta.servlet.DispatcherType;
 import org.example.springboot.util.JwtAuthUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -32,16 +35,35 @@ public class SecurityConfig {
     @Resource
     private JwtAuthUtils jwtAuthUtils;
 
+    @Value("${password.hash.strength:10}")
+    private int passwordStrength;
+
     /**
      * 密码编码器配置
      * 使用BCrypt加密算法对密码进行加密
      * BCrypt是一种安全的密码哈希函数，自动包含随机盐值
+     * 强度调高后，旧哈希在用户下次登录时升级（见 PasswordHashService）
      *
      * @return PasswordEncoder BCrypt密码编码器实例
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(10);  // 设置加密强度
+        return new BCryptPasswordEncoder(passwordStrength);  // 设置加密强度
+    }
+
+    /**
+     * 公开的图片访问路径完全跳过安全过滤器链
+     * 图片请求占绝大多数，不需要解析token，也不需要安全上下文
+     * 只忽略只读的图片路径；/file/** 是上传和管理接口，仍经过 JWT 过滤器
+     *
+     * @return WebSecurityCustomizer 忽略规则
+     */
+    @Bean
+    public WebSecurityCustomizer webSecurityCustomizer() {
+        return web -> web.ignoring().requestMatchers(
+                "/img/**",                   // 图片访问接口
+                "/api/img/**"                // 图片访问接口（带前缀）
+        );
     }
 
     /**
@@ -62,6 +84,9 @@ public class SecurityConfig {
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .authorizeHttpRequests(auth -> auth
+                        // 异步分派（SSE推送连接）沿用初次请求的认证结果
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // 公开接口 - 无需认证
                         .requestMatchers(
                                 "/api/user/login",           // 用户登录
@@ -69,15 +94,17 @@ public class SecurityConfig {
                                 "/api/user/forget",          // 忘记密码
                                 "/api/user/add",             // 用户注册（另一个接口）
                                 "/api/lost-item/list",       // 失物列表（浏览）
+                                "/api/lost-item/search",     // 失物检索
+                                "/api/lost-item/scroll",     // 失物列表（游标分页）
                                 "/api/lost-item/{id}",       // 失物详情（浏览）
                                 "/api/found-item/list",      // 招领列表（浏览）
+                                "/api/found-item/search",    // 招领检索
+                                "/api/found-item/scroll",    // 招领列表（游标分页）
                                 "/api/found-item/{id}",      // 招领详情（浏览）
                                 "/api/item-category/list",   // 分类列表
                                 "/api/email/**",             // 邮件相关接口
                                 "/api/file/**",              // 文件上传接口
-                                "/file/**",                  // 文件访问接口（无前缀）
-                                "/api/img/**",               // 图片访问接口（带前缀）
-                                "/img/**",                   // 图片访问接口
+                                "/file/**",                  // 文件上传接口（无前缀）
                                 "/error",                    // 错误页面
                                 "/actuator/health",          // 健康检查
                                 // Swagger相关接口
@@ -0,0 +1,53 @@
+package org.example.springboot.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.Resource;
+import org.example.springboot.common.Result;
+import org.example.springboot.entity.DailyItemStats;
+import org.example.springboot.service.ItemAnalyticsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 统计分析控制器
+ */
+@Tag(name = "统计分析接口")
+@RestController
+@RequestMapping("/analytics")
+public class AnalyticsController {
+
+    @Resource
+    private ItemAnalyticsService itemAnalyticsService;
+
+    @Operation(summary = "按天查询统计趋势")
+    @GetMapping("/daily")
+    public Result<List<DailyItemStats>> daily(
+            @Parameter(description = "开始日期(yyyy-MM-dd)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "结束日期(yyyy-MM-dd)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "物品类型(0招领信息,1失物信息)") @RequestParam(required = false) Integer itemType,
+            @Parameter(description = "分类ID") @RequestParam(required = false) Long categoryId) {
+        return Result.success(itemAnalyticsService.getDailyStats(startDate, endDate, itemType, categoryId));
+    }
+
+    @Operation(summary = "按分类汇总统计")
+    @GetMapping("/categories")
+    public Result<List<DailyItemStats>> categories(
+            @Parameter(description = "开始日期(yyyy-MM-dd)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "结束日期(yyyy-MM-dd)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "物品类型(0招领信息,1失物信息)") @RequestParam(required = false) Integer itemType) {
+        return Result.success(itemAnalyticsService.getCategoryStats(startDate, endDate, itemType));
+    }
+
+    @Operation(summary = "按业务数据回填统计（管理员）")
+    @PostMapping("/backfill")
+    public Result<Integer> backfill(
+            @Parameter(description = "开始日期(yyyy-MM-dd)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "结束日期(yyyy-MM-dd)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return Result.success(itemAnalyticsService.backfill(startDate, endDate));
+    }
+}
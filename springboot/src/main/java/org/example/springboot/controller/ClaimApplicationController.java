@@ -5,6 +5,8 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.Resource;
+import org.example.springboot.DTO.ClaimAuditDTO;
+import org.example.springboot.DTO.ClaimAuditResultDTO;
 import org.example.springboot.common.Result;
 import org.example.springboot.entity.ClaimApplication;
 import org.example.springboot.service.ClaimApplicationService;
@@ -12,6 +14,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * 认领申请控制器
  */
@@ -96,6 +100,16 @@ public class ClaimApplicationController {
         return Result.success();
     }
     
+    /**
+     * 批量审核认领申请
+     */
+    @Operation(summary = "批量审核认领申请")
+    @PutMapping("/audit/batch")
+    public Result<List<ClaimAuditResultDTO>> auditBatch(@RequestBody List<ClaimAuditDTO> audits) {
+        log.info("批量审核认领申请: count={}", audits == null ? 0 : audits.size());
+        return Result.success(claimApplicationService.auditBatch(audits));
+    }
+    
     /**
      * 取消认领申请
      */
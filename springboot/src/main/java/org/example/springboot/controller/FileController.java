@@ -4,7 +4,9 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.example.springboot.common.Result;
 import org.example.springboot.enumClass.FileType;
+import org.example.springboot.service.FileLayoutMigrationService;
 import org.example.springboot.service.FileService;
+import org.example.springboot.service.OrphanFileService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,6 +25,10 @@ public class FileController {
 
     @Autowired
     private FileService fileService;
+    @Autowired
+    private FileLayoutMigrationService fileLayoutMigrationService;
+    @Autowired
+    private OrphanFileService orphanFileService;
     private static final Logger LOGGER = LoggerFactory.getLogger(FileController.class);
 
     @Operation(summary = "文件上传")
@@ -33,8 +39,25 @@ public class FileController {
     @Operation(summary = "多文件上传，并且在有失败时删除已上传成功的文件")
     @PostMapping("/uploadMultiple")
     public Result<?> uploadMultiple(@RequestParam("files") List<MultipartFile> files) {
-        List<String> strings = fileService.uploadMultiple(files);
-        return !strings.isEmpty() ? Result.success(strings):Result.error("-1","文件上传失败！");
+        return Result.success(fileService.uploadMultiple(files));
+    }
+
+    @Operation(summary = "多图片并行上传，全部成功才返回路径，有失败时删除本次写入的图片")
+    @PostMapping("/upload/img/batch")
+    public Result<List<String>> uploadImages(@RequestParam("files") List<MultipartFile> files) {
+        return Result.success(fileService.uploadImages(files));
+    }
+
+    @Operation(summary = "旧文件迁移到分层目录并改写图片路径（管理员），中断后再次调用从断点继续")
+    @PostMapping("/layout/migrate")
+    public Result<FileLayoutMigrationService.MigrationResult> migrateLayout() {
+        return Result.success(fileLayoutMigrationService.migrate());
+    }
+
+    @Operation(summary = "清理不再被引用的上传文件（管理员），dryRun只统计不删除")
+    @PostMapping("/gc")
+    public Result<OrphanFileService.CollectReport> collectOrphans(@RequestParam(defaultValue = "true") boolean dryRun) {
+        return Result.success(orphanFileService.collectByAdmin(dryRun));
     }
 }
 
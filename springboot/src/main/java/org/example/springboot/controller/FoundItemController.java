@@ -5,6 +5,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.Resource;
+import org.example.springboot.common.CursorPage;
 import org.example.springboot.common.Result;
 import org.example.springboot.entity.FoundItem;
 import org.example.springboot.service.FoundItemService;
@@ -45,6 +46,37 @@ public class FoundItemController {
         return Result.success(page);
     }
     
+    /**
+     * 游标分页查询招领信息
+     */
+    @Operation(summary = "游标分页查询招领信息（无限滚动，不返回总数）")
+    @GetMapping("/scroll")
+    public Result<CursorPage<FoundItem>> scroll(
+            @Parameter(description = "上一页返回的游标，第一页不传") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页数量") @RequestParam(defaultValue = "10") Integer size,
+            @Parameter(description = "标题") @RequestParam(required = false) String title,
+            @Parameter(description = "分类ID") @RequestParam(required = false) Long categoryId,
+            @Parameter(description = "状态(0待认领,1已认领,2已关闭)") @RequestParam(required = false) Integer status,
+            @Parameter(description = "用户ID") @RequestParam(required = false) Long userId) {
+        CursorPage<FoundItem> page = foundItemService.queryByCursor(cursor, size, title, categoryId, status, userId);
+        return Result.success(page);
+    }
+    
+    /**
+     * 检索招领信息
+     */
+    @Operation(summary = "检索招领信息")
+    @GetMapping("/search")
+    public Result<Page<FoundItem>> search(
+            @Parameter(description = "关键词（匹配标题、描述、拾取地点）") @RequestParam(required = false) String keyword,
+            @Parameter(description = "分类ID") @RequestParam(required = false) Long categoryId,
+            @Parameter(description = "状态(0待认领,1已认领,2已关闭)") @RequestParam(required = false) Integer status,
+            @Parameter(description = "当前页码") @RequestParam(defaultValue = "1") Integer currentPage,
+            @Parameter(description = "每页数量") @RequestParam(defaultValue = "10") Integer size) {
+        Page<FoundItem> page = foundItemService.search(keyword, categoryId, status, currentPage, size);
+        return Result.success(page);
+    }
+    
     /**
      * 获取当前用户的招领信息列表
      */
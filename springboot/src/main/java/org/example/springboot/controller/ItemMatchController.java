@@ -0,0 +1,33 @@
+package org.example.springboot.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.Resource;
+import org.example.springboot.common.Result;
+import org.example.springboot.entity.ItemMatch;
+import org.example.springboot.service.ItemMatchService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 失物招领匹配控制器
+ */
+@Tag(name = "失物招领匹配接口")
+@RestController
+@RequestMapping("/item-match")
+public class ItemMatchController {
+
+    @Resource
+    private ItemMatchService itemMatchService;
+
+    @Operation(summary = "查询物品的匹配结果")
+    @GetMapping("/list")
+    public Result<List<ItemMatch>> list(
+            @Parameter(description = "物品类型(0招领信息,1失物信息)") @RequestParam Integer itemType,
+            @Parameter(description = "物品ID") @RequestParam Long itemId) {
+        List<ItemMatch> matches = itemMatchService.listMatches(itemType, itemId);
+        return Result.success(matches);
+    }
+}
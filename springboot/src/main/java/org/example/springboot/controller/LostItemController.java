@@ -5,6 +5,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.Resource;
+import org.example.springboot.common.CursorPage;
 import org.example.springboot.common.Result;
 import org.example.springboot.entity.LostItem;
 import org.example.springboot.entity.User;
@@ -48,6 +49,31 @@ public class LostItemController {
         return Result.success(page);
     }
     
+    @Operation(summary = "游标分页查询失物信息（无限滚动，不返回总数）")
+    @GetMapping("/scroll")
+    public Result<CursorPage<LostItem>> scroll(
+            @Parameter(description = "上一页返回的游标，第一页不传") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页记录数") @RequestParam(defaultValue = "10") Integer size,
+            @Parameter(description = "标题") @RequestParam(required = false) String title,
+            @Parameter(description = "分类ID") @RequestParam(required = false) Long categoryId,
+            @Parameter(description = "状态: 0-待认领, 1-已认领, 2-已关闭") @RequestParam(required = false) Integer status,
+            @Parameter(description = "用户ID") @RequestParam(required = false) Long userId) {
+        CursorPage<LostItem> page = lostItemService.queryByCursor(cursor, size, title, categoryId, status, userId);
+        return Result.success(page);
+    }
+    
+    @Operation(summary = "检索失物信息")
+    @GetMapping("/search")
+    public Result<Page<LostItem>> search(
+            @Parameter(description = "关键词（匹配标题、描述、丢失地点）") @RequestParam(required = false) String keyword,
+            @Parameter(description = "分类ID") @RequestParam(required = false) Long categoryId,
+            @Parameter(description = "状态: 0-待认领, 1-已认领, 2-已关闭") @RequestParam(required = false) Integer status,
+            @Parameter(description = "当前页") @RequestParam(defaultValue = "1") Integer currentPage,
+            @Parameter(description = "每页记录数") @RequestParam(defaultValue = "10") Integer size) {
+        Page<LostItem> page = lostItemService.search(keyword, categoryId, status, currentPage, size);
+        return Result.success(page);
+    }
+    
     @Operation(summary = "根据ID查询失物信息")
     @GetMapping("/{id}")
     public Result<LostItem> getById(@PathVariable Long id) {
@@ -85,8 +111,7 @@ public class LostItemController {
             return Result.error("无权修改该失物信息");
         }
         
-        lostItem.setId(id);
-        lostItemService.updateById(lostItem);
+        lostItemService.updateItem(existItem, lostItem);
         return Result.success(lostItem);
     }
     
@@ -109,7 +134,7 @@ public class LostItemController {
             return Result.error("无权删除该失物信息");
         }
         
-        lostItemService.removeById(id);
+        lostItemService.removeItem(existItem);
         return Result.success(Boolean.TRUE);
     }
     
@@ -141,9 +166,8 @@ public class LostItemController {
         }
         
         LostItem updateItem = new LostItem();
-        updateItem.setId(id);
         updateItem.setStatus(status);
-        lostItemService.updateById(updateItem);
+        lostItemService.updateItem(existItem, updateItem);
         
         return Result.success(Boolean.TRUE);
     }
@@ -154,7 +178,7 @@ public class LostItemController {
         Map<String, Object> statistics = new HashMap<>();
         
         // 获取失物总数
-        long totalItems = lostItemService.count();
+        long totalItems = lostItemService.countTotal();
         
         // 获取待认领数量
         long totalPending = lostItemService.countByStatus(0);
@@ -7,7 +7,11 @@ import jakarta.annotation.Resource;
 import org.example.springboot.common.Result;
 import org.example.springboot.entity.Notification;
 import org.example.springboot.service.NotificationService;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
 
 /**
  * 通知控制器
@@ -45,6 +49,22 @@ public class NotificationController {
         }
     }
     
+    @Operation(summary = "订阅通知推送（SSE，可通过token查询参数认证）")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return notificationService.subscribe();
+    }
+    
+    @Operation(summary = "获取通知投递指标（管理员）")
+    @GetMapping("/outbox/metrics")
+    public Result<Map<String, Object>> getOutboxMetrics() {
+        try {
+            return Result.success(notificationService.getOutboxMetrics());
+        } catch (Exception e) {
+            return Result.error(e.getMessage());
+        }
+    }
+    
     @Operation(summary = "标记通知为已读")
     @PutMapping("/{id}/read")
     public Result<String> markAsRead(@PathVariable Long id) {
@@ -16,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @Tag(name="用户管理接口")
 @RestController
@@ -66,6 +67,12 @@ public class UserController {
         return Result.success("密码重置成功");
     }
 
+    @Operation(summary = "获取密码哈希线程池指标（管理员）")
+    @GetMapping("/password-hash/metrics")
+    public Result<Map<String, Object>> getPasswordHashMetrics() {
+        return Result.success(userService.getPasswordHashMetrics());
+    }
+
     @Operation(summary = "分页查询用户")
     @GetMapping("/page")
     public Result<?> getUsersByPage(
@@ -27,9 +27,15 @@ public class ClaimApplication {
     @Schema(description = "物品类型(0招领信息,1失物信息)")
     private Integer itemType;
     
+    @Schema(description = "物品标题（冗余，随物品修改同步）")
+    private String itemTitle;
+    
     @Schema(description = "申请人ID")
     private Long userId;
     
+    @Schema(description = "物品发布者ID")
+    private Long ownerUserId;
+    
     @Schema(description = "申请说明")
     private String description;
     
@@ -52,10 +58,6 @@ public class ClaimApplication {
     private String auditRemark;
     
     // 非数据库字段
-    @TableField(exist = false)
-    @Schema(description = "物品标题")
-    private String itemTitle;
-    
     @TableField(exist = false)
     @Schema(description = "申请人用户名")
     private String username;
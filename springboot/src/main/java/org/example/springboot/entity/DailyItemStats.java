@@ -0,0 +1,52 @@
+package org.example.springboot.entity;
+
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 物品每日统计实体类
+ */
+@Data
+@TableName("daily_item_stats")
+@Schema(description = "物品每日统计实体类")
+public class DailyItemStats {
+    @Schema(description = "统计日期")
+    private LocalDate statDate;
+
+    @Schema(description = "物品类型(0招领,1失物)，汇总查询时为空")
+    private Integer itemType;
+
+    @Schema(description = "分类ID，汇总查询时为空")
+    private Long categoryId;
+
+    @Schema(description = "发布数量")
+    private Integer posts;
+
+    @Schema(description = "认领申请数量")
+    private Integer claims;
+
+    @Schema(description = "审核通过数量")
+    private Integer approvals;
+
+    @Schema(description = "过期数量")
+    private Integer expirations;
+
+    @Schema(description = "审核通过物品从发布到认领的总耗时(秒)")
+    private Long claimSeconds;
+
+    @Schema(description = "更新时间")
+    private LocalDateTime updateTime;
+
+    @TableField(exist = false)
+    @Schema(description = "平均认领耗时(小时)")
+    private Double avgClaimHours;
+
+    @TableField(exist = false)
+    @Schema(description = "分类名称")
+    private String categoryName;
+}
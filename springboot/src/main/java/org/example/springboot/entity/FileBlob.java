@@ -0,0 +1,39 @@
+package org.example.springboot.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 上传文件实体类
+ */
+@Data
+@TableName("file_blob")
+@Schema(description = "上传文件实体类")
+public class FileBlob {
+    @TableId(type = IdType.INPUT)
+    @Schema(description = "访问路径")
+    private String path;
+
+    @Schema(description = "内容SHA-256摘要")
+    private String digest;
+
+    @Schema(description = "文件大小(字节)")
+    private Long size;
+
+    @Schema(description = "引用该文件的物品数")
+    private Integer refCount;
+
+    @Schema(description = "进行中的上传数(预约)")
+    private Integer pending;
+
+    @Schema(description = "首次上传时间")
+    private LocalDateTime createTime;
+
+    @Schema(description = "更新时间")
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,46 @@
+package org.example.springboot.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 失物招领匹配实体类
+ */
+@Data
+@TableName("item_match")
+@Schema(description = "失物招领匹配实体类")
+public class ItemMatch {
+    @TableId(type = IdType.AUTO)
+    @Schema(description = "匹配ID")
+    private Long id;
+
+    @Schema(description = "失物ID")
+    private Long lostItemId;
+
+    @Schema(description = "招领ID")
+    private Long foundItemId;
+
+    @Schema(description = "匹配得分(0-1)")
+    private Double score;
+
+    @Schema(description = "创建时间")
+    private LocalDateTime createTime;
+
+    @Schema(description = "更新时间")
+    private LocalDateTime updateTime;
+
+    // 额外字段，用于前端展示
+    @TableField(exist = false)
+    @Schema(description = "失物标题")
+    private String lostItemTitle;
+
+    @TableField(exist = false)
+    @Schema(description = "招领标题")
+    private String foundItemTitle;
+}
@@ -0,0 +1,36 @@
+package org.example.springboot.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 物品状态计数实体类
+ */
+@Data
+@TableName("item_status_counter")
+@Schema(description = "物品状态计数实体类")
+public class ItemStatusCounter {
+    @Schema(description = "物品类型(0招领,1失物)")
+    private Integer itemType;
+
+    @Schema(description = "物品状态")
+    private Integer status;
+
+    @Schema(description = "分槽编号")
+    private Integer slot;
+
+    @Schema(description = "数量")
+    private Long itemCount;
+
+    @Schema(description = "更新时间")
+    private LocalDateTime updateTime;
+
+    /**
+     * 物品类型
+     */
+    public static final int ITEM_TYPE_FOUND = 0;
+    public static final int ITEM_TYPE_LOST = 1;
+}
@@ -0,0 +1,48 @@
+package org.example.springboot.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 批处理任务断点实体类
+ */
+@Data
+@TableName("job_checkpoint")
+@Schema(description = "批处理任务断点实体类")
+public class JobCheckpoint {
+    @TableId(type = IdType.INPUT)
+    @Schema(description = "任务名称")
+    private String jobName;
+
+    @Schema(description = "状态(0执行中,1已完成)")
+    private Integer status;
+
+    @Schema(description = "本轮处理的截止时间")
+    private LocalDateTime cutoffTime;
+
+    @Schema(description = "游标位置(时间)")
+    private LocalDateTime cursorTime;
+
+    @Schema(description = "游标位置(ID)")
+    private Long cursorId;
+
+    @Schema(description = "本轮已处理数量")
+    private Long processedCount;
+
+    @Schema(description = "本轮开始时间")
+    private LocalDateTime startTime;
+
+    @Schema(description = "更新时间")
+    private LocalDateTime updateTime;
+
+    /**
+     * 断点状态
+     */
+    public static final int STATUS_RUNNING = 0;
+    public static final int STATUS_COMPLETED = 1;
+}
@@ -64,4 +64,12 @@ public class LostItem {
     @TableField(exist = false)
     @Schema(description = "用户名")
     private String username;
-} 
\ No newline at end of file
+    
+    @TableField(exist = false)
+    @Schema(description = "缩略图(与images一一对应，未生成时为原图)")
+    private String thumbnails;
+    
+    @TableField(exist = false)
+    @Schema(description = "详情大图(与images一一对应，已去除EXIF，未生成时为原图)")
+    private String previews;
+}
\ No newline at end of file
@@ -29,7 +29,7 @@ public class Notification {
     @Schema(description = "内容")
     private String content;
     
-    @Schema(description = "类型(0系统消息,1申请消息,2审核消息)")
+    @Schema(description = "类型(0系统消息,1申请消息,2审核消息,3匹配消息)")
     private Integer type;
     
     @Schema(description = "关联ID")
@@ -56,7 +56,8 @@ public class Notification {
     public enum NotificationType {
         SYSTEM(0, "系统消息"),
         APPLICATION(1, "申请消息"),
-        AUDIT(2, "审核消息");
+        AUDIT(2, "审核消息"),
+        MATCH(3, "匹配消息");
         
         private final Integer value;
         private final String description;
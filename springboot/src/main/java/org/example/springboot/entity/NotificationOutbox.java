@@ -0,0 +1,61 @@
+package org.example.springboot.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 通知发件箱实体类
+ */
+@Data
+@TableName("notification_outbox")
+@Schema(description = "通知发件箱实体类")
+public class NotificationOutbox {
+    @TableId(type = IdType.AUTO)
+    @Schema(description = "ID")
+    private Long id;
+
+    @Schema(description = "接收用户ID")
+    private Long userId;
+
+    @Schema(description = "标题")
+    private String title;
+
+    @Schema(description = "内容")
+    private String content;
+
+    @Schema(description = "通知类型")
+    private Integer type;
+
+    @Schema(description = "关联ID")
+    private Long relatedId;
+
+    @Schema(description = "状态(0待投递,1已投递,2投递失败)")
+    private Integer status;
+
+    @Schema(description = "投递次数")
+    private Integer attempts;
+
+    @Schema(description = "下次投递时间")
+    private LocalDateTime nextAttemptTime;
+
+    @Schema(description = "最近一次失败原因")
+    private String lastError;
+
+    @Schema(description = "创建时间")
+    private LocalDateTime createTime;
+
+    @Schema(description = "更新时间")
+    private LocalDateTime updateTime;
+
+    /**
+     * 发件箱状态
+     */
+    public static final int STATUS_PENDING = 0;
+    public static final int STATUS_SENT = 1;
+    public static final int STATUS_DEAD = 2;
+}
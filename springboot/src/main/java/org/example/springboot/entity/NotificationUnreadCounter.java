@@ -0,0 +1,27 @@
+package org.example.springboot.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户未读通知计数实体类
+ */
+@Data
+@TableName("notification_unread_counter")
+@Schema(description = "用户未读通知计数实体类")
+public class NotificationUnreadCounter {
+    @TableId(type = IdType.INPUT)
+    @Schema(description = "用户ID")
+    private Long userId;
+
+    @Schema(description = "未读通知数量")
+    private Integer unreadCount;
+
+    @Schema(description = "更新时间")
+    private LocalDateTime updateTime;
+}
@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -35,6 +36,10 @@ public class User {
     @Size(min = 6, max = 100, message = "密码长度必须在6到100个字符之间")
     private String password;
     
+    @Schema(hidden = true)
+    @JsonIgnore
+    private String tokenSecret;
+    
     @Schema(description = "邮箱")
     @NotBlank(message = "邮箱不能为空")
     @Email(message = "邮箱格式不正确")
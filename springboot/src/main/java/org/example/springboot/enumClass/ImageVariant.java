@@ -0,0 +1,45 @@
+package org.example.springboot.enumClass;
+
+/**
+ * 图片衍生版本
+ * 衍生图与原图同目录，文件名为 原图名_后缀.格式，例如 /img/abc.png -> /img/abc_thumb.jpg
+ */
+public enum ImageVariant {
+    // 列表缩略图，居中裁剪为固定尺寸的正方形
+    THUMB("thumb", 320, true),
+    // 详情大图，等比缩放到最长边不超过限制
+    LARGE("large", 1600, false);
+
+    private final String suffix;
+    private final int size;
+    private final boolean crop;
+
+    ImageVariant(String suffix, int size, boolean crop) {
+        this.suffix = suffix;
+        this.size = size;
+        this.crop = crop;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isCrop() {
+        return crop;
+    }
+
+    /**
+     * 由原图路径得到衍生图路径
+     * @param format 衍生图格式（jpg、webp）
+     */
+    public String pathOf(String imagePath, String format) {
+        int slash = imagePath.lastIndexOf('/');
+        int dot = imagePath.lastIndexOf('.');
+        String base = dot > slash ? imagePath.substring(0, dot) : imagePath;
+        return base + "_" + suffix + "." + format;
+    }
+}
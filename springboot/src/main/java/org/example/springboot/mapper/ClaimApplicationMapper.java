@@ -2,11 +2,88 @@ package org.example.springboot.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 import org.example.springboot.entity.ClaimApplication;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * 认领申请Mapper接口
  */
 @Mapper
 public interface ClaimApplicationMapper extends BaseMapper<ClaimApplication> {
-} 
\ No newline at end of file
+
+    /**
+     * 仅当申请仍为待审核时更新审核结果
+     * @return 更新行数，0表示申请已被处理或取消
+     */
+    @Update("UPDATE claim_application SET status = #{status}, audit_user_id = #{auditUserId}, audit_time = #{auditTime}, " +
+            "audit_remark = #{auditRemark}, update_time = #{updateTime} WHERE id = #{id} AND status = 0")
+    int updateIfPending(ClaimApplication application);
+
+    /**
+     * 同步物品标题
+     */
+    @Update("UPDATE claim_application SET item_title = #{itemTitle} WHERE item_id = #{itemId} AND item_type = #{itemType}")
+    int syncItemTitle(@Param("itemId") Long itemId, @Param("itemType") Integer itemType, @Param("itemTitle") String itemTitle);
+
+    /**
+     * 锁定某物品除指定申请外的全部待审核申请
+     */
+    @Select("SELECT id, user_id FROM claim_application WHERE item_id = #{itemId} AND item_type = #{itemType} " +
+            "AND status = 0 AND id <> #{excludeId} ORDER BY id FOR UPDATE")
+    List<ClaimApplication> lockPendingByItem(@Param("itemId") Long itemId, @Param("itemType") Integer itemType,
+                                             @Param("excludeId") Long excludeId);
+
+    /**
+     * 批量拒绝待审核申请
+     * @return 更新行数
+     */
+    @Update("<script>" +
+            "UPDATE claim_application SET status = 2, audit_user_id = #{auditUserId}, audit_time = #{auditTime}, " +
+            "audit_remark = #{auditRemark}, update_time = #{auditTime} WHERE status = 0 AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int rejectPending(@Param("ids") List<Long> ids, @Param("auditUserId") Long auditUserId,
+                      @Param("auditTime") LocalDateTime auditTime, @Param("auditRemark") String auditRemark);
+
+    /**
+     * 按主键顺序锁定仍为待审核的申请
+     */
+    @Select("<script>" +
+            "SELECT * FROM claim_application WHERE status = 0 AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "ORDER BY id FOR UPDATE" +
+            "</script>")
+    List<ClaimApplication> lockPendingByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * 批量写入审核结果，每条申请的状态和备注各自不同
+     * @return 更新行数
+     */
+    @Update("<script>" +
+            "UPDATE claim_application SET " +
+            "status = CASE id <foreach collection='list' item='a'>WHEN #{a.id} THEN #{a.status} </foreach>END, " +
+            "audit_remark = CASE id <foreach collection='list' item='a'>WHEN #{a.id} THEN #{a.auditRemark} </foreach>END, " +
+            "audit_user_id = #{auditUserId}, audit_time = #{auditTime}, update_time = #{auditTime} " +
+            "WHERE status = 0 AND id IN " +
+            "<foreach collection='list' item='a' open='(' separator=',' close=')'>#{a.id}</foreach>" +
+            "</script>")
+    int auditBatch(@Param("list") List<ClaimApplication> list, @Param("auditUserId") Long auditUserId,
+                   @Param("auditTime") LocalDateTime auditTime);
+
+    /**
+     * 锁定多个物品上剩余的待审核申请
+     * @param items 物品列表，取 itemType 和 itemId
+     */
+    @Select("<script>" +
+            "SELECT id, item_id, item_type, item_title, user_id FROM claim_application WHERE status = 0 " +
+            "AND (item_id, item_type) IN " +
+            "<foreach collection='items' item='a' open='(' separator=',' close=')'>(#{a.itemId}, #{a.itemType})</foreach> " +
+            "ORDER BY id FOR UPDATE" +
+            "</script>")
+    List<ClaimApplication> lockPendingByItems(@Param("items") List<ClaimApplication> items);
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package org.example.springboot.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.example.springboot.entity.DailyItemStats;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 物品每日统计Mapper接口
+ */
+@Mapper
+public interface DailyItemStatsMapper extends BaseMapper<DailyItemStats> {
+
+    /**
+     * 累加某天某分类的统计值
+     */
+    @Insert("INSERT INTO daily_item_stats (stat_date, item_type, category_id, posts, claims, approvals, expirations, claim_seconds) " +
+            "VALUES (#{statDate}, #{itemType}, #{categoryId}, #{posts}, #{claims}, #{approvals}, #{expirations}, #{claimSeconds}) " +
+            "ON DUPLICATE KEY UPDATE posts = posts + VALUES(posts), claims = claims + VALUES(claims), " +
+            "approvals = approvals + VALUES(approvals), expirations = expirations + VALUES(expirations), " +
+            "claim_seconds = claim_seconds + VALUES(claim_seconds)")
+    int increment(DailyItemStats delta);
+
+    /**
+     * 按天汇总区间内的统计值
+     */
+    @Select("<script>" +
+            "SELECT stat_date, SUM(posts) AS posts, SUM(claims) AS claims, SUM(approvals) AS approvals, " +
+            "SUM(expirations) AS expirations, SUM(claim_seconds) AS claim_seconds " +
+            "FROM daily_item_stats WHERE stat_date BETWEEN #{startDate} AND #{endDate} " +
+            "<if test='itemType != null'>AND item_type = #{itemType} </if>" +
+            "<if test='categoryId != null'>AND category_id = #{categoryId} </if>" +
+            "GROUP BY stat_date ORDER BY stat_date" +
+            "</script>")
+    List<DailyItemStats> sumByDate(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                                   @Param("itemType") Integer itemType, @Param("categoryId") Long categoryId);
+
+    /**
+     * 按分类汇总区间内的统计值
+     */
+    @Select("<script>" +
+            "SELECT category_id, SUM(posts) AS posts, SUM(claims) AS claims, SUM(approvals) AS approvals, " +
+            "SUM(expirations) AS expirations, SUM(claim_seconds) AS claim_seconds " +
+            "FROM daily_item_stats WHERE stat_date BETWEEN #{startDate} AND #{endDate} " +
+            "<if test='itemType != null'>AND item_type = #{itemType} </if>" +
+            "GROUP BY category_id ORDER BY posts DESC" +
+            "</script>")
+    List<DailyItemStats> sumByCategory(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                                       @Param("itemType") Integer itemType);
+
+    /**
+     * 回填前清零某天的统计值
+     */
+    @Update("UPDATE daily_item_stats SET posts = 0, claims = 0, approvals = 0, expirations = 0, claim_seconds = 0 " +
+            "WHERE stat_date = #{day}")
+    int resetDay(@Param("day") LocalDate day);
+
+    /**
+     * 按物品表回填某天的发布数量
+     */
+    @Insert("INSERT INTO daily_item_stats (stat_date, item_type, category_id, posts) " +
+            "SELECT #{day}, t.item_type, t.category_id, COUNT(*) FROM (" +
+            "SELECT 1 AS item_type, COALESCE(category_id, 0) AS category_id FROM lost_item " +
+            "WHERE create_time >= #{start} AND create_time < #{end} " +
+            "UNION ALL " +
+            "SELECT 0, COALESCE(category_id, 0) FROM found_item " +
+            "WHERE create_time >= #{start} AND create_time < #{end}" +
+            ") t GROUP BY t.item_type, t.category_id " +
+            "ON DUPLICATE KEY UPDATE posts = VALUES(posts)")
+    int backfillPosts(@Param("day") LocalDate day, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * 按认领申请表回填某天的申请数量
+     */
+    @Insert("INSERT INTO daily_item_stats (stat_date, item_type, category_id, claims) " +
+            "SELECT #{day}, t.item_type, t.category_id, COUNT(*) FROM (" +
+            "SELECT ca.item_type, COALESCE(l.category_id, f.category_id, 0) AS category_id " +
+            "FROM claim_application ca " +
+            "LEFT JOIN lost_item l ON ca.item_type = 1 AND l.id = ca.item_id " +
+            "LEFT JOIN found_item f ON ca.item_type = 0 AND f.id = ca.item_id " +
+            "WHERE ca.create_time >= #{start} AND ca.create_time < #{end}" +
+            ") t GROUP BY t.item_type, t.category_id " +
+            "ON DUPLICATE KEY UPDATE claims = VALUES(claims)")
+    int backfillClaims(@Param("day") LocalDate day, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * 按认领申请表回填某天的审核通过数量和认领耗时
+     */
+    @Insert("INSERT INTO daily_item_stats (stat_date, item_type, category_id, approvals, claim_seconds) " +
+            "SELECT #{day}, t.item_type, t.category_id, COUNT(*), SUM(t.claim_seconds) FROM (" +
+            "SELECT ca.item_type, COALESCE(l.category_id, f.category_id, 0) AS category_id, " +
+            "GREATEST(TIMESTAMPDIFF(SECOND, COALESCE(l.create_time, f.create_time, ca.audit_time), ca.audit_time), 0) AS claim_seconds " +
+            "FROM claim_application ca " +
+            "LEFT JOIN lost_item l ON ca.item_type = 1 AND l.id = ca.item_id " +
+            "LEFT JOIN found_item f ON ca.item_type = 0 AND f.id = ca.item_id " +
+            "WHERE ca.status = 1 AND ca.audit_time >= #{start} AND ca.audit_time < #{end}" +
+            ") t GROUP BY t.item_type, t.category_id " +
+            "ON DUPLICATE KEY UPDATE approvals = VALUES(approvals), claim_seconds = VALUES(claim_seconds)")
+    int backfillApprovals(@Param("day") LocalDate day, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * 按物品表回填某天的过期数量（以过期记录的最后更新时间近似过期时间）
+     */
+    @Insert("INSERT INTO daily_item_stats (stat_date, item_type, category_id, expirations) " +
+            "SELECT #{day}, t.item_type, t.category_id, COUNT(*) FROM (" +
+            "SELECT 1 AS item_type, COALESCE(category_id, 0) AS category_id FROM lost_item " +
+            "WHERE status = 4 AND update_time >= #{start} AND update_time < #{end} " +
+            "UNION ALL " +
+            "SELECT 0, COALESCE(category_id, 0) FROM found_item " +
+            "WHERE status = 4 AND update_time >= #{start} AND update_time < #{end}" +
+            ") t GROUP BY t.item_type, t.category_id " +
+            "ON DUPLICATE KEY UPDATE expirations = VALUES(expirations)")
+    int backfillExpirations(@Param("day") LocalDate day, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+}
@@ -0,0 +1,77 @@
+package org.example.springboot.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.example.springboot.entity.FileBlob;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * 上传文件Mapper接口
+ */
+@Mapper
+public interface FileBlobMapper extends BaseMapper<FileBlob> {
+
+    /**
+     * 预约文件记录（写入或复用存储中的文件之前执行，自动提交）；记录被删除操作锁定时等待其完成
+     */
+    @Insert("INSERT INTO file_blob (path, digest, size, ref_count, pending) VALUES (#{path}, #{digest}, #{size}, 0, 1) " +
+            "ON DUPLICATE KEY UPDATE pending = pending + 1, update_time = CURRENT_TIMESTAMP")
+    int reserve(@Param("path") String path, @Param("digest") String digest, @Param("size") long size);
+
+    /**
+     * 取消预约（上传失败或放弃）
+     */
+    @Update("UPDATE file_blob SET pending = GREATEST(pending - 1, 0) WHERE path = #{path}")
+    int cancel(@Param("path") String path);
+
+    /**
+     * 登记上传的文件并结束预约，重复上传相同内容时只刷新更新时间
+     */
+    @Insert("INSERT INTO file_blob (path, digest, size, ref_count, pending) VALUES (#{path}, #{digest}, #{size}, 0, 0) " +
+            "ON DUPLICATE KEY UPDATE pending = GREATEST(pending - 1, 0), update_time = CURRENT_TIMESTAMP")
+    int register(@Param("path") String path, @Param("digest") String digest, @Param("size") long size);
+
+    /**
+     * 调整一组文件的引用计数（在调用方事务内执行），未登记的旧文件不受影响
+     */
+    @Update("<script>" +
+            "UPDATE file_blob SET ref_count = GREATEST(ref_count + #{delta}, 0) WHERE path IN " +
+            "<foreach collection='paths' item='path' open='(' separator=',' close=')'>#{path}</foreach>" +
+            "</script>")
+    int adjust(@Param("paths") Collection<String> paths, @Param("delta") int delta);
+
+    /**
+     * 锁定文件记录；记录不存在时锁住该主键间隙，同样阻塞并发的预约
+     */
+    @Select("SELECT * FROM file_blob WHERE path = #{path} FOR UPDATE")
+    FileBlob lockByPath(@Param("path") String path);
+
+    /**
+     * 统计引用某个路径的物品数（用于未登记引用计数的旧文件）
+     */
+    @Select("SELECT (SELECT COUNT(*) FROM lost_item WHERE images LIKE CONCAT('%', #{path}, '%')) + " +
+            "(SELECT COUNT(*) FROM found_item WHERE images LIKE CONCAT('%', #{path}, '%'))")
+    long countItemReferences(@Param("path") String path);
+
+    /**
+     * 文件迁移到新路径：记录复制到新路径，新路径已登记（内容相同）时合并引用计数；
+     * 调用方随后删除旧路径的记录
+     */
+    @Insert("INSERT INTO file_blob (path, digest, size, ref_count, create_time) " +
+            "SELECT #{newPath}, digest, size, ref_count, create_time FROM file_blob WHERE path = #{oldPath} " +
+            "ON DUPLICATE KEY UPDATE ref_count = file_blob.ref_count + VALUES(ref_count)")
+    int copyTo(@Param("oldPath") String oldPath, @Param("newPath") String newPath);
+
+    /**
+     * 删除没有引用且宽限期内没有重新上传的登记记录；预约会刷新更新时间，超过宽限期仍未结束的预约视为已中断
+     */
+    @Delete("DELETE FROM file_blob WHERE path = #{path} AND ref_count = 0 AND update_time < #{cutoff}")
+    int deleteUnreferenced(@Param("path") String path, @Param("cutoff") LocalDateTime cutoff);
+}
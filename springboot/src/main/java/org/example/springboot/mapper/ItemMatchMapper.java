@@ -0,0 +1,25 @@
+package org.example.springboot.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.example.springboot.entity.ItemMatch;
+
+import java.util.List;
+
+@Mapper
+public interface ItemMatchMapper extends BaseMapper<ItemMatch> {
+
+    /**
+     * 批量写入匹配结果，已存在的匹配对只更新得分
+     */
+    @Insert("<script>" +
+            "INSERT INTO item_match (lost_item_id, found_item_id, score) VALUES " +
+            "<foreach collection='matches' item='m' separator=','>" +
+            "(#{m.lostItemId}, #{m.foundItemId}, #{m.score})" +
+            "</foreach>" +
+            " ON DUPLICATE KEY UPDATE score = VALUES(score)" +
+            "</script>")
+    int upsertBatch(@Param("matches") List<ItemMatch> matches);
+}
@@ -0,0 +1,58 @@
+package org.example.springboot.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.example.springboot.entity.ItemStatusCounter;
+
+import java.util.List;
+
+/**
+ * 物品状态计数Mapper接口
+ */
+@Mapper
+public interface ItemStatusCounterMapper extends BaseMapper<ItemStatusCounter> {
+
+    /**
+     * 调整指定分槽的计数，分槽不存在时自动创建
+     */
+    @Insert("INSERT INTO item_status_counter (item_type, status, slot, item_count) " +
+            "VALUES (#{itemType}, #{status}, #{slot}, #{delta}) " +
+            "ON DUPLICATE KEY UPDATE item_count = item_count + VALUES(item_count)")
+    int adjust(@Param("itemType") int itemType, @Param("status") int status,
+               @Param("slot") int slot, @Param("delta") long delta);
+
+    /**
+     * 汇总各分槽计数
+     */
+    @Select("SELECT item_type, status, SUM(item_count) AS item_count FROM item_status_counter GROUP BY item_type, status")
+    List<ItemStatusCounter> sumAll();
+
+    /**
+     * 锁定某类物品的全部计数行
+     */
+    @Select("SELECT * FROM item_status_counter WHERE item_type = #{itemType} FOR UPDATE")
+    List<ItemStatusCounter> lockByItemType(@Param("itemType") int itemType);
+
+    /**
+     * 将某个状态的计数重置为指定值（记在0号分槽，其余分槽清零）
+     */
+    @Update("UPDATE item_status_counter SET item_count = CASE WHEN slot = 0 THEN #{count} ELSE 0 END " +
+            "WHERE item_type = #{itemType} AND status = #{status}")
+    int reset(@Param("itemType") int itemType, @Param("status") int status, @Param("count") long count);
+
+    /**
+     * 按状态统计失物实际数量
+     */
+    @Select("SELECT 1 AS item_type, status, COUNT(*) AS item_count FROM lost_item GROUP BY status")
+    List<ItemStatusCounter> countLostByStatus();
+
+    /**
+     * 按状态统计招领实际数量
+     */
+    @Select("SELECT 0 AS item_type, status, COUNT(*) AS item_count FROM found_item GROUP BY status")
+    List<ItemStatusCounter> countFoundByStatus();
+}
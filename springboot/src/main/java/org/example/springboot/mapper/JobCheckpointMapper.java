@@ -0,0 +1,41 @@
+package org.example.springboot.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+import org.example.springboot.entity.JobCheckpoint;
+
+import java.time.LocalDateTime;
+
+/**
+ * 批处理任务断点Mapper接口
+ */
+@Mapper
+public interface JobCheckpointMapper extends BaseMapper<JobCheckpoint> {
+
+    /**
+     * 开始新一轮处理，重置游标
+     */
+    @Insert("INSERT INTO job_checkpoint (job_name, status, cutoff_time, cursor_time, cursor_id, processed_count, start_time) " +
+            "VALUES (#{jobName}, 0, #{cutoffTime}, NULL, 0, 0, #{startTime}) " +
+            "ON DUPLICATE KEY UPDATE status = 0, cutoff_time = VALUES(cutoff_time), cursor_time = NULL, " +
+            "cursor_id = 0, processed_count = 0, start_time = VALUES(start_time)")
+    int start(@Param("jobName") String jobName, @Param("cutoffTime") LocalDateTime cutoffTime,
+              @Param("startTime") LocalDateTime startTime);
+
+    /**
+     * 推进游标（与本批数据变更在同一事务内执行）
+     */
+    @Update("UPDATE job_checkpoint SET cursor_time = #{cursorTime}, cursor_id = #{cursorId}, " +
+            "processed_count = processed_count + #{processed} WHERE job_name = #{jobName} AND status = 0")
+    int advance(@Param("jobName") String jobName, @Param("cursorTime") LocalDateTime cursorTime,
+                @Param("cursorId") Long cursorId, @Param("processed") int processed);
+
+    /**
+     * 标记本轮处理完成
+     */
+    @Update("UPDATE job_checkpoint SET status = 1 WHERE job_name = #{jobName} AND status = 0")
+    int complete(@Param("jobName") String jobName);
+}
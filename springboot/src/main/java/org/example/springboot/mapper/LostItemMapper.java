@@ -1,9 +1,71 @@
 package org.example.springboot.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
-import org.example.springboot.entity.LostItem;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.example.springboot.entity.LostItem;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Mapper
 public interface LostItemMapper extends BaseMapper<LostItem> {
-} 
\ No newline at end of file
+
+    /**
+     * 按 (create_time, id) 游标扫描一批已过期的待认领记录（走 idx_status_create_time，不加锁）
+     */
+    @Select("<script>" +
+            "SELECT id, user_id, title, create_time FROM lost_item " +
+            "WHERE status = 0 AND create_time &lt; #{cutoff} " +
+            "<if test='afterTime != null'>" +
+            "AND (create_time &gt; #{afterTime} OR (create_time = #{afterTime} AND id &gt; #{afterId})) " +
+            "</if>" +
+            "ORDER BY create_time, id LIMIT #{limit}" +
+            "</script>")
+    List<LostItem> selectExpiredAfter(@Param("cutoff") LocalDateTime cutoff, @Param("afterTime") LocalDateTime afterTime,
+                                     @Param("afterId") Long afterId, @Param("limit") int limit);
+
+    /**
+     * 按主键顺序锁定仍处于待认领状态的记录
+     */
+    @Select("<script>" +
+            "SELECT id, user_id, category_id, title, create_time FROM lost_item WHERE status = 0 AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "ORDER BY id FOR UPDATE" +
+            "</script>")
+    List<LostItem> lockPendingByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * 将仍处于待认领状态的记录批量更新为指定状态
+     */
+    @Update("<script>" +
+            "UPDATE lost_item SET status = #{status} WHERE status = 0 AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int updatePendingStatus(@Param("ids") List<Long> ids, @Param("status") int status);
+
+    /**
+     * 按主键游标扫描一批带图片的记录（只取 id 和 images）
+     */
+    @Select("SELECT id, images FROM lost_item WHERE id > #{afterId} AND images IS NOT NULL AND images != '' " +
+            "ORDER BY id LIMIT #{limit}")
+    List<LostItem> selectImagesAfter(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    /**
+     * 替换图片路径：images 仍为读取时的值才更新（期间被修改的记录跳过），不改动更新时间
+     */
+    @Update("UPDATE lost_item SET images = #{images}, update_time = update_time WHERE id = #{id} AND images = #{expected}")
+    int replaceImages(@Param("id") Long id, @Param("expected") String expected, @Param("images") String images);
+
+    /**
+     * 流式读取全部图片字段（逐行从服务端读取，需在事务内消费并关闭）
+     */
+    @Select("SELECT images FROM lost_item WHERE images IS NOT NULL AND images != ''")
+    @Options(fetchSize = Integer.MIN_VALUE, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<String> streamImages();
+}
@@ -1,12 +1,29 @@
 package org.example.springboot.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
 import org.example.springboot.entity.Notification;
 
+import java.util.List;
+
 /**
  * 通知消息Mapper接口
  */
 @Mapper
 public interface NotificationMapper extends BaseMapper<Notification> {
+
+    /**
+     * 批量写入通知（多行INSERT），回填自增ID
+     */
+    @Insert("<script>" +
+            "INSERT INTO notification (user_id, title, content, type, related_id, is_read, create_time) VALUES " +
+            "<foreach collection='list' item='n' separator=','>" +
+            "(#{n.userId}, #{n.title}, #{n.content}, #{n.type}, #{n.relatedId}, #{n.isRead}, #{n.createTime})" +
+            "</foreach>" +
+            "</script>")
+    @Options(useGeneratedKeys = true, keyProperty = "id", keyColumn = "id")
+    int insertBatch(@Param("list") List<Notification> list);
 }
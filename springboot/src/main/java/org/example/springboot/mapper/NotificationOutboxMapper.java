@@ -0,0 +1,67 @@
+package org.example.springboot.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.example.springboot.entity.NotificationOutbox;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 通知发件箱Mapper接口
+ */
+@Mapper
+public interface NotificationOutboxMapper extends BaseMapper<NotificationOutbox> {
+
+    /**
+     * 批量写入待投递通知
+     */
+    @Insert("<script>" +
+            "INSERT INTO notification_outbox (user_id, title, content, type, related_id, status, attempts, next_attempt_time, create_time) VALUES " +
+            "<foreach collection='list' item='o' separator=','>" +
+            "(#{o.userId}, #{o.title}, #{o.content}, #{o.type}, #{o.relatedId}, 0, 0, #{o.createTime}, #{o.createTime})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("list") List<NotificationOutbox> list);
+
+    /**
+     * 锁定一批到期的待投递记录，已被其他投递线程锁定的记录直接跳过
+     */
+    @Select("SELECT * FROM notification_outbox WHERE status = 0 AND next_attempt_time <= #{now} " +
+            "ORDER BY id LIMIT #{limit} FOR UPDATE SKIP LOCKED")
+    List<NotificationOutbox> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * 锁定单条待投递记录
+     */
+    @Select("SELECT * FROM notification_outbox WHERE id = #{id} AND status = 0 FOR UPDATE SKIP LOCKED")
+    NotificationOutbox lockPendingById(@Param("id") Long id);
+
+    /**
+     * 批量标记为已投递
+     */
+    @Update("<script>" +
+            "UPDATE notification_outbox SET status = 1, attempts = attempts + 1, last_error = NULL WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int markSent(@Param("ids") List<Long> ids);
+
+    /**
+     * 记录投递失败
+     */
+    @Update("UPDATE notification_outbox SET status = #{status}, attempts = attempts + 1, " +
+            "next_attempt_time = #{nextAttemptTime}, last_error = #{lastError} WHERE id = #{id} AND status = 0")
+    int markFailed(@Param("id") Long id, @Param("status") int status,
+                   @Param("nextAttemptTime") LocalDateTime nextAttemptTime, @Param("lastError") String lastError);
+
+    /**
+     * 清理已投递的历史记录
+     */
+    @Delete("DELETE FROM notification_outbox WHERE status = 1 AND update_time < #{before} LIMIT #{limit}")
+    int deleteSentBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -0,0 +1,49 @@
+package org.example.springboot.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.example.springboot.entity.NotificationUnreadCounter;
+
+import java.util.List;
+
+/**
+ * 用户未读通知计数Mapper接口
+ */
+@Mapper
+public interface NotificationUnreadCounterMapper extends BaseMapper<NotificationUnreadCounter> {
+
+    /**
+     * 调整未读数量，计数不会小于0
+     */
+    @Insert("INSERT INTO notification_unread_counter (user_id, unread_count) VALUES (#{userId}, GREATEST(#{delta}, 0)) " +
+            "ON DUPLICATE KEY UPDATE unread_count = GREATEST(unread_count + #{delta}, 0)")
+    int adjust(@Param("userId") Long userId, @Param("delta") int delta);
+
+    /**
+     * 设置未读数量
+     */
+    @Insert("INSERT INTO notification_unread_counter (user_id, unread_count) VALUES (#{userId}, #{count}) " +
+            "ON DUPLICATE KEY UPDATE unread_count = #{count}")
+    int set(@Param("userId") Long userId, @Param("count") int count);
+
+    /**
+     * 锁定用户的计数记录，对账修正时与计数调整互斥
+     */
+    @Select("SELECT unread_count FROM notification_unread_counter WHERE user_id = #{userId} FOR UPDATE")
+    Integer lockByUserId(@Param("userId") Long userId);
+
+    /**
+     * 统计用户实际未读数量
+     */
+    @Select("SELECT COUNT(*) FROM notification WHERE user_id = #{userId} AND is_read = 0")
+    int countActualUnreadByUserId(@Param("userId") Long userId);
+
+    /**
+     * 按通知表实际数据统计每个用户的未读数量（用于对账）
+     */
+    @Select("SELECT user_id AS userId, COUNT(*) AS unreadCount FROM notification WHERE is_read = 0 GROUP BY user_id")
+    List<NotificationUnreadCounter> countActualUnread();
+}
@@ -3,8 +3,19 @@ package org.example.springboot.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 import org.example.springboot.entity.User;
 
 @Mapper
 public interface UserMapper extends BaseMapper<User> {
+
+    /**
+     * 流式读取全部头像路径（逐行从服务端读取，需在事务内消费并关闭）
+     */
+    @Select("SELECT avatar FROM user WHERE avatar IS NOT NULL AND avatar != ''")
+    @Options(fetchSize = Integer.MIN_VALUE, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<String> streamAvatars();
 }
@@ -0,0 +1,188 @@
+package org.example.springboot.service;
+
+import jakarta.annotation.Resource;
+import org.example.springboot.entity.ClaimApplication;
+import org.example.springboot.entity.FoundItem;
+import org.example.springboot.entity.ItemCategory;
+import org.example.springboot.entity.LostItem;
+import org.example.springboot.entity.User;
+import org.example.springboot.mapper.FoundItemMapper;
+import org.example.springboot.mapper.LostItemMapper;
+import org.example.springboot.mapper.UserMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 关联信息批量填充组件
+ * 先收集一页数据中出现的用户、物品ID，每张表只执行一次 selectBatchIds，
+ * 分类名称直接取自内存中的分类快照，再把名称回填到记录上，避免逐行查询带来的 N+1 问题
+ */
+@Component
+public class AssociationHydrator {
+
+    @Resource
+    private ItemCategoryService itemCategoryService;
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private LostItemMapper lostItemMapper;
+
+    @Resource
+    private FoundItemMapper foundItemMapper;
+
+    @Resource
+    private ImageDerivativeService imageDerivativeService;
+
+    /**
+     * 批量填充失物信息的分类名称、用户名、缩略图和大图
+     */
+    public void fillLostItems(List<LostItem> lostItems) {
+        if (lostItems == null || lostItems.isEmpty()) {
+            return;
+        }
+
+        Map<Long, ItemCategory> categories = itemCategoryService.getCategoryMap();
+        Map<Long, User> users = loadUsers(collectIds(lostItems, LostItem::getUserId));
+
+        for (LostItem item : lostItems) {
+            ItemCategory category = categories.get(item.getCategoryId());
+            if (category != null) {
+                item.setCategoryName(category.getName());
+            }
+            User user = users.get(item.getUserId());
+            if (user != null) {
+                item.setUsername(user.getUsername());
+            }
+            item.setThumbnails(imageDerivativeService.thumbnailsOf(item.getImages()));
+            item.setPreviews(imageDerivativeService.previewsOf(item.getImages()));
+        }
+    }
+
+    /**
+     * 批量填充招领信息的分类名称、用户名、缩略图和大图
+     */
+    public void fillFoundItems(List<FoundItem> foundItems) {
+        if (foundItems == null || foundItems.isEmpty()) {
+            return;
+        }
+
+        Map<Long, ItemCategory> categories = itemCategoryService.getCategoryMap();
+        Map<Long, User> users = loadUsers(collectIds(foundItems, FoundItem::getUserId));
+
+        for (FoundItem item : foundItems) {
+            ItemCategory category = categories.get(item.getCategoryId());
+            if (category != null) {
+                item.setCategoryName(category.getName());
+            }
+            User user = users.get(item.getUserId());
+            if (user != null) {
+                item.setUsername(user.getUsername());
+            }
+            item.setThumbnails(imageDerivativeService.thumbnailsOf(item.getImages()));
+            item.setPreviews(imageDerivativeService.previewsOf(item.getImages()));
+        }
+    }
+
+    /**
+     * 批量填充认领申请的物品标题、申请人和审核人信息
+     */
+    public void fillClaimApplications(List<ClaimApplication> records) {
+        if (records == null || records.isEmpty()) {
+            return;
+        }
+
+        Set<Long> foundIds = new LinkedHashSet<>();
+        Set<Long> lostIds = new LinkedHashSet<>();
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (ClaimApplication record : records) {
+            // 物品标题已冗余在申请记录上，仅历史数据需要回查物品
+            if (record.getItemId() != null && record.getItemTitle() == null) {
+                if (Objects.equals(record.getItemType(), 0)) {
+                    foundIds.add(record.getItemId());
+                } else if (Objects.equals(record.getItemType(), 1)) {
+                    lostIds.add(record.getItemId());
+                }
+            }
+            if (record.getUserId() != null) {
+                userIds.add(record.getUserId());
+            }
+            if (record.getAuditUserId() != null) {
+                userIds.add(record.getAuditUserId());
+            }
+        }
+
+        Map<Long, FoundItem> foundItems = foundIds.isEmpty() ? Collections.emptyMap()
+                : toMap(foundItemMapper.selectBatchIds(foundIds), FoundItem::getId);
+        Map<Long, LostItem> lostItems = lostIds.isEmpty() ? Collections.emptyMap()
+                : toMap(lostItemMapper.selectBatchIds(lostIds), LostItem::getId);
+        Map<Long, User> users = loadUsers(userIds);
+
+        for (ClaimApplication record : records) {
+            // 填充物品标题（历史数据）
+            if (record.getItemTitle() == null) {
+                if (Objects.equals(record.getItemType(), 0)) {
+                    FoundItem foundItem = foundItems.get(record.getItemId());
+                    if (foundItem != null) {
+                        record.setItemTitle(foundItem.getTitle());
+                    }
+                } else if (Objects.equals(record.getItemType(), 1)) {
+                    LostItem lostItem = lostItems.get(record.getItemId());
+                    if (lostItem != null) {
+                        record.setItemTitle(lostItem.getTitle());
+                    }
+                }
+            }
+
+            // 填充申请人信息
+            User user = users.get(record.getUserId());
+            if (user != null) {
+                record.setUsername(user.getUsername());
+                record.setName(user.getName());
+            }
+
+            // 填充审核人信息
+            User auditUser = users.get(record.getAuditUserId());
+            if (auditUser != null) {
+                record.setAuditUsername(auditUser.getUsername());
+                record.setAuditName(auditUser.getName());
+            }
+        }
+    }
+
+    private Map<Long, User> loadUsers(Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return toMap(userMapper.selectBatchIds(ids), User::getId);
+    }
+
+    private static <T> Set<Long> collectIds(List<T> records, Function<T, Long> idGetter) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (T record : records) {
+            Long id = idGetter.apply(record);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private static <T> Map<Long, T> toMap(Collection<T> rows, Function<T, Long> idGetter) {
+        Map<Long, T> map = new HashMap<>(rows.size() * 2);
+        for (T row : rows) {
+            map.put(idGetter.apply(row), row);
+        }
+        return map;
+    }
+}
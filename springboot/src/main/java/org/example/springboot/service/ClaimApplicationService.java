@@ -4,23 +4,37 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.StringUtils;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import jakarta.annotation.Resource;
+import org.example.springboot.DTO.ClaimAuditDTO;
+import org.example.springboot.DTO.ClaimAuditResultDTO;
+import org.example.springboot.common.ResultCode;
 import org.example.springboot.entity.ClaimApplication;
 import org.example.springboot.entity.FoundItem;
+import org.example.springboot.entity.ItemStatusCounter;
 import org.example.springboot.entity.LostItem;
 import org.example.springboot.entity.User;
 import org.example.springboot.exception.ServiceException;
 import org.example.springboot.mapper.ClaimApplicationMapper;
 import org.example.springboot.mapper.FoundItemMapper;
 import org.example.springboot.mapper.LostItemMapper;
-import org.example.springboot.mapper.UserMapper;
 import org.example.springboot.util.JwtTokenUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 
 /**
  * 认领申请Service
@@ -28,6 +42,23 @@ import java.util.List;
 @Service
 public class ClaimApplicationService {
     private static final Logger log = LoggerFactory.getLogger(ClaimApplicationService.class);
+
+    /**
+     * 审核遇到死锁或锁等待超时时的最大尝试次数
+     */
+    private static final int MAX_AUDIT_ATTEMPTS = 3;
+
+    /**
+     * 批量审核单次最多处理的申请数
+     */
+    private static final int MAX_BATCH_AUDIT_SIZE = 200;
+
+    private static final String OTHER_ACCEPTED_REMARK = "已有其他申请被接受";
+
+    /**
+     * 与 MySQL ngram_token_size 保持一致，短于该长度的关键词无法命中全文索引
+     */
+    private static final int NGRAM_TOKEN_SIZE = 2;
     
     @Resource
     private ClaimApplicationMapper claimApplicationMapper;
@@ -39,10 +70,22 @@ public class ClaimApplicationService {
     private LostItemMapper lostItemMapper;
     
     @Resource
-    private UserMapper userMapper;
+    private NotificationService notificationService;
 
     @Resource
-    private NotificationService notificationService;
+    private AssociationHydrator associationHydrator;
+
+    @Resource
+    private ItemSearchService itemSearchService;
+
+    @Resource
+    private ItemStatusCounterService itemStatusCounterService;
+
+    @Resource
+    private ItemAnalyticsService itemAnalyticsService;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
     
     /**
      * 添加认领申请
@@ -59,6 +102,7 @@ public class ClaimApplicationService {
         claimApplication.setUserId(currentUser.getId());
         
         // 检查物品是否存在
+        Long categoryId;
         if (claimApplication.getItemType() == 0) {
             // 招领信息
             FoundItem foundItem = foundItemMapper.selectById(claimApplication.getItemId());
@@ -75,6 +119,9 @@ public class ClaimApplicationService {
             if (foundItem.getUserId().equals(currentUser.getId())) {
                 throw new ServiceException("不能认领自己发布的物品");
             }
+            categoryId = foundItem.getCategoryId();
+            claimApplication.setOwnerUserId(foundItem.getUserId());
+            claimApplication.setItemTitle(foundItem.getTitle());
         } else if (claimApplication.getItemType() == 1) {
             // 失物信息
             LostItem lostItem = lostItemMapper.selectById(claimApplication.getItemId());
@@ -91,6 +138,9 @@ public class ClaimApplicationService {
             if (lostItem.getUserId().equals(currentUser.getId())) {
                 throw new ServiceException("不能认领自己发布的物品");
             }
+            categoryId = lostItem.getCategoryId();
+            claimApplication.setOwnerUserId(lostItem.getUserId());
+            claimApplication.setItemTitle(lostItem.getTitle());
         } else {
             throw new ServiceException("物品类型错误");
         }
@@ -114,6 +164,7 @@ public class ClaimApplicationService {
         
         // 保存申请记录
         claimApplicationMapper.insert(claimApplication);
+        itemAnalyticsService.recordClaim(claimApplication.getItemType(), categoryId);
 
         // 发送申请通知给物品发布者
         sendApplicationNotification(claimApplication, currentUser);
@@ -135,13 +186,24 @@ public class ClaimApplicationService {
             queryWrapper.eq(ClaimApplication::getItemType, itemType);
         }
         
+        // 按物品标题检索：关键词不短于 ngram 分词长度时走全文索引（短语匹配），否则模糊匹配
+        if (StringUtils.isNotBlank(itemTitle)) {
+            String keyword = itemTitle.trim();
+            if (keyword.length() >= NGRAM_TOKEN_SIZE) {
+                queryWrapper.apply("MATCH(item_title) AGAINST({0} IN BOOLEAN MODE)",
+                        "\"" + keyword.replace("\"", " ") + "\"");
+            } else {
+                queryWrapper.like(ClaimApplication::getItemTitle, keyword);
+            }
+        }
+        
         // 按创建时间倒序排序
         queryWrapper.orderByDesc(ClaimApplication::getCreateTime);
         
         Page<ClaimApplication> resultPage = claimApplicationMapper.selectPage(page, queryWrapper);
         
         // 填充关联信息
-        fillInfo(resultPage.getRecords(), itemTitle);
+        fillInfo(resultPage.getRecords());
         
         return resultPage;
     }
@@ -172,7 +234,7 @@ public class ClaimApplicationService {
         Page<ClaimApplication> resultPage = claimApplicationMapper.selectPage(page, queryWrapper);
         
         // 填充关联信息
-        fillInfo(resultPage.getRecords(), null);
+        fillInfo(resultPage.getRecords());
         
         return resultPage;
     }
@@ -189,12 +251,8 @@ public class ClaimApplicationService {
         Page<ClaimApplication> page = new Page<>(currentPage, size);
         LambdaQueryWrapper<ClaimApplication> queryWrapper = new LambdaQueryWrapper<>();
         
-        // 查询当前用户发布的物品的申请
-        queryWrapper.and(wrapper -> {
-            wrapper.exists("SELECT 1 FROM found_item WHERE found_item.id = claim_application.item_id AND claim_application.item_type = 0 AND found_item.user_id = " + currentUser.getId())
-                .or()
-                .exists("SELECT 1 FROM lost_item WHERE lost_item.id = claim_application.item_id AND claim_application.item_type = 1 AND lost_item.user_id = " + currentUser.getId());
-        });
+        // 查询当前用户发布的物品的申请（走 idx_owner_status_create_time）
+        queryWrapper.eq(ClaimApplication::getOwnerUserId, currentUser.getId());
         
         // 添加状态查询条件
         if (status != null) {
@@ -207,23 +265,267 @@ public class ClaimApplicationService {
         Page<ClaimApplication> resultPage = claimApplicationMapper.selectPage(page, queryWrapper);
         
         // 填充关联信息
-        fillInfo(resultPage.getRecords(), null);
+        fillInfo(resultPage.getRecords());
         
         return resultPage;
     }
     
     /**
      * 审核认领申请
+     * 申请和物品均以 "WHERE status = 0" 的条件更新实现先到先得：条件不满足说明已被其他审核抢先，
+     * 直接返回冲突；仅在死锁、锁等待超时时整体重试
      */
-    @Transactional(rollbackFor = Exception.class)
     public void audit(Long id, Integer status, String auditRemark) {
         // 获取当前用户
         User currentUser = JwtTokenUtils.getCurrentUser();
         if (currentUser == null) {
             throw new ServiceException("用户未登录");
         }
+        if (status == null || (status != 1 && status != 2)) {
+            throw new ServiceException("审核状态无效");
+        }
+
+        executeWithRetry("id=" + id, () -> {
+            doAudit(currentUser, id, status, auditRemark);
+            return null;
+        });
+    }
+
+    /**
+     * 批量审核认领申请
+     * 一次查询校验整批申请的权限和状态；同一物品有多条通过时申请ID最小者胜出，其余返回冲突。
+     * 在一个事务内先锁物品后锁申请（与单条审核加锁顺序一致），用一条 CASE 条件更新写入审核结果，
+     * 批量拒绝被通过物品上的其余申请，通知经发件箱在提交前一次性写入
+     * @return 按请求顺序返回每条申请的处理结果
+     */
+    public List<ClaimAuditResultDTO> auditBatch(List<ClaimAuditDTO> audits) {
+        User currentUser = JwtTokenUtils.getCurrentUser();
+        if (currentUser == null) {
+            throw new ServiceException("用户未登录");
+        }
+        if (audits == null || audits.isEmpty()) {
+            throw new ServiceException("审核列表不能为空");
+        }
+        if (audits.size() > MAX_BATCH_AUDIT_SIZE) {
+            throw new ServiceException("单次最多审核" + MAX_BATCH_AUDIT_SIZE + "条申请");
+        }
+
+        Map<Long, ClaimAuditResultDTO> results = new HashMap<>();
+        Map<Long, ClaimAuditDTO> requested = new LinkedHashMap<>();
+        for (ClaimAuditDTO audit : audits) {
+            if (audit == null || audit.getId() == null) {
+                continue;
+            }
+            if (requested.containsKey(audit.getId())) {
+                results.put(audit.getId(), auditResult(audit.getId(), ResultCode.VALIDATE_FAILED.getCode(), "申请ID重复"));
+            } else if (audit.getStatus() == null || (audit.getStatus() != 1 && audit.getStatus() != 2)) {
+                results.put(audit.getId(), auditResult(audit.getId(), ResultCode.VALIDATE_FAILED.getCode(), "审核状态无效"));
+            }
+            requested.putIfAbsent(audit.getId(), audit);
+        }
+        requested.keySet().removeAll(results.keySet());
+
+        // 一次查询校验权限和状态，并确定同一物品上的胜出申请
+        boolean admin = "ADMIN".equals(currentUser.getRoleCode());
+        List<ClaimApplication> candidates = new ArrayList<>();
+        if (!requested.isEmpty()) {
+            Map<Long, ClaimApplication> applications = new HashMap<>();
+            for (ClaimApplication application : claimApplicationMapper.selectBatchIds(requested.keySet())) {
+                applications.put(application.getId(), application);
+            }
+            Map<String, Long> approvedByItem = new HashMap<>();
+            for (ClaimAuditDTO audit : requested.values()) {
+                ClaimApplication application = applications.get(audit.getId());
+                if (application == null) {
+                    results.put(audit.getId(), auditResult(audit.getId(), ResultCode.ERROR.getCode(), "申请记录不存在"));
+                } else if (!admin && !currentUser.getId().equals(application.getOwnerUserId())) {
+                    results.put(audit.getId(), auditResult(audit.getId(), ResultCode.FORBIDDEN.getCode(), "您没有权限审核该申请"));
+                } else if (application.getStatus() != 0) {
+                    results.put(audit.getId(), auditResult(audit.getId(), ResultCode.CONFLICT.getCode(), "该申请已被处理，无法重复审核"));
+                } else {
+                    application.setStatus(audit.getStatus());
+                    application.setAuditRemark(audit.getAuditRemark());
+                    candidates.add(application);
+                    if (audit.getStatus() == 1) {
+                        approvedByItem.merge(itemKey(application), application.getId(), Math::min);
+                    }
+                }
+            }
+            candidates.removeIf(application -> {
+                if (application.getStatus() == 1
+                        && !application.getId().equals(approvedByItem.get(itemKey(application)))) {
+                    results.put(application.getId(), auditResult(application.getId(), ResultCode.CONFLICT.getCode(),
+                            "同一物品已有其他申请在本批次中通过"));
+                    return true;
+                }
+                return false;
+            });
+        }
 
-        // 获取申请记录 - 使用悲观锁防止并发
+        if (!candidates.isEmpty()) {
+            candidates.sort(Comparator.comparing(ClaimApplication::getId));
+            results.putAll(executeWithRetry("batch=" + candidates.size(),
+                    () -> doAuditBatch(currentUser.getId(), candidates)));
+        }
+
+        List<ClaimAuditResultDTO> ordered = new ArrayList<>(audits.size());
+        for (ClaimAuditDTO audit : audits) {
+            if (audit == null || audit.getId() == null) {
+                ordered.add(auditResult(null, ResultCode.VALIDATE_FAILED.getCode(), "申请ID不能为空"));
+            } else {
+                ordered.add(results.get(audit.getId()));
+            }
+        }
+        log.info("批量审核认领申请完成: total={}, success={}", audits.size(),
+                ordered.stream().filter(ClaimAuditResultDTO::isSuccess).count());
+        return ordered;
+    }
+
+    /**
+     * 批量审核的事务部分，candidates 已按申请ID排序，status/auditRemark 为本次审核结果
+     */
+    private Map<Long, ClaimAuditResultDTO> doAuditBatch(Long auditUserId, List<ClaimApplication> candidates) {
+        Map<Long, ClaimAuditResultDTO> results = new HashMap<>();
+
+        // 先锁定待通过的物品（招领、失物各一次，按主键顺序）
+        Map<Long, FoundItem> foundItems = new HashMap<>();
+        Map<Long, LostItem> lostItems = new HashMap<>();
+        List<Long> foundIds = approvedItemIds(candidates, ItemStatusCounter.ITEM_TYPE_FOUND);
+        if (!foundIds.isEmpty()) {
+            for (FoundItem item : foundItemMapper.lockPendingByIds(foundIds)) {
+                foundItems.put(item.getId(), item);
+            }
+        }
+        List<Long> lostIds = approvedItemIds(candidates, ItemStatusCounter.ITEM_TYPE_LOST);
+        if (!lostIds.isEmpty()) {
+            for (LostItem item : lostItemMapper.lockPendingByIds(lostIds)) {
+                lostItems.put(item.getId(), item);
+            }
+        }
+
+        // 再锁定仍待审核的申请
+        Set<Long> pendingIds = new HashSet<>();
+        for (ClaimApplication application : claimApplicationMapper.lockPendingByIds(
+                candidates.stream().map(ClaimApplication::getId).toList())) {
+            pendingIds.add(application.getId());
+        }
+
+        List<ClaimApplication> applied = new ArrayList<>();
+        List<ClaimApplication> approved = new ArrayList<>();
+        for (ClaimApplication application : candidates) {
+            if (!pendingIds.contains(application.getId())) {
+                results.put(application.getId(), auditResult(application.getId(), ResultCode.CONFLICT.getCode(),
+                        "该申请已被处理，无法重复审核"));
+                continue;
+            }
+            if (application.getStatus() == 1) {
+                boolean itemPending = application.getItemType() == ItemStatusCounter.ITEM_TYPE_FOUND
+                        ? foundItems.containsKey(application.getItemId())
+                        : lostItems.containsKey(application.getItemId());
+                if (!itemPending) {
+                    results.put(application.getId(), auditResult(application.getId(), ResultCode.CONFLICT.getCode(),
+                            "该物品已被认领或已关闭，无法继续处理"));
+                    continue;
+                }
+                approved.add(application);
+            }
+            applied.add(application);
+        }
+        if (applied.isEmpty()) {
+            return results;
+        }
+
+        // 物品状态更新及计数、统计、索引
+        List<Long> approvedFoundIds = approved.stream()
+                .filter(application -> application.getItemType() == ItemStatusCounter.ITEM_TYPE_FOUND)
+                .map(ClaimApplication::getItemId).toList();
+        if (!approvedFoundIds.isEmpty()) {
+            int updated = foundItemMapper.updatePendingStatus(approvedFoundIds, 1);
+            itemStatusCounterService.transition(ItemStatusCounter.ITEM_TYPE_FOUND, 0, 1, updated);
+            for (Long itemId : approvedFoundIds) {
+                FoundItem item = foundItems.get(itemId);
+                itemAnalyticsService.recordApproval(ItemStatusCounter.ITEM_TYPE_FOUND, item.getCategoryId(), item.getCreateTime());
+            }
+            itemSearchService.updateFoundStatus(approvedFoundIds, 1);
+        }
+        List<Long> approvedLostIds = approved.stream()
+                .filter(application -> application.getItemType() == ItemStatusCounter.ITEM_TYPE_LOST)
+                .map(ClaimApplication::getItemId).toList();
+        if (!approvedLostIds.isEmpty()) {
+            int updated = lostItemMapper.updatePendingStatus(approvedLostIds, 1);
+            itemStatusCounterService.transition(ItemStatusCounter.ITEM_TYPE_LOST, 0, 1, updated);
+            for (Long itemId : approvedLostIds) {
+                LostItem item = lostItems.get(itemId);
+                itemAnalyticsService.recordApproval(ItemStatusCounter.ITEM_TYPE_LOST, item.getCategoryId(), item.getCreateTime());
+            }
+            itemSearchService.updateLostStatus(approvedLostIds, 1);
+        }
+
+        // 一条条件更新写入整批审核结果，申请行均已锁定
+        LocalDateTime now = LocalDateTime.now();
+        claimApplicationMapper.auditBatch(applied, auditUserId, now);
+        for (ClaimApplication application : applied) {
+            notificationService.sendAuditResultNotification(application.getUserId(), application.getItemTitle(),
+                    application.getStatus() == 1, application.getAuditRemark(), application.getId());
+            results.put(application.getId(), auditResult(application.getId(), ResultCode.SUCCESS.getCode(),
+                    application.getStatus() == 1 ? "审核通过" : "已拒绝"));
+        }
+
+        // 拒绝被通过物品上的其余待审核申请
+        if (!approved.isEmpty()) {
+            List<ClaimApplication> others = claimApplicationMapper.lockPendingByItems(approved);
+            if (!others.isEmpty()) {
+                claimApplicationMapper.rejectPending(others.stream().map(ClaimApplication::getId).toList(),
+                        auditUserId, now, OTHER_ACCEPTED_REMARK);
+                for (ClaimApplication other : others) {
+                    notificationService.sendAuditResultNotification(other.getUserId(), other.getItemTitle(),
+                            false, OTHER_ACCEPTED_REMARK, other.getId());
+                }
+            }
+        }
+        return results;
+    }
+
+    private static List<Long> approvedItemIds(List<ClaimApplication> candidates, int itemType) {
+        return candidates.stream()
+                .filter(application -> application.getStatus() == 1 && application.getItemType() == itemType)
+                .map(ClaimApplication::getItemId)
+                .toList();
+    }
+
+    private static String itemKey(ClaimApplication application) {
+        return application.getItemType() + ":" + application.getItemId();
+    }
+
+    private static ClaimAuditResultDTO auditResult(Long id, String code, String message) {
+        ClaimAuditResultDTO result = new ClaimAuditResultDTO();
+        result.setId(id);
+        result.setSuccess(ResultCode.SUCCESS.getCode().equals(code));
+        result.setCode(code);
+        result.setMessage(message);
+        return result;
+    }
+
+    /**
+     * 在事务中执行审核，遇到死锁或锁等待超时时整体重试
+     * @param target 日志中标识审核对象
+     */
+    private <T> T executeWithRetry(String target, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(tx -> action.get());
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt >= MAX_AUDIT_ATTEMPTS) {
+                    log.warn("审核认领申请多次锁冲突，放弃重试: {}, error={}", target, e.getMessage());
+                    throw new ServiceException(ResultCode.CONFLICT.getCode(), "审核冲突，请稍后重试");
+                }
+                log.warn("审核认领申请锁冲突，第{}次重试: {}", attempt, target);
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void doAudit(User currentUser, Long id, Integer status, String auditRemark) {
         ClaimApplication claimApplication = claimApplicationMapper.selectById(id);
         if (claimApplication == null) {
             throw new ServiceException("申请记录不存在");
@@ -231,154 +533,110 @@ public class ClaimApplicationService {
 
         // 检查申请状态
         if (claimApplication.getStatus() != 0) {
-            throw new ServiceException("该申请已被处理，无法重复审核");
+            throw new ServiceException(ResultCode.CONFLICT.getCode(), "该申请已被处理，无法重复审核");
         }
-        
-        // 检查是否有权限审核
-        boolean hasPermission = false;
-        
-        // 管理员或物品发布者可以审核
-        if ("ADMIN".equals(currentUser.getRoleCode())) {
-            hasPermission = true;
+
+        FoundItem foundItem = null;
+        LostItem lostItem = null;
+        Long publisherUserId;
+        String itemTitle;
+        if (claimApplication.getItemType() == 0) {
+            foundItem = foundItemMapper.selectById(claimApplication.getItemId());
+            if (foundItem == null) {
+                throw new ServiceException("招领信息不存在");
+            }
+            publisherUserId = foundItem.getUserId();
+            itemTitle = foundItem.getTitle();
+        } else if (claimApplication.getItemType() == 1) {
+            lostItem = lostItemMapper.selectById(claimApplication.getItemId());
+            if (lostItem == null) {
+                throw new ServiceException("失物信息不存在");
+            }
+            publisherUserId = lostItem.getUserId();
+            itemTitle = lostItem.getTitle();
         } else {
-            // 检查是否是物品发布者
-            if (claimApplication.getItemType() == 0) {
-                // 招领信息
-                FoundItem foundItem = foundItemMapper.selectById(claimApplication.getItemId());
-                if (foundItem != null && foundItem.getUserId().equals(currentUser.getId())) {
-                    hasPermission = true;
+            throw new ServiceException("物品类型错误");
+        }
+
+        // 管理员或物品发布者可以审核
+        if (!"ADMIN".equals(currentUser.getRoleCode()) && !currentUser.getId().equals(publisherUserId)) {
+            throw new ServiceException("您没有权限审核该申请");
+        }
+
+        // 审核通过时先抢占物品：物品行先于申请行加锁，与竞争审核的加锁顺序一致，避免死锁
+        if (status == 1) {
+            if (foundItem != null) {
+                if (foundItemMapper.updatePendingStatus(List.of(foundItem.getId()), 1) == 0) {
+                    throw new ServiceException(ResultCode.CONFLICT.getCode(), "该物品已被认领或已关闭，无法继续处理");
                 }
-            } else if (claimApplication.getItemType() == 1) {
-                // 失物信息
-                LostItem lostItem = lostItemMapper.selectById(claimApplication.getItemId());
-                if (lostItem != null && lostItem.getUserId().equals(currentUser.getId())) {
-                    hasPermission = true;
+                itemStatusCounterService.transition(ItemStatusCounter.ITEM_TYPE_FOUND, 0, 1, 1);
+                itemAnalyticsService.recordApproval(ItemStatusCounter.ITEM_TYPE_FOUND,
+                        foundItem.getCategoryId(), foundItem.getCreateTime());
+                itemSearchService.updateFoundStatus(List.of(foundItem.getId()), 1);
+            } else {
+                if (lostItemMapper.updatePendingStatus(List.of(lostItem.getId()), 1) == 0) {
+                    throw new ServiceException(ResultCode.CONFLICT.getCode(), "该物品已被认领或已关闭，无法继续处理");
                 }
+                itemStatusCounterService.transition(ItemStatusCounter.ITEM_TYPE_LOST, 0, 1, 1);
+                itemAnalyticsService.recordApproval(ItemStatusCounter.ITEM_TYPE_LOST,
+                        lostItem.getCategoryId(), lostItem.getCreateTime());
+                itemSearchService.updateLostStatus(List.of(lostItem.getId()), 1);
             }
         }
-        
-        if (!hasPermission) {
-            throw new ServiceException("您没有权限审核该申请");
-        }
-        
+
         // 更新申请状态
         claimApplication.setStatus(status);
         claimApplication.setAuditUserId(currentUser.getId());
         claimApplication.setAuditTime(LocalDateTime.now());
         claimApplication.setAuditRemark(auditRemark);
         claimApplication.setUpdateTime(LocalDateTime.now());
-        
-        claimApplicationMapper.updateById(claimApplication);
+        if (claimApplicationMapper.updateIfPending(claimApplication) == 0) {
+            // 申请已被取消或被其他审核处理，回滚对物品的更新
+            throw new ServiceException(ResultCode.CONFLICT.getCode(), "该申请已被处理，无法重复审核");
+        }
 
         // 发送审核结果通知
-        sendAuditResultNotification(claimApplication, status == 1, auditRemark);
+        notificationService.sendAuditResultNotification(
+                claimApplication.getUserId(), itemTitle, status == 1, auditRemark, claimApplication.getId());
 
-        // 如果审核通过，更新物品状态为已认领
         if (status == 1) {
-            if (claimApplication.getItemType() == 0) {
-                // 招领信息
-                FoundItem foundItem = foundItemMapper.selectById(claimApplication.getItemId());
-                if (foundItem != null) {
-                    // 再次检查物品状态，防止并发问题
-                    if (foundItem.getStatus() != 0) {
-                        throw new ServiceException("该物品已被认领或已关闭，无法继续处理");
-                    }
-
-                    foundItem.setStatus(1); // 设置为已认领
-                    foundItemMapper.updateById(foundItem);
-
-                    // 拒绝其他申请
-                    rejectOtherApplications(claimApplication.getItemId(), claimApplication.getItemType(), id);
-                }
-            } else if (claimApplication.getItemType() == 1) {
-                // 失物信息
-                LostItem lostItem = lostItemMapper.selectById(claimApplication.getItemId());
-                if (lostItem != null) {
-                    // 再次检查物品状态，防止并发问题
-                    if (lostItem.getStatus() != 0) {
-                        throw new ServiceException("该物品已被认领或已关闭，无法继续处理");
-                    }
-
-                    lostItem.setStatus(1); // 设置为已认领
-                    lostItemMapper.updateById(lostItem);
+            // 拒绝其他申请
+            rejectOtherApplications(claimApplication.getItemId(), claimApplication.getItemType(), id,
+                    itemTitle, currentUser.getId());
+        }
+    }
 
-                    // 拒绝其他申请
-                    rejectOtherApplications(claimApplication.getItemId(), claimApplication.getItemType(), id);
-                }
-            }
+    private static void backoff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(20, 50) * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException(ResultCode.CONFLICT.getCode(), "审核冲突，请稍后重试");
         }
     }
     
     /**
-     * 拒绝其他申请
+     * 拒绝其他申请：锁定竞争申请后用一条 UPDATE 批量拒绝，
+     * 拒绝通知随本事务经发件箱一次性批量写入
      */
-    private void rejectOtherApplications(Long itemId, Integer itemType, Long acceptedApplicationId) {
-        LambdaQueryWrapper<ClaimApplication> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(ClaimApplication::getItemId, itemId)
-                .eq(ClaimApplication::getItemType, itemType)
-                .eq(ClaimApplication::getStatus, 0) // 待审核的申请
-                .ne(ClaimApplication::getId, acceptedApplicationId); // 不包括已接受的申请
-        
-        List<ClaimApplication> applications = claimApplicationMapper.selectList(queryWrapper);
-        
-        for (ClaimApplication application : applications) {
-            application.setStatus(2); // 设置为已拒绝
-            application.setAuditRemark("已有其他申请被接受");
-            application.setUpdateTime(LocalDateTime.now());
-            claimApplicationMapper.updateById(application);
+    private void rejectOtherApplications(Long itemId, Integer itemType, Long acceptedApplicationId,
+                                         String itemTitle, Long auditUserId) {
+        List<ClaimApplication> applications =
+                claimApplicationMapper.lockPendingByItem(itemId, itemType, acceptedApplicationId);
+        if (applications.isEmpty()) {
+            return;
         }
+
+        List<Long> ids = applications.stream().map(ClaimApplication::getId).toList();
+        claimApplicationMapper.rejectPending(ids, auditUserId, LocalDateTime.now(), OTHER_ACCEPTED_REMARK);
+        notificationService.sendAuditResultNotifications(applications, itemTitle, false, OTHER_ACCEPTED_REMARK);
     }
     
     /**
      * 填充关联信息
      */
-    private void fillInfo(List<ClaimApplication> records, String itemTitle) {
-        if (records == null || records.isEmpty()) {
-            return;
-        }
-        
-        for (ClaimApplication record : records) {
-            // 填充物品标题
-            if (record.getItemType() == 0) {
-                // 招领信息
-                FoundItem foundItem = foundItemMapper.selectById(record.getItemId());
-                if (foundItem != null) {
-                    record.setItemTitle(foundItem.getTitle());
-                    
-                    // 如果需要过滤物品标题
-                    if (StringUtils.isNotBlank(itemTitle) && !foundItem.getTitle().contains(itemTitle)) {
-                        continue;
-                    }
-                }
-            } else if (record.getItemType() == 1) {
-                // 失物信息
-                LostItem lostItem = lostItemMapper.selectById(record.getItemId());
-                if (lostItem != null) {
-                    record.setItemTitle(lostItem.getTitle());
-                    
-                    // 如果需要过滤物品标题
-                    if (StringUtils.isNotBlank(itemTitle) && !lostItem.getTitle().contains(itemTitle)) {
-                        continue;
-                    }
-                }
-            }
-            
-            // 填充申请人信息
-            User user = userMapper.selectById(record.getUserId());
-            if (user != null) {
-                record.setUsername(user.getUsername());
-                record.setName(user.getName());
-            }
-            
-            // 填充审核人信息
-            if (record.getAuditUserId() != null) {
-                User auditUser = userMapper.selectById(record.getAuditUserId());
-                if (auditUser != null) {
-                    record.setAuditUsername(auditUser.getUsername());
-                    record.setAuditName(auditUser.getName());
-                }
-            }
-        }
+    private void fillInfo(List<ClaimApplication> records) {
+        associationHydrator.fillClaimApplications(records);
     }
     
     /**
@@ -408,13 +666,15 @@ public class ClaimApplicationService {
             throw new ServiceException("该申请已处理，无法取消");
         }
         
-        // 更新申请状态为已取消(3)，而不是已拒绝(2)
+        // 更新申请状态为已取消(3)，而不是已拒绝(2)；条件更新防止与审核并发
         claimApplication.setStatus(3); // 设置为已取消
         claimApplication.setAuditRemark("用户主动取消申请");
         claimApplication.setAuditTime(LocalDateTime.now());
         claimApplication.setUpdateTime(LocalDateTime.now());
         
-        claimApplicationMapper.updateById(claimApplication);
+        if (claimApplicationMapper.updateIfPending(claimApplication) == 0) {
+            throw new ServiceException(ResultCode.CONFLICT.getCode(), "该申请已处理，无法取消");
+        }
     }
 
     /**
@@ -451,33 +711,4 @@ public class ClaimApplicationService {
             log.error("发送申请通知失败: {}", e.getMessage(), e);
         }
     }
-
-    /**
-     * 发送审核结果通知
-     */
-    private void sendAuditResultNotification(ClaimApplication claimApplication, boolean approved, String auditRemark) {
-        try {
-            String itemTitle = "";
-
-            if (claimApplication.getItemType() == 0) {
-                // 招领信息
-                FoundItem foundItem = foundItemMapper.selectById(claimApplication.getItemId());
-                if (foundItem != null) {
-                    itemTitle = foundItem.getTitle();
-                }
-            } else if (claimApplication.getItemType() == 1) {
-                // 失物信息
-                LostItem lostItem = lostItemMapper.selectById(claimApplication.getItemId());
-                if (lostItem != null) {
-                    itemTitle = lostItem.getTitle();
-                }
-            }
-
-            notificationService.sendAuditResultNotification(
-                claimApplication.getUserId(), itemTitle, approved, auditRemark, claimApplication.getId());
-        } catch (Exception e) {
-            // 通知发送失败不影响主流程
-            log.error("发送审核结果通知失败: {}", e.getMessage(), e);
-        }
-    }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,154 @@
+package org.example.springboot.service;
+
+import jakarta.annotation.Resource;
+import org.example.springboot.entity.FileBlob;
+import org.example.springboot.exception.ServiceException;
+import org.example.springboot.mapper.FileBlobMapper;
+import org.example.springboot.util.FileUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 上传文件引用计数服务
+ * 上传的文件以内容摘要命名并登记到 file_blob，物品发布、修改图片、删除时在同一事务内
+ * 调整引用计数；只有没有物品引用的文件才允许删除。引用计数上线前的旧文件没有登记记录，
+ * 删除前按物品表实际引用复核。
+ * 相同内容的重复上传会复用已有文件：上传在判断文件是否存在之前先预约登记记录（pending 加一），
+ * 删除在同一行锁内检查引用和预约并删除存储中的文件，两者互斥，不会删掉刚被复用的文件
+ */
+@Service
+public class FileBlobService implements FileUtil.Reservation {
+    private static final Logger log = LoggerFactory.getLogger(FileBlobService.class);
+
+    @Resource
+    private FileBlobMapper fileBlobMapper;
+
+    @Resource
+    private ImageDerivativeService imageDerivativeService;
+
+    /**
+     * 预约上传的文件，删除操作持有行锁时等待其完成
+     */
+    @Override
+    public void reserve(String path, String digest, long size) {
+        fileBlobMapper.reserve(path, digest, size);
+    }
+
+    /**
+     * 取消预约（上传失败或批量上传回滚）。不立即删除文件：相同内容可能正被其他上传复用，
+     * 本次新写入且没有引用的文件由孤立文件清理在宽限期后删除
+     */
+    @Override
+    public void cancel(String path) {
+        fileBlobMapper.cancel(path);
+    }
+
+    /**
+     * 登记上传的文件并结束预约
+     */
+    public void register(FileUtil.StoredFile stored) {
+        fileBlobMapper.register(stored.path(), stored.digest(), stored.size());
+    }
+
+    /**
+     * 物品引用了一组图片
+     * @param images 逗号分隔的图片路径
+     */
+    public void retain(String images) {
+        adjust(parse(images), 1);
+    }
+
+    /**
+     * 物品不再引用一组图片
+     * @param images 逗号分隔的图片路径
+     */
+    public void release(String images) {
+        adjust(parse(images), -1);
+    }
+
+    /**
+     * 物品图片由 oldImages 改为 newImages，只调整增减的部分
+     */
+    public void replace(String oldImages, String newImages) {
+        Set<String> before = parse(oldImages);
+        Set<String> after = parse(newImages);
+        Set<String> added = new TreeSet<>(after);
+        added.removeAll(before);
+        Set<String> removed = new TreeSet<>(before);
+        removed.removeAll(after);
+        adjust(added, 1);
+        adjust(removed, -1);
+    }
+
+    /**
+     * 删除没有物品引用、也没有进行中上传的文件（连同衍生图）
+     * 存储中的文件在持有行锁期间删除，相同内容的上传在预约时等待，之后重新写入
+     * @param path 访问路径
+     * @return 文件是否存在并已删除
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public boolean delete(String path) {
+        String key = FileUtil.locateKey(path);
+        if (key == null) {
+            return false;
+        }
+        String webPath = "/" + key;
+
+        FileBlob blob = fileBlobMapper.lockByPath(webPath);
+        long references = blob != null ? blob.getRefCount() : fileBlobMapper.countItemReferences(webPath);
+        if (references > 0) {
+            throw new ServiceException("文件仍被" + references + "条物品信息引用，无法删除");
+        }
+        if (blob != null && blob.getPending() > 0) {
+            throw new ServiceException("文件正在被重新上传，暂时无法删除");
+        }
+        if (blob != null) {
+            fileBlobMapper.deleteById(webPath);
+        }
+
+        boolean deleted = FileUtil.deleteFile(webPath);
+        if (deleted) {
+            imageDerivativeService.deleteDerivatives(webPath);
+        }
+        return deleted || blob != null;
+    }
+
+    /**
+     * 文件从旧路径迁移到新路径后同步登记记录（在调用方事务内执行），旧路径未登记时不做任何事
+     */
+    public void move(String oldPath, String newPath) {
+        fileBlobMapper.copyTo(oldPath, newPath);
+        fileBlobMapper.deleteById(oldPath);
+    }
+
+    private void adjust(Set<String> paths, int delta) {
+        if (!paths.isEmpty()) {
+            fileBlobMapper.adjust(paths, delta);
+        }
+    }
+
+    /**
+     * 解析为规范化的访问路径集合（有序，批量更新时按主键顺序加锁），外部链接忽略
+     */
+    private static Set<String> parse(String images) {
+        if (images == null || images.isBlank()) {
+            return Collections.emptySet();
+        }
+        Set<String> paths = new TreeSet<>();
+        for (String image : images.split(",")) {
+            String key = FileUtil.locateKey(image.trim());
+            if (key != null) {
+                paths.add("/" + key);
+            } else if (!image.isBlank()) {
+                log.debug("忽略非本地图片路径: {}", image);
+            }
+        }
+        return paths;
+    }
+}
@@ -0,0 +1,347 @@
+package org.example.springboot.service;
+
+import jakarta.annotation.Resource;
+import org.example.springboot.entity.JobCheckpoint;
+import org.example.springboot.entity.User;
+import org.example.springboot.enumClass.ImageVariant;
+import org.example.springboot.exception.ServiceException;
+import org.example.springboot.mapper.FoundItemMapper;
+import org.example.springboot.mapper.JobCheckpointMapper;
+import org.example.springboot.mapper.LostItemMapper;
+import org.example.springboot.util.FileUtil;
+import org.example.springboot.util.JwtTokenUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * 上传文件分层目录迁移服务
+ * 新上传的文件按摘要前缀分层存放（见 FileUtil.storeStream），本服务在线迁移分层之前平铺存放的旧文件
+ * （内容寻址的文件按摘要分层；更早按时间戳命名的文件保留文件名，按时间戳的摘要分层，见 FileUtil.shardedPath）：
+ * 1. 按主键游标分批扫描失物、招领的图片，先移动文件和衍生图，再在短事务中改写 images、file_blob
+ *    并推进断点，任务中断后从断点继续
+ * 2. 遍历存储目录中剩余的平铺文件（例如上传后未被物品引用的图片），移动并改写 file_blob
+ * 迁移期间及之后旧路径经 FileUtil.locate 仍可访问；期间被修改而跳过的记录可再次执行迁移处理
+ */
+@Service
+public class FileLayoutMigrationService {
+    private static final Logger log = LoggerFactory.getLogger(FileLayoutMigrationService.class);
+
+    static final String LOST_JOB = "relocate-lost-item-images";
+    static final String FOUND_JOB = "relocate-found-item-images";
+
+    /**
+     * images 字段长度上限，改写后超长的记录保留旧路径
+     */
+    private static final int IMAGES_MAX_LENGTH = 500;
+
+    /**
+     * 分层目录名（两位十六进制），遍历旧文件时跳过
+     */
+    private static final Pattern SHARD_DIRECTORY = Pattern.compile("^[0-9a-f]{2}$");
+
+    @Resource
+    private LostItemMapper lostItemMapper;
+
+    @Resource
+    private FoundItemMapper foundItemMapper;
+
+    @Resource
+    private JobCheckpointMapper checkpointMapper;
+
+    @Resource
+    private FileBlobService fileBlobService;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${file.layout-migration.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${file.layout-migration.pause-ms:50}")
+    private long pauseMs;
+
+    /**
+     * 同一实例内不允许并发执行
+     */
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    /**
+     * 迁移结果
+     *
+     * @param lostItems  改写图片路径的失物数
+     * @param foundItems 改写图片路径的招领数
+     * @param files      迁移的未被引用的旧文件数
+     */
+    public record MigrationResult(long lostItems, long foundItems, long files) {
+    }
+
+    /**
+     * 执行迁移（管理员）
+     */
+    public MigrationResult migrate() {
+        User currentUser = JwtTokenUtils.getCurrentUser();
+        if (currentUser == null || !"ADMIN".equals(currentUser.getRoleCode())) {
+            throw new ServiceException("无权限操作");
+        }
+        if (!FileUtil.isLocalStore()) {
+            throw new ServiceException("目录迁移只适用于本地磁盘存储");
+        }
+        if (!runLock.tryLock()) {
+            throw new ServiceException("文件目录迁移正在执行，请稍后再试");
+        }
+        try {
+            long lost = run(LOST_JOB, new LostTarget());
+            long found = run(FOUND_JOB, new FoundTarget());
+            long files = relocateRemaining();
+            log.info("文件目录迁移完成: 失物{}条, 招领{}条, 其他文件{}个", lost, found, files);
+            return new MigrationResult(lost, found, files);
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private long run(String jobName, ImageTarget target) {
+        JobCheckpoint checkpoint = checkpointMapper.selectById(jobName);
+        Long cursorId = 0L;
+        long processed = 0;
+        if (checkpoint != null && checkpoint.getStatus() == JobCheckpoint.STATUS_RUNNING) {
+            cursorId = checkpoint.getCursorId();
+            processed = checkpoint.getProcessedCount();
+            log.info("从断点继续迁移图片路径: job={}, cursorId={}, processed={}", jobName, cursorId, processed);
+        } else {
+            LocalDateTime now = LocalDateTime.now();
+            checkpointMapper.start(jobName, now, now);
+        }
+
+        while (true) {
+            List<ImageRow> chunk = target.scan(cursorId, chunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            Long lastId = chunk.get(chunk.size() - 1).id();
+            Integer updated = relocateChunk(jobName, target, chunk, lastId);
+            processed += updated == null ? 0 : updated;
+            cursorId = lastId;
+
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            pause();
+        }
+
+        checkpointMapper.complete(jobName);
+        return processed;
+    }
+
+    /**
+     * 处理一批：文件移动是幂等的，先于事务执行；记录只在 images 未被并发修改时改写，
+     * 登记表与断点同事务提交
+     */
+    private Integer relocateChunk(String jobName, ImageTarget target, List<ImageRow> rows, Long lastId) {
+        Map<String, String> moved = new TreeMap<>();
+        List<Rewrite> rewrites = new ArrayList<>();
+        for (ImageRow row : rows) {
+            String images = rewrite(row.images(), moved);
+            if (images.equals(row.images())) {
+                continue;
+            }
+            if (images.length() > IMAGES_MAX_LENGTH) {
+                log.warn("改写后的图片路径超出长度限制，保留旧路径: id={}", row.id());
+                continue;
+            }
+            rewrites.add(new Rewrite(row.id(), row.images(), images));
+        }
+
+        return transactionTemplate.execute(status -> {
+            int updated = 0;
+            for (Rewrite rewrite : rewrites) {
+                updated += target.replace(rewrite.id(), rewrite.expected(), rewrite.images());
+            }
+            moved.forEach(fileBlobService::move);
+            checkpointMapper.advance(jobName, null, lastId, updated);
+            return updated;
+        });
+    }
+
+    /**
+     * 把逗号分隔的图片路径中的平铺路径改为分层路径，其余路径原样保留
+     *
+     * @param moved 收集已迁移文件的 旧访问路径 -> 新访问路径
+     */
+    private String rewrite(String images, Map<String, String> moved) {
+        List<String> paths = new ArrayList<>();
+        for (String image : images.split(",")) {
+            String relocated = relocate(image.trim(), moved);
+            paths.add(relocated != null ? relocated : image);
+        }
+        return String.join(",", paths);
+    }
+
+    /**
+     * 迁移单个文件及其衍生图
+     *
+     * @return 新的访问路径（保留原有的 /api 前缀）；无需迁移或迁移失败返回 null
+     */
+    private String relocate(String path, Map<String, String> moved) {
+        Path source = FileUtil.resolve(path);
+        Path target = source == null ? null : FileUtil.shardedPath(source);
+        if (target == null) {
+            return null;
+        }
+        String oldPath = FileUtil.toWebPath(source);
+        try {
+            FileUtil.relocate(source, target);
+            for (ImageVariant variant : ImageVariant.values()) {
+                for (String format : new String[]{ImageDerivativeService.FORMAT_JPEG, ImageDerivativeService.FORMAT_WEBP}) {
+                    Path derivative = FileUtil.resolve(variant.pathOf(oldPath, format));
+                    FileUtil.relocate(derivative, FileUtil.shardedPath(derivative));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("迁移文件失败: path={}, error={}", path, e.getMessage());
+            return null;
+        }
+        // 文件已不存在时保留原路径
+        if (!Files.exists(target)) {
+            return null;
+        }
+        String newPath = FileUtil.toWebPath(target);
+        moved.put(oldPath, newPath);
+        return path.startsWith("/api/") ? "/api" + newPath : newPath;
+    }
+
+    /**
+     * 迁移存储目录中剩余的平铺文件，按批改写登记表
+     */
+    private long relocateRemaining() {
+        Path base = Paths.get(FileUtil.FILE_BASE_PATH).toAbsolutePath().normalize();
+        if (!Files.isDirectory(base)) {
+            return 0;
+        }
+        List<Path> batch = new ArrayList<>();
+        long[] total = {0};
+        try {
+            Files.walkFileTree(base, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    return !dir.equals(base) && SHARD_DIRECTORY.matcher(dir.getFileName().toString()).matches()
+                            ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile() && FileUtil.shardedPath(file) != null) {
+                        batch.add(file);
+                        if (batch.size() >= chunkSize) {
+                            total[0] += relocateFiles(batch);
+                            batch.clear();
+                            pause();
+                        }
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    log.warn("读取文件失败: path={}, error={}", file, e.getMessage());
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            log.error("遍历存储目录失败: {}", e.getMessage(), e);
+        }
+        total[0] += relocateFiles(batch);
+        return total[0];
+    }
+
+    private int relocateFiles(List<Path> files) {
+        Map<String, String> moved = new TreeMap<>();
+        for (Path file : files) {
+            Path target = FileUtil.shardedPath(file);
+            try {
+                if (FileUtil.relocate(file, target)) {
+                    moved.put(FileUtil.toWebPath(file), FileUtil.toWebPath(target));
+                }
+            } catch (IOException e) {
+                log.warn("迁移文件失败: path={}, error={}", file, e.getMessage());
+            }
+        }
+        if (!moved.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> moved.forEach(fileBlobService::move));
+        }
+        return moved.size();
+    }
+
+    /**
+     * 批次间短暂停顿，给在线业务让出IO
+     */
+    private void pause() {
+        if (pauseMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record ImageRow(Long id, String images) {
+    }
+
+    private record Rewrite(Long id, String expected, String images) {
+    }
+
+    /**
+     * 失物、招领两张表的差异部分
+     */
+    private interface ImageTarget {
+        List<ImageRow> scan(Long afterId, int limit);
+
+        int replace(Long id, String expected, String images);
+    }
+
+    private class LostTarget implements ImageTarget {
+        @Override
+        public List<ImageRow> scan(Long afterId, int limit) {
+            return lostItemMapper.selectImagesAfter(afterId, limit).stream()
+                    .map(item -> new ImageRow(item.getId(), item.getImages())).toList();
+        }
+
+        @Override
+        public int replace(Long id, String expected, String images) {
+            return lostItemMapper.replaceImages(id, expected, images);
+        }
+    }
+
+    private class FoundTarget implements ImageTarget {
+        @Override
+        public List<ImageRow> scan(Long afterId, int limit) {
+            return foundItemMapper.selectImagesAfter(afterId, limit).stream()
+                    .map(item -> new ImageRow(item.getId(), item.getImages())).toList();
+        }
+
+        @Override
+        public int replace(Long id, String expected, String images) {
+            return foundItemMapper.replaceImages(id, expected, images);
+        }
+    }
+}
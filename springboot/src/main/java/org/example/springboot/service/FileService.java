@@ -3,27 +3,77 @@ package org.example.springboot.service;
 
 import io.micrometer.common.util.StringUtils;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
 import org.example.springboot.common.Result;
 import org.example.springboot.enumClass.FileType;
+import org.example.springboot.exception.ServiceException;
 import org.example.springboot.util.FileUtil;
+import org.example.springboot.util.ImageUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class FileService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FileService.class);
 
+    @Resource
+    private ImageDerivativeService imageDerivativeService;
+
+    @Resource
+    private FileBlobService fileBlobService;
+
+    @Value("${spring.servlet.multipart.max-file-size:10MB}")
+    private DataSize maxFileSize;
+
+    @Value("${file.upload.workers:4}")
+    private int uploadWorkers;
+
+    @Value("${file.upload.queue-size:64}")
+    private int uploadQueueSize;
+
+    private ThreadPoolExecutor uploadExecutor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger sequence = new AtomicInteger();
+        // 队列满时由请求线程自己写入，形成背压而不是拒绝上传
+        uploadExecutor = new ThreadPoolExecutor(uploadWorkers, uploadWorkers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(uploadQueueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "file-upload-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        uploadExecutor.shutdown();
+    }
+
     @Operation(summary = "文件上传")
     public Result<?> upLoad(MultipartFile file,FileType fileType) {
         if (com.baomidou.mybatisplus.core.toolkit.StringUtils.isBlank(file.getOriginalFilename())) {
@@ -31,70 +81,138 @@ public class FileService {
             return Result.error("-1", "文件不存在！");
         }
         LOGGER.info("upload FILE:" + file.getOriginalFilename());
-        String path = FileUtil.saveFile(file,null,fileType.getTypeName());
-        if (com.baomidou.mybatisplus.core.toolkit.StringUtils.isNotBlank(path)) {
-            return Result.success(path);
-        } else {
+        FileUtil.StoredFile stored;
+        try {
+            stored = store(file, fileType);
+        } catch (ServiceException e) {
+            return Result.error("-1", e.getMessage());
+        } catch (IOException e) {
+            LOGGER.error("文件上传时发生异常: " + e.getMessage(), e);
             return Result.error("-1", "文件上传失败");
         }
+        fileBlobService.register(stored);
+        if (fileType == FileType.IMG) {
+            // 异步生成缩略图等衍生图，不阻塞上传请求
+            imageDerivativeService.submit(stored.path());
+        }
+        return Result.success(stored.path());
     }
     @DeleteMapping("/remove/{filename}")
     public Result<?> fileRemove(@PathVariable String filename){
-        String filePath="\\img\\"+filename;
+        String filePath="/img/"+filename;
 
-        boolean res = FileUtil.deleteFile(filePath);
+        // 仍被物品引用的文件不会删除（抛出业务异常）
+        boolean res = fileBlobService.delete(filePath);
 
         return res? Result.success():Result.error("-1","删除失败！");
 
     }
 
     public List<String> uploadMultiple(List<MultipartFile> files) {
+        return uploadAll(files, FileType.COMMON);
+    }
+
+    /**
+     * 批量上传图片
+     */
+    public List<String> uploadImages(List<MultipartFile> files) {
+        return uploadAll(files, FileType.IMG);
+    }
+
+    /**
+     * 并行保存多个文件，耗时取决于最慢的一个。全部成功才登记并按提交顺序返回路径；
+     * 任一失败时取消已保存文件的预约并抛出异常，本次新写入的文件随即在行锁下删除
+     */
+    private List<String> uploadAll(List<MultipartFile> files, FileType fileType) {
         if (files == null || files.isEmpty()) {
             LOGGER.error("没有文件上传");
-            return null;
+            throw new ServiceException("没有文件上传");
         }
 
-        List<String> successPaths = new ArrayList<>();
-        List<String> failedFiles = new ArrayList<>();
-
+        List<CompletableFuture<FileUtil.StoredFile>> futures = new ArrayList<>(files.size());
         for (MultipartFile file : files) {
-            try {
-                if (StringUtils.isEmpty(file.getOriginalFilename())) {
-                    failedFiles.add(file.getOriginalFilename() + ": 文件不存在");
-                    continue;
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    LOGGER.info("upload FILE:" + file.getOriginalFilename());
+                    return store(file, fileType);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 }
-                LOGGER.info("upload FILE:" + file.getOriginalFilename());
-                String path = FileUtil.saveFile(file,null,FileType.COMMON.getTypeName());
-                if (StringUtils.isNotBlank(path)) {
-                    successPaths.add(path);
+            }, uploadExecutor));
+        }
+
+        List<FileUtil.StoredFile> stored = new ArrayList<>(files.size());
+        List<String> failedFiles = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                stored.add(futures.get(i).join());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                String name = files.get(i).getOriginalFilename();
+                if (cause instanceof ServiceException) {
+                    failedFiles.add(name + ": " + cause.getMessage());
                 } else {
-                    failedFiles.add(file.getOriginalFilename() + ": 文件上传失败");
+                    LOGGER.error("文件上传时发生异常: " + cause.getMessage(), cause);
+                    failedFiles.add(name + ": 文件上传时发生异常");
                 }
-            } catch (Exception e) {
-                LOGGER.error("文件上传时发生异常: " + e.getMessage(), e);
-                failedFiles.add(file.getOriginalFilename() + ": 文件上传时发生异常");
             }
         }
 
         // 检查是否所有文件都成功上传
         if (!failedFiles.isEmpty()) {
-            // 如果有文件上传失败，删除所有成功上传的文件
-            for (String path : successPaths) {
-                File uploadedFile = new File(path);
-                if (uploadedFile.exists() && uploadedFile.isFile()) {
-                    if (uploadedFile.delete()) {
-                        LOGGER.info("Deleted successfully uploaded file: " + path);
-                    } else {
-                        LOGGER.warn("Failed to delete file: " + path);
+            // 如果有文件上传失败，取消已保存文件的预约；本次新写入的文件再按删除流程清理，
+            // 删除在行锁下检查引用和进行中的上传，相同内容正被其他上传复用时保留，留给孤立文件清理
+            for (FileUtil.StoredFile file : stored) {
+                fileBlobService.cancel(file.path());
+                if (file.created()) {
+                    try {
+                        fileBlobService.delete(file.path());
+                    } catch (ServiceException e) {
+                        LOGGER.info("批量上传回滚时保留文件: " + file.path() + ", " + e.getMessage());
+                    } catch (RuntimeException e) {
+                        LOGGER.error("批量上传回滚时删除文件失败: " + file.path(), e);
                     }
                 }
             }
+            throw new ServiceException("文件上传失败：" + String.join("；", failedFiles));
+        }
+
+        List<String> successPaths = new ArrayList<>(stored.size());
+        for (FileUtil.StoredFile file : stored) {
+            fileBlobService.register(file);
+            if (fileType == FileType.IMG) {
+                imageDerivativeService.submit(file.path());
+            }
+            successPaths.add(file.path());
+        }
+        return successPaths;
+    }
+
+    /**
+     * 校验并保存单个文件：大小取自 multipart 头信息，图片类型按文件头魔数识别，
+     * 校验只读取文件头，内容经通道直接写入存储目录
+     */
+    private FileUtil.StoredFile store(MultipartFile file, FileType fileType) throws IOException {
+        String originalFilename = file.getOriginalFilename();
+        if (StringUtils.isEmpty(originalFilename) || file.isEmpty()) {
+            throw new ServiceException("文件不存在");
+        }
+        if (file.getSize() > maxFileSize.toBytes()) {
+            throw new ServiceException("文件大小不能超过" + maxFileSize.toMegabytes() + "MB");
+        }
 
-            // 返回错误信息
-            return null;
-        } else {
-            // 如果全部成功，则只返回成功路径
-            return successPaths;
+        try (InputStream in = new BufferedInputStream(file.getInputStream())) {
+            String extension = FileUtil.extensionOf(originalFilename);
+            if (fileType == FileType.IMG) {
+                in.mark(ImageUtil.HEADER_LENGTH);
+                String format = ImageUtil.detectFormat(in.readNBytes(ImageUtil.HEADER_LENGTH));
+                in.reset();
+                if (format == null) {
+                    throw new ServiceException("不支持的图片格式");
+                }
+                extension = "." + format;
+            }
+            return FileUtil.storeStream(in, extension, null, fileType.getTypeName(), maxFileSize.toBytes(), fileBlobService);
         }
     }
 }
@@ -4,16 +4,16 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.StringUtils;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import jakarta.annotation.Resource;
+import org.example.springboot.common.CursorPage;
 import org.example.springboot.entity.ClaimApplication;
 import org.example.springboot.entity.FoundItem;
-import org.example.springboot.entity.ItemCategory;
+import org.example.springboot.entity.ItemStatusCounter;
 import org.example.springboot.entity.User;
 import org.example.springboot.exception.ServiceException;
 import org.example.springboot.mapper.ClaimApplicationMapper;
 import org.example.springboot.mapper.FoundItemMapper;
-import org.example.springboot.mapper.ItemCategoryMapper;
-import org.example.springboot.mapper.UserMapper;
 import org.example.springboot.util.JwtTokenUtils;
+import org.example.springboot.util.KeysetCursor;
 import org.example.springboot.util.ValidationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,6 +21,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -31,14 +32,16 @@ import java.util.Objects;
 public class FoundItemService {
     private static final Logger log = LoggerFactory.getLogger(FoundItemService.class);
 
+    /**
+     * 游标分页单页最大条数
+     */
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     @Resource
     private FoundItemMapper foundItemMapper;
     
     @Resource
-    private UserMapper userMapper;
-    
-    @Resource
-    private ItemCategoryMapper itemCategoryMapper;
+    private AssociationHydrator associationHydrator;
 
     @Resource
     private UserService userService;
@@ -48,6 +51,21 @@ public class FoundItemService {
 
     @Resource
     private ItemStatusService itemStatusService;
+
+    @Resource
+    private ItemSearchService itemSearchService;
+
+    @Resource
+    private ItemStatusCounterService itemStatusCounterService;
+
+    @Resource
+    private ItemAnalyticsService itemAnalyticsService;
+
+    @Resource
+    private ItemMatchService itemMatchService;
+
+    @Resource
+    private FileBlobService fileBlobService;
     
     /**
      * 分页查询招领信息
@@ -88,6 +106,57 @@ public class FoundItemService {
         return page;
     }
     
+    /**
+     * 游标分页查询招领信息，按 (create_time DESC, id DESC) 排序，不统计总数
+     * @param cursor 上一页返回的游标，第一页为空
+     * @param size 每页大小
+     * @param title 标题（可选）
+     * @param categoryId 分类ID（可选）
+     * @param status 状态（可选）
+     * @param userId 用户ID（可选）
+     * @return 游标分页结果
+     */
+    public CursorPage<FoundItem> queryByCursor(String cursor, int size, String title, Long categoryId, Integer status, Long userId) {
+        int limit = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        LambdaQueryWrapper<FoundItem> queryWrapper = new LambdaQueryWrapper<>();
+        if (StringUtils.isNotBlank(title)) {
+            queryWrapper.like(FoundItem::getTitle, title);
+        }
+        if (categoryId != null) {
+            queryWrapper.eq(FoundItem::getCategoryId, categoryId);
+        }
+        if (status != null) {
+            queryWrapper.eq(FoundItem::getStatus, status);
+        }
+        if (userId != null) {
+            queryWrapper.eq(FoundItem::getUserId, userId);
+        }
+        if (after != null) {
+            queryWrapper.and(w -> w.lt(FoundItem::getCreateTime, after.getCreateTime())
+                    .or(o -> o.eq(FoundItem::getCreateTime, after.getCreateTime()).lt(FoundItem::getId, after.getId())));
+        }
+        // 多取一条用于判断是否还有下一页
+        queryWrapper.orderByDesc(FoundItem::getCreateTime)
+                .orderByDesc(FoundItem::getId)
+                .last("LIMIT " + (limit + 1));
+
+        List<FoundItem> records = foundItemMapper.selectList(queryWrapper);
+        boolean hasMore = records.size() > limit;
+        if (hasMore) {
+            records = new ArrayList<>(records.subList(0, limit));
+        }
+        fillInfo(records);
+
+        String nextCursor = null;
+        if (hasMore) {
+            FoundItem last = records.get(records.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreateTime(), last.getId()).encode();
+        }
+        return new CursorPage<>(records, nextCursor, hasMore);
+    }
+    
     /**
      * 获取当前用户的招领列表
      * @return 招领列表
@@ -150,6 +219,11 @@ public class FoundItemService {
 
         // 插入数据库
         foundItemMapper.insert(foundItem);
+        itemStatusCounterService.created(ItemStatusCounter.ITEM_TYPE_FOUND, foundItem.getStatus());
+        fileBlobService.retain(foundItem.getImages());
+        itemAnalyticsService.recordPost(ItemStatusCounter.ITEM_TYPE_FOUND, foundItem.getCategoryId());
+        itemSearchService.refreshFoundItem(foundItem.getId());
+        itemMatchService.matchFoundItemAsync(foundItem.getId());
     }
 
     /**
@@ -209,9 +283,22 @@ public class FoundItemService {
         
         // 不能修改用户ID
         foundItem.setUserId(existingFound.getUserId());
+        // 不回写 update_time，由数据库刷新，检索索引追赶依赖它
+        foundItem.setUpdateTime(null);
         
         // 更新数据库
         foundItemMapper.updateById(foundItem);
+
+        // 图片变更时调整上传文件的引用计数（未传 images 表示不修改图片）
+        if (foundItem.getImages() != null) {
+            fileBlobService.replace(existingFound.getImages(), foundItem.getImages());
+        }
+        
+        // 标题变更时同步认领申请上冗余的物品标题
+        if (foundItem.getTitle() != null && !foundItem.getTitle().equals(existingFound.getTitle())) {
+            claimApplicationMapper.syncItemTitle(foundItem.getId(), 0, foundItem.getTitle());
+        }
+        itemSearchService.refreshFoundItem(foundItem.getId());
     }
     
     /**
@@ -277,7 +364,11 @@ public class FoundItemService {
         }
 
         // 删除数据
-        foundItemMapper.deleteById(id);
+        if (foundItemMapper.deleteById(id) > 0) {
+            itemStatusCounterService.deleted(ItemStatusCounter.ITEM_TYPE_FOUND, existingFound.getStatus());
+            fileBlobService.release(existingFound.getImages());
+        }
+        itemSearchService.refreshFoundItem(id);
     }
     
     /**
@@ -320,31 +411,27 @@ public class FoundItemService {
         }
     }
     
+    /**
+     * 检索招领信息（标题、描述、拾取地点），按相关度和发布时间排序
+     * @param keyword 关键词
+     * @param categoryId 分类ID（可选）
+     * @param status 状态（可选）
+     * @param currentPage 当前页
+     * @param size 每页大小
+     * @return 分页结果
+     */
+    public Page<FoundItem> search(String keyword, Long categoryId, Integer status, int currentPage, int size) {
+        if (StringUtils.isBlank(keyword)) {
+            return queryPage(null, categoryId, status, currentPage, size);
+        }
+        return itemSearchService.searchFoundItems(keyword.trim(), categoryId, status, currentPage, size);
+    }
+
     /**
      * 填充关联信息
      * @param foundItems 招领信息列表
      */
     private void fillInfo(List<FoundItem> foundItems) {
-        if (foundItems == null || foundItems.isEmpty()) {
-            return;
-        }
-        
-        for (FoundItem foundItem : foundItems) {
-            // 填充分类名称
-            if (foundItem.getCategoryId() != null) {
-                ItemCategory category = itemCategoryMapper.selectById(foundItem.getCategoryId());
-                if (category != null) {
-                    foundItem.setCategoryName(category.getName());
-                }
-            }
-            
-            // 填充用户名
-            if (foundItem.getUserId() != null) {
-                User user = userMapper.selectById(foundItem.getUserId());
-                if (user != null) {
-                    foundItem.setUsername(user.getUsername());
-                }
-            }
-        }
+        associationHydrator.fillFoundItems(foundItems);
     }
 } 
\ No newline at end of file
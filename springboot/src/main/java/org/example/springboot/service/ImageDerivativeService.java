@@ -0,0 +1,254 @@
+package org.example.springboot.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.springboot.enumClass.ImageVariant;
+import org.example.springboot.storage.BlobStore;
+import org.example.springboot.util.FileUtil;
+import org.example.springboot.util.ImageUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 图片衍生图处理服务
+ * 上传完成后把图片交给有界线程池处理：按 EXIF 方向摆正、去除元数据、限制分辨率，
+ * 生成固定尺寸的缩略图和大图（JPEG，存在 WebP 编码插件时额外生成 WebP）。
+ * 原图保持不变；衍生图尚未生成或处理失败时，调用方回退使用原图。
+ * 使用对象存储时原图先下载到本地暂存目录处理，衍生图编码后上传
+ */
+@Service
+public class ImageDerivativeService {
+    private static final Logger log = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    static final String FORMAT_JPEG = "jpg";
+    static final String FORMAT_WEBP = "webp";
+
+    @Value("${image.derivative.workers:2}")
+    private int workers;
+
+    @Value("${image.derivative.queue-size:200}")
+    private int queueSize;
+
+    @Value("${image.derivative.max-pixels:40000000}")
+    private long maxPixels;
+
+    @Value("${image.derivative.quality:0.82}")
+    private float quality;
+
+    private ThreadPoolExecutor executor;
+
+    private boolean webpEnabled;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger sequence = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivative-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        webpEnabled = ImageUtil.canWrite(FORMAT_WEBP);
+        ImageIO.setUseCache(false);
+        log.info("图片衍生图处理已启动: workers={}, queueSize={}, webp={}", workers, queueSize, webpEnabled);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 提交图片处理任务，队列已满时直接放弃（列表回退使用原图）
+     * @param imagePath 上传返回的图片路径，例如 /img/xxx.jpg
+     */
+    public void submit(String imagePath) {
+        if (FileUtil.keyOf(imagePath) == null) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(imagePath);
+                } catch (Exception e) {
+                    log.error("生成衍生图失败: path={}, error={}", imagePath, e.getMessage(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("图片处理队列已满，跳过衍生图生成: path={}", imagePath);
+        }
+    }
+
+    /**
+     * 获取列表用的缩略图路径
+     */
+    public String thumbnailOf(String imagePath) {
+        return variantOf(imagePath, ImageVariant.THUMB);
+    }
+
+    /**
+     * 获取详情和大图预览用的路径
+     * 大图已摆正方向并去除 EXIF（含拍摄位置），详情页应优先使用
+     */
+    public String previewOf(String imagePath) {
+        return variantOf(imagePath, ImageVariant.LARGE);
+    }
+
+    /**
+     * 把逗号分隔的图片列表转换为对应的缩略图列表，顺序不变
+     */
+    public String thumbnailsOf(String images) {
+        return variantsOf(images, ImageVariant.THUMB);
+    }
+
+    /**
+     * 把逗号分隔的图片列表转换为对应的大图列表，顺序不变
+     */
+    public String previewsOf(String images) {
+        return variantsOf(images, ImageVariant.LARGE);
+    }
+
+    /**
+     * 内容寻址的图片上传时即提交生成衍生图，直接返回衍生图路径而不逐个检查存在性（对象存储上是阻塞的 HEAD）；
+     * 衍生图还没生成或无法生成时，由图片 Servlet 重定向到原图。按时间戳命名的旧图片没有衍生图，返回原图
+     */
+    private String variantOf(String imagePath, ImageVariant variant) {
+        if (imagePath == null || imagePath.isBlank()) {
+            return imagePath;
+        }
+        String trimmed = imagePath.trim();
+        return FileUtil.isContentAddressed(trimmed) ? variant.pathOf(trimmed, FORMAT_JPEG) : trimmed;
+    }
+
+    private String variantsOf(String images, ImageVariant variant) {
+        if (images == null || images.isBlank()) {
+            return images;
+        }
+        List<String> paths = new ArrayList<>();
+        for (String image : images.split(",")) {
+            if (!image.isBlank()) {
+                paths.add(variantOf(image, variant));
+            }
+        }
+        return String.join(",", paths);
+    }
+
+    /**
+     * 删除图片的全部衍生图
+     */
+    public void deleteDerivatives(String imagePath) {
+        BlobStore store = FileUtil.blobStore();
+        for (ImageVariant variant : ImageVariant.values()) {
+            for (String format : new String[]{FORMAT_JPEG, FORMAT_WEBP}) {
+                String key = FileUtil.locateKey(variant.pathOf(imagePath, format));
+                try {
+                    if (key != null) {
+                        store.delete(key);
+                    }
+                } catch (IOException e) {
+                    log.warn("删除衍生图失败: key={}, error={}", key, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void process(String path) throws Exception {
+        BlobStore store = FileUtil.blobStore();
+        String key = FileUtil.locateKey(path);
+        if (key == null || !store.exists(key)) {
+            return;
+        }
+        // 衍生图与原图实际所在目录一致（旧的平铺路径可能已迁移到分层目录）
+        String imagePath = "/" + key;
+        // 文件按内容命名，重复上传的图片已有衍生图时无需再生成
+        if (derivativesExist(imagePath)) {
+            return;
+        }
+        Path source = store.localPath(key);
+        Path download = null;
+        try {
+            if (source == null) {
+                download = FileUtil.createStagingFile(".source-");
+                try (InputStream in = store.open(key)) {
+                    Files.copy(in, download, StandardCopyOption.REPLACE_EXISTING);
+                }
+                source = download;
+            }
+            generate(store, source, imagePath);
+        } finally {
+            if (download != null) {
+                Files.deleteIfExists(download);
+            }
+        }
+    }
+
+    private void generate(BlobStore store, Path source, String imagePath) throws IOException {
+        // 先只读尺寸，拒绝解码后会占用大量内存的超大图片
+        int[] size = ImageUtil.readSize(source);
+        if (size == null) {
+            log.info("无法识别的图片格式，跳过衍生图生成: path={}", imagePath);
+            return;
+        }
+        if ((long) size[0] * size[1] > maxPixels) {
+            log.warn("图片像素过多，跳过衍生图生成: path={}, size={}x{}", imagePath, size[0], size[1]);
+            return;
+        }
+
+        BufferedImage decoded = ImageIO.read(source.toFile());
+        if (decoded == null) {
+            return;
+        }
+        BufferedImage normalized = ImageUtil.normalize(decoded, ImageUtil.readOrientation(source));
+
+        long start = System.currentTimeMillis();
+        for (ImageVariant variant : ImageVariant.values()) {
+            BufferedImage image = variant.isCrop()
+                    ? ImageUtil.cropToSquare(normalized, variant.getSize())
+                    : ImageUtil.scaleToFit(normalized, variant.getSize());
+            store(store, image, FORMAT_JPEG, variant.pathOf(imagePath, FORMAT_JPEG));
+            if (webpEnabled) {
+                store(store, image, FORMAT_WEBP, variant.pathOf(imagePath, FORMAT_WEBP));
+            }
+        }
+        log.debug("衍生图生成完成: path={}, cost={}ms", imagePath, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 编码到暂存文件后写入存储
+     */
+    private void store(BlobStore store, BufferedImage image, String format, String variantPath) throws IOException {
+        Path temp = FileUtil.createStagingFile(".derivative-");
+        try {
+            ImageUtil.write(image, format, quality, temp);
+            store.put(FileUtil.keyOf(variantPath), temp, FileUtil.contentTypeOf(variantPath));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private boolean derivativesExist(String imagePath) {
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (!FileUtil.exists(variant.pathOf(imagePath, FORMAT_JPEG))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
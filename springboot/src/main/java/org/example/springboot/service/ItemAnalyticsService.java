@@ -0,0 +1,199 @@
+package org.example.springboot.service;
+
+import jakarta.annotation.Resource;
+import org.example.springboot.entity.DailyItemStats;
+import org.example.springboot.entity.ItemCategory;
+import org.example.springboot.entity.User;
+import org.example.springboot.exception.ServiceException;
+import org.example.springboot.mapper.DailyItemStatsMapper;
+import org.example.springboot.util.JwtTokenUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 物品统计分析服务
+ * 发布、认领申请、审核通过、过期等事件发生时在业务事务内累加 daily_item_stats，
+ * 趋势和分类查询只读取预聚合表；历史数据可按天从业务表回填
+ */
+@Service
+public class ItemAnalyticsService {
+    private static final Logger log = LoggerFactory.getLogger(ItemAnalyticsService.class);
+
+    private static final int MAX_RANGE_DAYS = 366;
+
+    @Resource
+    private DailyItemStatsMapper dailyItemStatsMapper;
+
+    @Resource
+    private ItemCategoryService itemCategoryService;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * 记录物品发布
+     */
+    public void recordPost(int itemType, Long categoryId) {
+        DailyItemStats delta = newDelta(itemType, categoryId);
+        delta.setPosts(1);
+        dailyItemStatsMapper.increment(delta);
+    }
+
+    /**
+     * 记录认领申请
+     */
+    public void recordClaim(int itemType, Long categoryId) {
+        DailyItemStats delta = newDelta(itemType, categoryId);
+        delta.setClaims(1);
+        dailyItemStatsMapper.increment(delta);
+    }
+
+    /**
+     * 记录认领审核通过
+     * @param itemCreateTime 物品发布时间，用于计算认领耗时
+     */
+    public void recordApproval(int itemType, Long categoryId, LocalDateTime itemCreateTime) {
+        DailyItemStats delta = newDelta(itemType, categoryId);
+        delta.setApprovals(1);
+        if (itemCreateTime != null) {
+            delta.setClaimSeconds(Math.max(0, Duration.between(itemCreateTime, LocalDateTime.now()).getSeconds()));
+        }
+        dailyItemStatsMapper.increment(delta);
+    }
+
+    /**
+     * 记录一批物品过期
+     * @param countsByCategory 分类ID -> 过期数量
+     */
+    public void recordExpirations(int itemType, Map<Long, Integer> countsByCategory) {
+        // 按分类ID顺序更新，避免并发事务交叉加锁
+        for (Map.Entry<Long, Integer> entry : new TreeMap<>(countsByCategory).entrySet()) {
+            DailyItemStats delta = newDelta(itemType, entry.getKey());
+            delta.setExpirations(entry.getValue());
+            dailyItemStatsMapper.increment(delta);
+        }
+    }
+
+    /**
+     * 按天查询统计趋势，没有数据的日期补零
+     * @param itemType 物品类型（可选，0招领，1失物）
+     * @param categoryId 分类ID（可选）
+     */
+    public List<DailyItemStats> getDailyStats(LocalDate startDate, LocalDate endDate, Integer itemType, Long categoryId) {
+        checkRange(startDate, endDate);
+        Map<LocalDate, DailyItemStats> rows = new HashMap<>();
+        for (DailyItemStats row : dailyItemStatsMapper.sumByDate(startDate, endDate, itemType, categoryId)) {
+            rows.put(row.getStatDate(), row);
+        }
+
+        List<DailyItemStats> result = new ArrayList<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            DailyItemStats row = rows.get(day);
+            if (row == null) {
+                row = emptyStats();
+                row.setStatDate(day);
+            }
+            row.setItemType(itemType);
+            row.setCategoryId(categoryId);
+            fillAverage(row);
+            result.add(row);
+        }
+        return result;
+    }
+
+    /**
+     * 按分类汇总区间内的统计值
+     * @param itemType 物品类型（可选，0招领，1失物）
+     */
+    public List<DailyItemStats> getCategoryStats(LocalDate startDate, LocalDate endDate, Integer itemType) {
+        checkRange(startDate, endDate);
+        List<DailyItemStats> rows = dailyItemStatsMapper.sumByCategory(startDate, endDate, itemType);
+        Map<Long, ItemCategory> categories = itemCategoryService.getCategoryMap();
+        for (DailyItemStats row : rows) {
+            row.setItemType(itemType);
+            ItemCategory category = categories.get(row.getCategoryId());
+            row.setCategoryName(category != null ? category.getName() : "未分类");
+            fillAverage(row);
+        }
+        return rows;
+    }
+
+    /**
+     * 按业务表回填统计数据（管理员），逐天在独立事务中重算并覆盖
+     * @return 回填的天数
+     */
+    public int backfill(LocalDate startDate, LocalDate endDate) {
+        User currentUser = JwtTokenUtils.getCurrentUser();
+        if (currentUser == null || !"ADMIN".equals(currentUser.getRoleCode())) {
+            throw new ServiceException("无权限操作");
+        }
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new ServiceException("日期范围无效");
+        }
+
+        int days = 0;
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            backfillDay(day);
+            days++;
+        }
+        log.info("物品统计回填完成: {} ~ {}, 共{}天", startDate, endDate, days);
+        return days;
+    }
+
+    private void backfillDay(LocalDate day) {
+        LocalDateTime start = day.atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        transactionTemplate.executeWithoutResult(status -> {
+            dailyItemStatsMapper.resetDay(day);
+            dailyItemStatsMapper.backfillPosts(day, start, end);
+            dailyItemStatsMapper.backfillClaims(day, start, end);
+            dailyItemStatsMapper.backfillApprovals(day, start, end);
+            dailyItemStatsMapper.backfillExpirations(day, start, end);
+        });
+    }
+
+    private static void checkRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new ServiceException("日期范围无效");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_RANGE_DAYS) {
+            throw new ServiceException("查询范围不能超过" + MAX_RANGE_DAYS + "天");
+        }
+    }
+
+    private static void fillAverage(DailyItemStats row) {
+        if (row.getApprovals() != null && row.getApprovals() > 0 && row.getClaimSeconds() != null) {
+            row.setAvgClaimHours(row.getClaimSeconds() / 3600.0 / row.getApprovals());
+        }
+    }
+
+    private static DailyItemStats newDelta(int itemType, Long categoryId) {
+        DailyItemStats delta = emptyStats();
+        delta.setStatDate(LocalDate.now());
+        delta.setItemType(itemType);
+        delta.setCategoryId(categoryId != null ? categoryId : 0L);
+        return delta;
+    }
+
+    private static DailyItemStats emptyStats() {
+        DailyItemStats stats = new DailyItemStats();
+        stats.setPosts(0);
+        stats.setClaims(0);
+        stats.setApprovals(0);
+        stats.setExpirations(0);
+        stats.setClaimSeconds(0L);
+        return stats;
+    }
+}
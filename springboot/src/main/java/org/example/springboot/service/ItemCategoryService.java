@@ -7,15 +7,32 @@ import jakarta.annotation.Resource;
 import org.example.springboot.entity.ItemCategory;
 import org.example.springboot.exception.ServiceException;
 import org.example.springboot.mapper.ItemCategoryMapper;
+import org.example.springboot.util.TransactionUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class ItemCategoryService {
     @Resource
     private ItemCategoryMapper itemCategoryMapper;
 
+    /**
+     * 快照有效期：本节点的增删改提交后立即重建，其他节点的修改最多延迟这么久可见
+     */
+    @Value("${item-category.snapshot-ttl-ms:30000}")
+    private long snapshotTtlMs;
+
+    /**
+     * 分类快照：分类表数据量小且很少变更，全量加载到内存，
+     * 增删改后或过期后整体重建并原子替换，读请求不再访问数据库
+     */
+    private volatile CategorySnapshot snapshot;
+
     /**
      * 添加分类
      */
@@ -28,6 +45,7 @@ public class ItemCategoryService {
         if (itemCategoryMapper.insert(category) <= 0) {
             throw new ServiceException("添加分类失败");
         }
+        TransactionUtils.afterCommit(this::rebuildSnapshot);
     }
 
     /**
@@ -45,6 +63,7 @@ public class ItemCategoryService {
         if (itemCategoryMapper.updateById(category) <= 0) {
             throw new ServiceException("更新分类失败");
         }
+        TransactionUtils.afterCommit(this::rebuildSnapshot);
     }
 
     /**
@@ -54,19 +73,34 @@ public class ItemCategoryService {
         if (itemCategoryMapper.deleteById(id) <= 0) {
             throw new ServiceException("删除分类失败");
         }
+        TransactionUtils.afterCommit(this::rebuildSnapshot);
     }
 
     /**
      * 根据ID获取分类
      */
     public ItemCategory getCategoryById(Long id) {
-        ItemCategory category = itemCategoryMapper.selectById(id);
+        ItemCategory category = getSnapshot().byId.get(id);
+        if (category != null) {
+            return category;
+        }
+
+        // 快照未命中时回查数据库，兼容其他节点新增的分类
+        category = itemCategoryMapper.selectById(id);
         if (category == null) {
             throw new ServiceException("分类不存在");
         }
+        rebuildSnapshot();
         return category;
     }
 
+    /**
+     * 获取分类ID到分类的只读映射
+     */
+    public Map<Long, ItemCategory> getCategoryMap() {
+        return getSnapshot().byId;
+    }
+
     /**
      * 分页查询分类
      */
@@ -88,12 +122,47 @@ public class ItemCategoryService {
      * 获取所有分类列表
      */
     public List<ItemCategory> getAllCategories() {
+        return getSnapshot().sorted;
+    }
+
+    /**
+     * 重新加载分类快照
+     */
+    public synchronized void rebuildSnapshot() {
+        snapshot = loadSnapshot();
+    }
+
+    private CategorySnapshot getSnapshot() {
+        CategorySnapshot current = snapshot;
+        if (isStale(current)) {
+            synchronized (this) {
+                current = snapshot;
+                if (isStale(current)) {
+                    current = loadSnapshot();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private boolean isStale(CategorySnapshot current) {
+        return current == null || System.currentTimeMillis() - current.loadedAt >= snapshotTtlMs;
+    }
+
+    private CategorySnapshot loadSnapshot() {
         // 按排序号升序、创建时间降序排列
         LambdaQueryWrapper<ItemCategory> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.orderByAsc(ItemCategory::getSort)
                    .orderByDesc(ItemCategory::getCreateTime);
-        
-        return itemCategoryMapper.selectList(queryWrapper);
+
+        List<ItemCategory> categories = itemCategoryMapper.selectList(queryWrapper);
+        Map<Long, ItemCategory> byId = new HashMap<>();
+        for (ItemCategory category : categories) {
+            byId.put(category.getId(), category);
+        }
+        return new CategorySnapshot(Collections.unmodifiableMap(byId), Collections.unmodifiableList(categories),
+                System.currentTimeMillis());
     }
 
     /**
@@ -104,4 +173,19 @@ public class ItemCategoryService {
         queryWrapper.eq(ItemCategory::getName, name);
         return itemCategoryMapper.selectCount(queryWrapper) > 0;
     }
-} 
\ No newline at end of file
+
+    /**
+     * 不可变的分类快照
+     */
+    private static final class CategorySnapshot {
+        private final Map<Long, ItemCategory> byId;
+        private final List<ItemCategory> sorted;
+        private final long loadedAt;
+
+        private CategorySnapshot(Map<Long, ItemCategory> byId, List<ItemCategory> sorted, long loadedAt) {
+            this.byId = byId;
+            this.sorted = sorted;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,259 @@
+package org.example.springboot.service;
+
+import jakarta.annotation.Resource;
+import org.example.springboot.entity.FoundItem;
+import org.example.springboot.entity.ItemStatusCounter;
+import org.example.springboot.entity.JobCheckpoint;
+import org.example.springboot.entity.LostItem;
+import org.example.springboot.enumClass.ItemStatus;
+import org.example.springboot.mapper.FoundItemMapper;
+import org.example.springboot.mapper.JobCheckpointMapper;
+import org.example.springboot.mapper.LostItemMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 过期物品处理服务
+ * 按 (create_time, id) 游标分批扫描过期的待认领物品，每批在独立的短事务中
+ * 锁定、批量更新状态、写入通知并推进断点；任务中断后下次执行从断点继续
+ */
+@Service
+public class ItemExpiryService {
+    private static final Logger log = LoggerFactory.getLogger(ItemExpiryService.class);
+
+    static final String LOST_JOB = "expire-lost-item";
+    static final String FOUND_JOB = "expire-found-item";
+
+    @Resource
+    private LostItemMapper lostItemMapper;
+
+    @Resource
+    private FoundItemMapper foundItemMapper;
+
+    @Resource
+    private JobCheckpointMapper checkpointMapper;
+
+    @Resource
+    private NotificationService notificationService;
+
+    @Resource
+    private ItemSearchService itemSearchService;
+
+    @Resource
+    private ItemStatusCounterService itemStatusCounterService;
+
+    @Resource
+    private ItemAnalyticsService itemAnalyticsService;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${item-expiry.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${item-expiry.pause-ms:50}")
+    private long pauseMs;
+
+    /**
+     * 同一实例内不允许并发执行（定时任务与管理员手动触发可能重叠）
+     */
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    /**
+     * 处理过期物品
+     * @param expireDays 过期天数
+     */
+    public void processExpiredItems(int expireDays) {
+        if (!runLock.tryLock()) {
+            log.warn("过期物品处理正在执行，跳过本次调用");
+            return;
+        }
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(expireDays);
+            long lost = run(LOST_JOB, cutoff, new LostTarget());
+            long found = run(FOUND_JOB, cutoff, new FoundTarget());
+            log.info("处理过期物品完成: 失物{}个, 招领{}个", lost, found);
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private long run(String jobName, LocalDateTime cutoff, ExpiryTarget target) {
+        JobCheckpoint checkpoint = checkpointMapper.selectById(jobName);
+        LocalDateTime cursorTime = null;
+        Long cursorId = 0L;
+        long processed = 0;
+        if (checkpoint != null && checkpoint.getStatus() == JobCheckpoint.STATUS_RUNNING) {
+            // 上次执行中断，沿用原截止时间从断点继续
+            cutoff = checkpoint.getCutoffTime();
+            cursorTime = checkpoint.getCursorTime();
+            cursorId = checkpoint.getCursorId();
+            processed = checkpoint.getProcessedCount();
+            log.info("从断点继续处理过期物品: job={}, cursorTime={}, cursorId={}, processed={}",
+                    jobName, cursorTime, cursorId, processed);
+        } else {
+            checkpointMapper.start(jobName, cutoff, LocalDateTime.now());
+        }
+
+        while (true) {
+            List<ExpiredItem> chunk = target.scan(cutoff, cursorTime, cursorId, chunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            ExpiredItem last = chunk.get(chunk.size() - 1);
+            Integer expired = expireChunk(jobName, target, chunk.stream().map(ExpiredItem::id).toList(), last);
+            processed += expired == null ? 0 : expired;
+            cursorTime = last.createTime();
+            cursorId = last.id();
+
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            pause();
+        }
+
+        checkpointMapper.complete(jobName);
+        return processed;
+    }
+
+    /**
+     * 处理一批：按主键顺序锁定仍待认领的记录，一条 UPDATE 更新状态，
+     * 通知经发件箱在提交前批量写入，断点与数据变更同事务提交
+     */
+    private Integer expireChunk(String jobName, ExpiryTarget target, List<Long> candidateIds, ExpiredItem last) {
+        return transactionTemplate.execute(status -> {
+            List<ExpiredItem> locked = target.lock(candidateIds);
+            if (!locked.isEmpty()) {
+                List<Long> ids = locked.stream().map(ExpiredItem::id).toList();
+                target.expire(ids);
+                Map<Long, Integer> countsByCategory = new HashMap<>();
+                for (ExpiredItem item : locked) {
+                    countsByCategory.merge(item.categoryId() != null ? item.categoryId() : 0L, 1, Integer::sum);
+                    sendExpiredNotification(item);
+                }
+                itemAnalyticsService.recordExpirations(target.itemType(), countsByCategory);
+                target.afterExpired(ids);
+            }
+            checkpointMapper.advance(jobName, last.createTime(), last.id(), locked.size());
+            return locked.size();
+        });
+    }
+
+    private void sendExpiredNotification(ExpiredItem item) {
+        try {
+            notificationService.sendStatusChangeNotification(item.userId(), item.title(),
+                    ItemStatus.PENDING.getDescription(), ItemStatus.EXPIRED.getDescription(), item.id());
+        } catch (Exception e) {
+            log.error("发送过期通知失败: itemId={}, error={}", item.id(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 批次间短暂停顿，给在线业务让出行锁和IO
+     */
+    private void pause() {
+        if (pauseMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record ExpiredItem(Long id, Long userId, Long categoryId, String title, LocalDateTime createTime) {
+    }
+
+    /**
+     * 失物、招领两张表的差异部分
+     */
+    private interface ExpiryTarget {
+        int itemType();
+
+        List<ExpiredItem> scan(LocalDateTime cutoff, LocalDateTime afterTime, Long afterId, int limit);
+
+        List<ExpiredItem> lock(List<Long> ids);
+
+        void expire(List<Long> ids);
+
+        void afterExpired(List<Long> ids);
+    }
+
+    private class LostTarget implements ExpiryTarget {
+        @Override
+        public int itemType() {
+            return ItemStatusCounter.ITEM_TYPE_LOST;
+        }
+
+        @Override
+        public List<ExpiredItem> scan(LocalDateTime cutoff, LocalDateTime afterTime, Long afterId, int limit) {
+            return lostItemMapper.selectExpiredAfter(cutoff, afterTime, afterId, limit).stream()
+                    .map(LostTarget::toExpired).toList();
+        }
+
+        @Override
+        public List<ExpiredItem> lock(List<Long> ids) {
+            return lostItemMapper.lockPendingByIds(ids).stream().map(LostTarget::toExpired).toList();
+        }
+
+        @Override
+        public void expire(List<Long> ids) {
+            int updated = lostItemMapper.updatePendingStatus(ids, ItemStatus.EXPIRED.getValue());
+            itemStatusCounterService.transition(ItemStatusCounter.ITEM_TYPE_LOST,
+                    ItemStatus.PENDING.getValue(), ItemStatus.EXPIRED.getValue(), updated);
+        }
+
+        @Override
+        public void afterExpired(List<Long> ids) {
+            itemSearchService.updateLostStatus(ids, ItemStatus.EXPIRED.getValue());
+        }
+
+        private static ExpiredItem toExpired(LostItem item) {
+            return new ExpiredItem(item.getId(), item.getUserId(), item.getCategoryId(), item.getTitle(), item.getCreateTime());
+        }
+    }
+
+    private class FoundTarget implements ExpiryTarget {
+        @Override
+        public int itemType() {
+            return ItemStatusCounter.ITEM_TYPE_FOUND;
+        }
+
+        @Override
+        public List<ExpiredItem> scan(LocalDateTime cutoff, LocalDateTime afterTime, Long afterId, int limit) {
+            return foundItemMapper.selectExpiredAfter(cutoff, afterTime, afterId, limit).stream()
+                    .map(FoundTarget::toExpired).toList();
+        }
+
+        @Override
+        public List<ExpiredItem> lock(List<Long> ids) {
+            return foundItemMapper.lockPendingByIds(ids).stream().map(FoundTarget::toExpired).toList();
+        }
+
+        @Override
+        public void expire(List<Long> ids) {
+            int updated = foundItemMapper.updatePendingStatus(ids, ItemStatus.EXPIRED.getValue());
+            itemStatusCounterService.transition(ItemStatusCounter.ITEM_TYPE_FOUND,
+                    ItemStatus.PENDING.getValue(), ItemStatus.EXPIRED.getValue(), updated);
+        }
+
+        @Override
+        public void afterExpired(List<Long> ids) {
+            itemSearchService.updateFoundStatus(ids, ItemStatus.EXPIRED.getValue());
+        }
+
+        private static ExpiredItem toExpired(FoundItem item) {
+            return new ExpiredItem(item.getId(), item.getUserId(), item.getCategoryId(), item.getTitle(), item.getCreateTime());
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package org.example.springboot.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import org.example.springboot.entity.FoundItem;
+import org.example.springboot.entity.ItemMatch;
+import org.example.springboot.entity.LostItem;
+import org.example.springboot.enumClass.ItemStatus;
+import org.example.springboot.exception.ServiceException;
+import org.example.springboot.mapper.FoundItemMapper;
+import org.example.springboot.mapper.ItemMatchMapper;
+import org.example.springboot.mapper.LostItemMapper;
+import org.example.springboot.util.TextTokenizer;
+import org.example.springboot.util.TransactionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 失物招领自动匹配服务
+ * 新发布失物或招领后，按 分类 + 时间窗口 从索引范围内取候选集，
+ * 综合时间接近度、地点相似度和文本相似度打分，保存前N个匹配并通知对方发布者
+ */
+@Service
+public class ItemMatchService {
+    private static final Logger log = LoggerFactory.getLogger(ItemMatchService.class);
+
+    private static final double TIME_WEIGHT = 0.25;
+    private static final double PLACE_WEIGHT = 0.30;
+    private static final double TEXT_WEIGHT = 0.45;
+
+    /**
+     * 时间接近度衰减周期（小时）
+     */
+    private static final double TIME_DECAY_HOURS = 72.0;
+
+    /**
+     * 拾取时间允许早于丢失时间的误差（用户填写的时间通常不精确）
+     */
+    private static final Duration TIME_SLACK = Duration.ofDays(1);
+
+    @Resource
+    private ItemMatchMapper itemMatchMapper;
+
+    @Resource
+    private LostItemMapper lostItemMapper;
+
+    @Resource
+    private FoundItemMapper foundItemMapper;
+
+    @Resource
+    private NotificationService notificationService;
+
+    @Value("${item-match.top-n:5}")
+    private int topN;
+
+    @Value("${item-match.min-score:0.35}")
+    private double minScore;
+
+    @Value("${item-match.window-days:7}")
+    private int windowDays;
+
+    @Value("${item-match.max-candidates:500}")
+    private int maxCandidates;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "item-match");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 事务提交后异步为新发布的失物信息匹配招领信息
+     */
+    public void matchLostItemAsync(Long lostItemId) {
+        TransactionUtils.afterCommit(() -> executor.execute(() -> {
+            try {
+                matchLostItem(lostItemId);
+            } catch (Exception e) {
+                log.error("失物匹配失败: lostItemId={}, error={}", lostItemId, e.getMessage(), e);
+            }
+        }));
+    }
+
+    /**
+     * 事务提交后异步为新发布的招领信息匹配失物信息
+     */
+    public void matchFoundItemAsync(Long foundItemId) {
+        TransactionUtils.afterCommit(() -> executor.execute(() -> {
+            try {
+                matchFoundItem(foundItemId);
+            } catch (Exception e) {
+                log.error("招领匹配失败: foundItemId={}, error={}", foundItemId, e.getMessage(), e);
+            }
+        }));
+    }
+
+    /**
+     * 为失物信息匹配招领信息
+     * 候选：同分类、待认领、拾取时间在 [丢失时间 - 误差, 丢失时间 + 窗口] 内
+     */
+    public void matchLostItem(Long lostItemId) {
+        LostItem lostItem = lostItemMapper.selectById(lostItemId);
+        if (lostItem == null || !Objects.equals(lostItem.getStatus(), ItemStatus.PENDING.getValue())
+                || lostItem.getCategoryId() == null) {
+            return;
+        }
+        LocalDateTime lostTime = eventTime(lostItem.getLostTime(), lostItem.getCreateTime());
+
+        LambdaQueryWrapper<FoundItem> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(FoundItem::getCategoryId, lostItem.getCategoryId())
+                .eq(FoundItem::getStatus, ItemStatus.PENDING.getValue())
+                .between(FoundItem::getFoundTime, lostTime.minus(TIME_SLACK), lostTime.plusDays(windowDays))
+                .ne(FoundItem::getUserId, lostItem.getUserId())
+                .orderByAsc(FoundItem::getFoundTime)
+                .last("LIMIT " + maxCandidates);
+        List<FoundItem> candidates = foundItemMapper.selectList(queryWrapper);
+
+        ItemProfile lostProfile = ItemProfile.of(lostItem.getTitle(), lostItem.getDescription(), lostItem.getLostPlace());
+        List<ItemMatch> matches = new ArrayList<>();
+        for (FoundItem candidate : candidates) {
+            LocalDateTime foundTime = eventTime(candidate.getFoundTime(), candidate.getCreateTime());
+            ItemProfile foundProfile = ItemProfile.of(candidate.getTitle(), candidate.getDescription(), candidate.getFoundPlace());
+            double score = score(lostTime, foundTime, lostProfile, foundProfile);
+            if (score >= minScore) {
+                matches.add(newMatch(lostItem.getId(), candidate.getId(), score));
+            }
+        }
+        List<ItemMatch> saved = saveTopMatches(matches, ItemMatch::getFoundItemId,
+                ids -> existingPairs(ItemMatch::getLostItemId, lostItem.getId(), ItemMatch::getFoundItemId, ids));
+
+        Map<Long, FoundItem> candidateMap = candidates.stream()
+                .collect(Collectors.toMap(FoundItem::getId, Function.identity()));
+        for (ItemMatch match : saved) {
+            FoundItem foundItem = candidateMap.get(match.getFoundItemId());
+            notificationService.sendMatchNotification(foundItem.getUserId(), foundItem.getTitle(),
+                    lostItem.getTitle(), false, lostItem.getId());
+        }
+        log.info("失物匹配完成: lostItemId={}, 候选{}个, 匹配{}个, 新增{}个",
+                lostItemId, candidates.size(), matches.size(), saved.size());
+    }
+
+    /**
+     * 为招领信息匹配失物信息
+     * 候选：同分类、待认领、丢失时间在 [拾取时间 - 窗口, 拾取时间 + 误差] 内
+     */
+    public void matchFoundItem(Long foundItemId) {
+        FoundItem foundItem = foundItemMapper.selectById(foundItemId);
+        if (foundItem == null || !Objects.equals(foundItem.getStatus(), ItemStatus.PENDING.getValue())
+                || foundItem.getCategoryId() == null) {
+            return;
+        }
+        LocalDateTime foundTime = eventTime(foundItem.getFoundTime(), foundItem.getCreateTime());
+
+        LambdaQueryWrapper<LostItem> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(LostItem::getCategoryId, foundItem.getCategoryId())
+                .eq(LostItem::getStatus, ItemStatus.PENDING.getValue())
+                .between(LostItem::getLostTime, foundTime.minusDays(windowDays), foundTime.plus(TIME_SLACK))
+                .ne(LostItem::getUserId, foundItem.getUserId())
+                .orderByDesc(LostItem::getLostTime)
+                .last("LIMIT " + maxCandidates);
+        List<LostItem> candidates = lostItemMapper.selectList(queryWrapper);
+
+        ItemProfile foundProfile = ItemProfile.of(foundItem.getTitle(), foundItem.getDescription(), foundItem.getFoundPlace());
+        List<ItemMatch> matches = new ArrayList<>();
+        for (LostItem candidate : candidates) {
+            LocalDateTime lostTime = eventTime(candidate.getLostTime(), candidate.getCreateTime());
+            ItemProfile lostProfile = ItemProfile.of(candidate.getTitle(), candidate.getDescription(), candidate.getLostPlace());
+            double score = score(lostTime, foundTime, lostProfile, foundProfile);
+            if (score >= minScore) {
+                matches.add(newMatch(candidate.getId(), foundItem.getId(), score));
+            }
+        }
+        List<ItemMatch> saved = saveTopMatches(matches, ItemMatch::getLostItemId,
+                ids -> existingPairs(ItemMatch::getFoundItemId, foundItem.getId(), ItemMatch::getLostItemId, ids));
+
+        Map<Long, LostItem> candidateMap = candidates.stream()
+                .collect(Collectors.toMap(LostItem::getId, Function.identity()));
+        for (ItemMatch match : saved) {
+            LostItem lostItem = candidateMap.get(match.getLostItemId());
+            notificationService.sendMatchNotification(lostItem.getUserId(), lostItem.getTitle(),
+                    foundItem.getTitle(), true, foundItem.getId());
+        }
+        log.info("招领匹配完成: foundItemId={}, 候选{}个, 匹配{}个, 新增{}个",
+                foundItemId, candidates.size(), matches.size(), saved.size());
+    }
+
+    /**
+     * 查询物品的匹配结果
+     * @param itemType 物品类型（0招领信息，1失物信息）
+     * @param itemId 物品ID
+     * @return 按得分降序的匹配列表
+     */
+    public List<ItemMatch> listMatches(Integer itemType, Long itemId) {
+        if (itemType == null || itemId == null) {
+            throw new ServiceException("物品类型和物品ID不能为空");
+        }
+        LambdaQueryWrapper<ItemMatch> queryWrapper = new LambdaQueryWrapper<>();
+        if (itemType == 0) {
+            queryWrapper.eq(ItemMatch::getFoundItemId, itemId);
+        } else if (itemType == 1) {
+            queryWrapper.eq(ItemMatch::getLostItemId, itemId);
+        } else {
+            throw new ServiceException("无效的物品类型");
+        }
+        queryWrapper.orderByDesc(ItemMatch::getScore);
+        List<ItemMatch> matches = itemMatchMapper.selectList(queryWrapper);
+        if (matches.isEmpty()) {
+            return matches;
+        }
+
+        Set<Long> lostIds = matches.stream().map(ItemMatch::getLostItemId).collect(Collectors.toSet());
+        Set<Long> foundIds = matches.stream().map(ItemMatch::getFoundItemId).collect(Collectors.toSet());
+        Map<Long, LostItem> lostItems = lostItemMapper.selectBatchIds(lostIds).stream()
+                .collect(Collectors.toMap(LostItem::getId, Function.identity()));
+        Map<Long, FoundItem> foundItems = foundItemMapper.selectBatchIds(foundIds).stream()
+                .collect(Collectors.toMap(FoundItem::getId, Function.identity()));
+
+        // 已删除的物品不再展示
+        List<ItemMatch> result = new ArrayList<>();
+        for (ItemMatch match : matches) {
+            LostItem lostItem = lostItems.get(match.getLostItemId());
+            FoundItem foundItem = foundItems.get(match.getFoundItemId());
+            if (lostItem == null || foundItem == null) {
+                continue;
+            }
+            match.setLostItemTitle(lostItem.getTitle());
+            match.setFoundItemTitle(foundItem.getTitle());
+            result.add(match);
+        }
+        return result;
+    }
+
+    /**
+     * 保存得分最高的前N个匹配
+     * @return 新增（此前不存在）的匹配，用于发送通知
+     */
+    private List<ItemMatch> saveTopMatches(List<ItemMatch> matches, Function<ItemMatch, Long> counterpartId,
+                                           Function<List<Long>, Set<Long>> existingLoader) {
+        if (matches.isEmpty()) {
+            return matches;
+        }
+        matches.sort(Comparator.comparingDouble(ItemMatch::getScore).reversed());
+        List<ItemMatch> top = new ArrayList<>(matches.subList(0, Math.min(topN, matches.size())));
+
+        Set<Long> existing = existingLoader.apply(top.stream().map(counterpartId).toList());
+        itemMatchMapper.upsertBatch(top);
+
+        List<ItemMatch> created = new ArrayList<>();
+        for (ItemMatch match : top) {
+            if (!existing.contains(counterpartId.apply(match))) {
+                created.add(match);
+            }
+        }
+        return created;
+    }
+
+    private Set<Long> existingPairs(SFunction<ItemMatch, Long> ownColumn, Long ownId,
+                                    SFunction<ItemMatch, Long> counterpartColumn, List<Long> counterpartIds) {
+        LambdaQueryWrapper<ItemMatch> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(ownColumn, ownId).in(counterpartColumn, counterpartIds);
+        Set<Long> existing = new HashSet<>();
+        for (ItemMatch match : itemMatchMapper.selectList(queryWrapper)) {
+            existing.add(counterpartColumn.apply(match));
+        }
+        return existing;
+    }
+
+    /**
+     * 综合得分 = 时间接近度、地点相似度、文本相似度的加权和
+     */
+    private static double score(LocalDateTime lostTime, LocalDateTime foundTime,
+                                ItemProfile lost, ItemProfile found) {
+        double gapHours = Math.abs(Duration.between(lostTime, foundTime).toMinutes()) / 60.0;
+        double timeScore = Math.exp(-gapHours / TIME_DECAY_HOURS);
+
+        double placeScore = overlap(lost.placeTokens, found.placeTokens);
+        double textScore = 0.6 * cosine(lost.titleTokens, found.titleTokens)
+                + 0.4 * cosine(lost.textTokens, found.textTokens);
+
+        return TIME_WEIGHT * timeScore + PLACE_WEIGHT * placeScore + TEXT_WEIGHT * textScore;
+    }
+
+    /**
+     * 重叠系数，地点描述长短差异大（如“图书馆” vs “图书馆三楼自习室”）时比Jaccard更合适
+     */
+    private static double overlap(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        return (double) intersection(a, b) / Math.min(a.size(), b.size());
+    }
+
+    private static double cosine(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        return intersection(a, b) / Math.sqrt((double) a.size() * b.size());
+    }
+
+    private static int intersection(Set<String> a, Set<String> b) {
+        Set<String> smaller = a.size() <= b.size() ? a : b;
+        Set<String> larger = smaller == a ? b : a;
+        int count = 0;
+        for (String token : smaller) {
+            if (larger.contains(token)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static LocalDateTime eventTime(LocalDateTime time, LocalDateTime createTime) {
+        if (time != null) {
+            return time;
+        }
+        return createTime != null ? createTime : LocalDateTime.now();
+    }
+
+    private static ItemMatch newMatch(Long lostItemId, Long foundItemId, double score) {
+        ItemMatch match = new ItemMatch();
+        match.setLostItemId(lostItemId);
+        match.setFoundItemId(foundItemId);
+        match.setScore(Math.round(score * 10000) / 10000.0);
+        return match;
+    }
+
+    /**
+     * 物品的分词结果
+     */
+    private static final class ItemProfile {
+        private final Set<String> titleTokens;
+        private final Set<String> textTokens;
+        private final Set<String> placeTokens;
+
+        private ItemProfile(Set<String> titleTokens, Set<String> textTokens, Set<String> placeTokens) {
+            this.titleTokens = titleTokens;
+            this.textTokens = textTokens;
+            this.placeTokens = placeTokens;
+        }
+
+        private static ItemProfile of(String title, String description, String place) {
+            Set<String> titleTokens = TextTokenizer.uniqueTokens(title);
+            Set<String> textTokens = new HashSet<>(titleTokens);
+            textTokens.addAll(TextTokenizer.uniqueTokens(description));
+            return new ItemProfile(titleTokens, textTokens, TextTokenizer.uniqueTokens(place));
+        }
+    }
+}
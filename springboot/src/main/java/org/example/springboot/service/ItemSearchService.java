@@ -0,0 +1,538 @@
+package org.example.springboot.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import jakarta.annotation.Resource;
+import org.example.springboot.entity.FoundItem;
+import org.example.springboot.entity.LostItem;
+import org.example.springboot.mapper.FoundItemMapper;
+import org.example.springboot.mapper.LostItemMapper;
+import org.example.springboot.util.SearchIndex;
+import org.example.springboot.util.TransactionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 物品全文检索服务
+ * 为失物、招领信息分别维护内存倒排索引，覆盖标题、描述和地点，
+ * 启动时全量构建，本节点的发布、修改、删除和状态变更在提交后增量更新；
+ * 其他节点的变更由定时追赶按 update_time 拉取，删除通过比对记录数发现
+ */
+@Service
+public class ItemSearchService {
+    private static final Logger log = LoggerFactory.getLogger(ItemSearchService.class);
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private static final double TITLE_WEIGHT = 3.0;
+    private static final double PLACE_WEIGHT = 2.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+
+    @Resource
+    private LostItemMapper lostItemMapper;
+
+    @Resource
+    private FoundItemMapper foundItemMapper;
+
+    @Resource
+    private AssociationHydrator associationHydrator;
+
+    /**
+     * 追赶时向前回看的时间：update_time 在事务中写入、提交时才可见，
+     * 执行超过该时长的事务所做修改可能被跳过，由夜间全量重建兜底
+     */
+    @Value("${search.index.catch-up-lag:60s}")
+    private Duration catchUpLag;
+
+    private volatile SearchIndex lostIndex = new SearchIndex();
+    private volatile SearchIndex foundIndex = new SearchIndex();
+
+    /**
+     * 重建期间收到变更的物品ID：重建按批读取，某批读出之后的修改或删除会被旧数据覆盖，
+     * 新索引切换后按数据库最新数据重放这些ID。非重建期间为 null
+     */
+    private volatile Set<Long> pendingLostIds;
+    private volatile Set<Long> pendingFoundIds;
+
+    /**
+     * 索引是否已完成首次构建，构建完成前检索回退到数据库模糊查询
+     */
+    private volatile boolean ready = false;
+
+    /**
+     * 已追赶到的最大 update_time（数据库时间），由 rebuildAll / catchUp 在同一把锁下维护
+     */
+    private LocalDateTime lostWatermark;
+    private LocalDateTime foundWatermark;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread thread = new Thread(this::rebuildAll, "item-search-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 全量重建索引
+     */
+    public synchronized void rebuildAll() {
+        long start = System.currentTimeMillis();
+        try {
+            // 水位取自重建开始前，重建期间的修改由下一次追赶重新拉取
+            lostWatermark = latestLostUpdateTime();
+            foundWatermark = latestFoundUpdateTime();
+
+            pendingLostIds = ConcurrentHashMap.newKeySet();
+            SearchIndex rebuiltLost = new SearchIndex();
+            Long lastId = 0L;
+            while (true) {
+                LambdaQueryWrapper<LostItem> queryWrapper = new LambdaQueryWrapper<>();
+                queryWrapper.gt(LostItem::getId, lastId)
+                        .orderByAsc(LostItem::getId)
+                        .last("LIMIT " + REBUILD_BATCH_SIZE);
+                List<LostItem> batch = lostItemMapper.selectList(queryWrapper);
+                for (LostItem item : batch) {
+                    upsert(rebuiltLost, item);
+                }
+                if (batch.size() < REBUILD_BATCH_SIZE) {
+                    break;
+                }
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+            // 先切换再停止记录：回调先登记ID再读取当前索引，写入旧索引的变更一定已登记
+            lostIndex = rebuiltLost;
+            Set<Long> lostChanges = pendingLostIds;
+            pendingLostIds = null;
+            replayLost(lostChanges);
+
+            pendingFoundIds = ConcurrentHashMap.newKeySet();
+            SearchIndex rebuiltFound = new SearchIndex();
+            lastId = 0L;
+            while (true) {
+                LambdaQueryWrapper<FoundItem> queryWrapper = new LambdaQueryWrapper<>();
+                queryWrapper.gt(FoundItem::getId, lastId)
+                        .orderByAsc(FoundItem::getId)
+                        .last("LIMIT " + REBUILD_BATCH_SIZE);
+                List<FoundItem> batch = foundItemMapper.selectList(queryWrapper);
+                for (FoundItem item : batch) {
+                    upsert(rebuiltFound, item);
+                }
+                if (batch.size() < REBUILD_BATCH_SIZE) {
+                    break;
+                }
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+            foundIndex = rebuiltFound;
+            Set<Long> foundChanges = pendingFoundIds;
+            pendingFoundIds = null;
+            replayFound(foundChanges);
+
+            ready = true;
+            log.info("物品检索索引构建完成: 失物{}条, 招领{}条, 重放变更{}条, 耗时{}ms",
+                    lostIndex.size(), foundIndex.size(), lostChanges.size() + foundChanges.size(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("物品检索索引构建失败: {}", e.getMessage(), e);
+        } finally {
+            pendingLostIds = null;
+            pendingFoundIds = null;
+        }
+    }
+
+    /**
+     * 增量追赶：拉取水位之后（含回看窗口）修改过的记录写入索引，
+     * 索引条数与表记录数不一致时比对ID，移除已删除的记录、补上遗漏的记录。
+     * 用于同步其他节点的变更，首次构建完成前跳过
+     */
+    public synchronized void catchUp() {
+        if (!ready) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int lostChanged = catchUpLost();
+        int foundChanged = catchUpFound();
+        if (lostChanged + foundChanged > 0) {
+            log.debug("物品检索索引追赶完成: 失物{}条, 招领{}条, 耗时{}ms",
+                    lostChanged, foundChanged, System.currentTimeMillis() - start);
+        }
+    }
+
+    private int catchUpLost() {
+        LocalDateTime since = lostWatermark == null ? null : lostWatermark.minus(catchUpLag);
+        LocalDateTime latest = lostWatermark;
+        int changed = 0;
+        Long lastId = 0L;
+        while (true) {
+            LambdaQueryWrapper<LostItem> queryWrapper = new LambdaQueryWrapper<>();
+            queryWrapper.ge(since != null, LostItem::getUpdateTime, since)
+                    .gt(LostItem::getId, lastId)
+                    .orderByAsc(LostItem::getId)
+                    .last("LIMIT " + REBUILD_BATCH_SIZE);
+            List<LostItem> batch = lostItemMapper.selectList(queryWrapper);
+            SearchIndex index = lostIndex;
+            for (LostItem item : batch) {
+                upsert(index, item);
+                if (item.getUpdateTime() != null && (latest == null || item.getUpdateTime().isAfter(latest))) {
+                    latest = item.getUpdateTime();
+                }
+            }
+            changed += batch.size();
+            if (batch.size() < REBUILD_BATCH_SIZE) {
+                break;
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+        lostWatermark = latest;
+
+        if (lostIndex.size() != lostItemMapper.selectCount(null)) {
+            // 先取索引快照再读数据库：快照中存在而数据库中没有的记录一定已被删除
+            Set<Long> indexed = lostIndex.ids();
+            Set<Long> existing = new HashSet<>();
+            lastId = 0L;
+            while (true) {
+                LambdaQueryWrapper<LostItem> queryWrapper = new LambdaQueryWrapper<>();
+                queryWrapper.select(LostItem::getId)
+                        .gt(LostItem::getId, lastId)
+                        .orderByAsc(LostItem::getId)
+                        .last("LIMIT " + REBUILD_BATCH_SIZE);
+                List<LostItem> batch = lostItemMapper.selectList(queryWrapper);
+                for (LostItem item : batch) {
+                    existing.add(item.getId());
+                }
+                if (batch.size() < REBUILD_BATCH_SIZE) {
+                    break;
+                }
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+            Set<Long> diff = new HashSet<>(indexed);
+            diff.removeAll(existing);
+            existing.removeAll(indexed);
+            diff.addAll(existing);
+            replayLost(diff);
+            changed += diff.size();
+        }
+        return changed;
+    }
+
+    private int catchUpFound() {
+        LocalDateTime since = foundWatermark == null ? null : foundWatermark.minus(catchUpLag);
+        LocalDateTime latest = foundWatermark;
+        int changed = 0;
+        Long lastId = 0L;
+        while (true) {
+            LambdaQueryWrapper<FoundItem> queryWrapper = new LambdaQueryWrapper<>();
+            queryWrapper.ge(since != null, FoundItem::getUpdateTime, since)
+                    .gt(FoundItem::getId, lastId)
+                    .orderByAsc(FoundItem::getId)
+                    .last("LIMIT " + REBUILD_BATCH_SIZE);
+            List<FoundItem> batch = foundItemMapper.selectList(queryWrapper);
+            SearchIndex index = foundIndex;
+            for (FoundItem item : batch) {
+                upsert(index, item);
+                if (item.getUpdateTime() != null && (latest == null || item.getUpdateTime().isAfter(latest))) {
+                    latest = item.getUpdateTime();
+                }
+            }
+            changed += batch.size();
+            if (batch.size() < REBUILD_BATCH_SIZE) {
+                break;
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+        foundWatermark = latest;
+
+        if (foundIndex.size() != foundItemMapper.selectCount(null)) {
+            Set<Long> indexed = foundIndex.ids();
+            Set<Long> existing = new HashSet<>();
+            lastId = 0L;
+            while (true) {
+                LambdaQueryWrapper<FoundItem> queryWrapper = new LambdaQueryWrapper<>();
+                queryWrapper.select(FoundItem::getId)
+                        .gt(FoundItem::getId, lastId)
+                        .orderByAsc(FoundItem::getId)
+                        .last("LIMIT " + REBUILD_BATCH_SIZE);
+                List<FoundItem> batch = foundItemMapper.selectList(queryWrapper);
+                for (FoundItem item : batch) {
+                    existing.add(item.getId());
+                }
+                if (batch.size() < REBUILD_BATCH_SIZE) {
+                    break;
+                }
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+            Set<Long> diff = new HashSet<>(indexed);
+            diff.removeAll(existing);
+            existing.removeAll(indexed);
+            diff.addAll(existing);
+            replayFound(diff);
+            changed += diff.size();
+        }
+        return changed;
+    }
+
+    private LocalDateTime latestLostUpdateTime() {
+        LambdaQueryWrapper<LostItem> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.select(LostItem::getUpdateTime)
+                .orderByDesc(LostItem::getUpdateTime)
+                .last("LIMIT 1");
+        LostItem latest = lostItemMapper.selectOne(queryWrapper);
+        return latest == null ? null : latest.getUpdateTime();
+    }
+
+    private LocalDateTime latestFoundUpdateTime() {
+        LambdaQueryWrapper<FoundItem> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.select(FoundItem::getUpdateTime)
+                .orderByDesc(FoundItem::getUpdateTime)
+                .last("LIMIT 1");
+        FoundItem latest = foundItemMapper.selectOne(queryWrapper);
+        return latest == null ? null : latest.getUpdateTime();
+    }
+
+    /**
+     * 事务提交后按数据库最新数据刷新失物索引（记录不存在时移除）
+     */
+    public void refreshLostItem(Long id) {
+        if (id == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            try {
+                recordPending(pendingLostIds, List.of(id));
+                LostItem item = lostItemMapper.selectById(id);
+                applyLost(lostIndex, id, item);
+            } catch (Exception e) {
+                log.error("刷新失物索引失败: id={}, error={}", id, e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * 事务提交后按数据库最新数据刷新招领索引（记录不存在时移除）
+     */
+    public void refreshFoundItem(Long id) {
+        if (id == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            try {
+                recordPending(pendingFoundIds, List.of(id));
+                FoundItem item = foundItemMapper.selectById(id);
+                applyFound(foundIndex, id, item);
+            } catch (Exception e) {
+                log.error("刷新招领索引失败: id={}, error={}", id, e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * 事务提交后批量更新失物索引中的状态
+     */
+    public void updateLostStatus(List<Long> ids, Integer status) {
+        TransactionUtils.afterCommit(() -> {
+            recordPending(pendingLostIds, ids);
+            SearchIndex index = lostIndex;
+            for (Long id : ids) {
+                index.updateStatus(id, status);
+            }
+        });
+    }
+
+    /**
+     * 事务提交后批量更新招领索引中的状态
+     */
+    public void updateFoundStatus(List<Long> ids, Integer status) {
+        TransactionUtils.afterCommit(() -> {
+            recordPending(pendingFoundIds, ids);
+            SearchIndex index = foundIndex;
+            for (Long id : ids) {
+                index.updateStatus(id, status);
+            }
+        });
+    }
+
+    /**
+     * 重建期间登记变更的ID（必须在读取当前索引之前调用）
+     */
+    private static void recordPending(Set<Long> pending, List<Long> ids) {
+        if (pending != null) {
+            pending.addAll(ids);
+        }
+    }
+
+    private void replayLost(Set<Long> ids) {
+        for (List<Long> chunk : chunks(ids)) {
+            Map<Long, LostItem> rows = new HashMap<>();
+            for (LostItem item : lostItemMapper.selectBatchIds(chunk)) {
+                rows.put(item.getId(), item);
+            }
+            for (Long id : chunk) {
+                applyLost(lostIndex, id, rows.get(id));
+            }
+        }
+    }
+
+    private void replayFound(Set<Long> ids) {
+        for (List<Long> chunk : chunks(ids)) {
+            Map<Long, FoundItem> rows = new HashMap<>();
+            for (FoundItem item : foundItemMapper.selectBatchIds(chunk)) {
+                rows.put(item.getId(), item);
+            }
+            for (Long id : chunk) {
+                applyFound(foundIndex, id, rows.get(id));
+            }
+        }
+    }
+
+    private static List<List<Long>> chunks(Set<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += REBUILD_BATCH_SIZE) {
+            chunks.add(all.subList(i, Math.min(all.size(), i + REBUILD_BATCH_SIZE)));
+        }
+        return chunks;
+    }
+
+    private static void applyLost(SearchIndex index, Long id, LostItem item) {
+        if (item == null) {
+            index.remove(id);
+        } else {
+            upsert(index, item);
+        }
+    }
+
+    private static void applyFound(SearchIndex index, Long id, FoundItem item) {
+        if (item == null) {
+            index.remove(id);
+        } else {
+            upsert(index, item);
+        }
+    }
+
+    /**
+     * 检索失物信息
+     */
+    public Page<LostItem> searchLostItems(String keyword, Long categoryId, Integer status, int currentPage, int size) {
+        Page<LostItem> page = new Page<>(currentPage, size);
+        if (!ready) {
+            return fallbackSearchLost(page, keyword, categoryId, status);
+        }
+
+        SearchIndex.SearchResult result = lostIndex.search(keyword, categoryId, status,
+                (int) page.offset(), (int) page.getSize());
+        page.setTotal(result.getTotal());
+        if (!result.getIds().isEmpty()) {
+            Map<Long, LostItem> rows = new HashMap<>();
+            for (LostItem item : lostItemMapper.selectBatchIds(result.getIds())) {
+                rows.put(item.getId(), item);
+            }
+            List<LostItem> records = new ArrayList<>();
+            for (Long id : result.getIds()) {
+                LostItem item = rows.get(id);
+                if (item != null) {
+                    records.add(item);
+                }
+            }
+            associationHydrator.fillLostItems(records);
+            page.setRecords(records);
+        }
+        return page;
+    }
+
+    /**
+     * 检索招领信息
+     */
+    public Page<FoundItem> searchFoundItems(String keyword, Long categoryId, Integer status, int currentPage, int size) {
+        Page<FoundItem> page = new Page<>(currentPage, size);
+        if (!ready) {
+            return fallbackSearchFound(page, keyword, categoryId, status);
+        }
+
+        SearchIndex.SearchResult result = foundIndex.search(keyword, categoryId, status,
+                (int) page.offset(), (int) page.getSize());
+        page.setTotal(result.getTotal());
+        if (!result.getIds().isEmpty()) {
+            Map<Long, FoundItem> rows = new HashMap<>();
+            for (FoundItem item : foundItemMapper.selectBatchIds(result.getIds())) {
+                rows.put(item.getId(), item);
+            }
+            List<FoundItem> records = new ArrayList<>();
+            for (Long id : result.getIds()) {
+                FoundItem item = rows.get(id);
+                if (item != null) {
+                    records.add(item);
+                }
+            }
+            associationHydrator.fillFoundItems(records);
+            page.setRecords(records);
+        }
+        return page;
+    }
+
+    private Page<LostItem> fallbackSearchLost(Page<LostItem> page, String keyword, Long categoryId, Integer status) {
+        LambdaQueryWrapper<LostItem> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.like(LostItem::getTitle, keyword);
+        if (categoryId != null) {
+            queryWrapper.eq(LostItem::getCategoryId, categoryId);
+        }
+        if (status != null) {
+            queryWrapper.eq(LostItem::getStatus, status);
+        }
+        queryWrapper.orderByDesc(LostItem::getCreateTime);
+        lostItemMapper.selectPage(page, queryWrapper);
+        associationHydrator.fillLostItems(page.getRecords());
+        return page;
+    }
+
+    private Page<FoundItem> fallbackSearchFound(Page<FoundItem> page, String keyword, Long categoryId, Integer status) {
+        LambdaQueryWrapper<FoundItem> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.like(FoundItem::getTitle, keyword);
+        if (categoryId != null) {
+            queryWrapper.eq(FoundItem::getCategoryId, categoryId);
+        }
+        if (status != null) {
+            queryWrapper.eq(FoundItem::getStatus, status);
+        }
+        queryWrapper.orderByDesc(FoundItem::getCreateTime);
+        foundItemMapper.selectPage(page, queryWrapper);
+        associationHydrator.fillFoundItems(page.getRecords());
+        return page;
+    }
+
+    private static void upsert(SearchIndex index, LostItem item) {
+        List<SearchIndex.Field> fields = List.of(
+                new SearchIndex.Field(item.getTitle(), TITLE_WEIGHT),
+                new SearchIndex.Field(item.getLostPlace(), PLACE_WEIGHT),
+                new SearchIndex.Field(item.getDescription(), DESCRIPTION_WEIGHT));
+        index.upsert(item.getId(), fields, toMillis(item.getCreateTime()), item.getCategoryId(), item.getStatus());
+    }
+
+    private static void upsert(SearchIndex index, FoundItem item) {
+        List<SearchIndex.Field> fields = List.of(
+                new SearchIndex.Field(item.getTitle(), TITLE_WEIGHT),
+                new SearchIndex.Field(item.getFoundPlace(), PLACE_WEIGHT),
+                new SearchIndex.Field(item.getDescription(), DESCRIPTION_WEIGHT));
+        index.upsert(item.getId(), fields, toMillis(item.getCreateTime()), item.getCategoryId(), item.getStatus());
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        if (time == null) {
+            return System.currentTimeMillis();
+        }
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,182 @@
+package org.example.springboot.service;
+
+import jakarta.annotation.Resource;
+import org.example.springboot.entity.ItemStatusCounter;
+import org.example.springboot.mapper.ItemStatusCounterMapper;
+import org.example.springboot.util.TransactionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 物品状态计数服务
+ * 物品新增、删除和状态变更时在同一事务内调整 item_status_counter，
+ * 每次调整随机落到一个分槽以分散热点行；统计读取内存快照，事务提交后失效，
+ * 定时按 GROUP BY status 对账修正偏差
+ */
+@Service
+public class ItemStatusCounterService {
+    private static final Logger log = LoggerFactory.getLogger(ItemStatusCounterService.class);
+
+    private static final int SLOTS = 8;
+
+    @Resource
+    private ItemStatusCounterMapper counterMapper;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${item-status.counter.snapshot-ttl-ms:5000}")
+    private long snapshotTtlMs;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * 新增物品
+     */
+    public void created(int itemType, Integer status) {
+        adjust(itemType, status, 1);
+    }
+
+    /**
+     * 删除物品
+     */
+    public void deleted(int itemType, Integer status) {
+        adjust(itemType, status, -1);
+    }
+
+    /**
+     * 物品状态变更
+     * @param count 变更的物品数量
+     */
+    public void transition(int itemType, Integer fromStatus, Integer toStatus, int count) {
+        if (count <= 0 || fromStatus == null || toStatus == null || fromStatus.equals(toStatus)) {
+            return;
+        }
+        // 按状态值顺序更新计数行，避免并发事务交叉加锁
+        if (fromStatus < toStatus) {
+            adjust(itemType, fromStatus, -count);
+            adjust(itemType, toStatus, count);
+        } else {
+            adjust(itemType, toStatus, count);
+            adjust(itemType, fromStatus, -count);
+        }
+    }
+
+    /**
+     * 获取某类物品各状态的数量
+     * @param itemType 物品类型（0招领，1失物）
+     * @return 状态 -> 数量
+     */
+    public Map<Integer, Long> getCounts(int itemType) {
+        return currentSnapshot().counts().getOrDefault(itemType, Collections.emptyMap());
+    }
+
+    /**
+     * 对账：按物品表实际数据修正计数
+     * 先不加锁比对，只有存在偏差的物品类型才加锁复核后修正
+     * @return 修正的计数项数量
+     */
+    public int reconcile() {
+        int repaired = reconcile(ItemStatusCounter.ITEM_TYPE_LOST) + reconcile(ItemStatusCounter.ITEM_TYPE_FOUND);
+        if (repaired > 0) {
+            invalidate();
+        }
+        return repaired;
+    }
+
+    private int reconcile(int itemType) {
+        Map<Integer, Long> counted = toStatusMap(counterMapper.sumAll(), itemType);
+        if (diff(counted, countActual(itemType)).isEmpty()) {
+            return 0;
+        }
+
+        Integer repaired = transactionTemplate.execute(status -> {
+            // 先锁定计数行再统计，统计期间的并发调整会等待本事务提交后再叠加
+            Map<Integer, Long> locked = toStatusMap(counterMapper.lockByItemType(itemType), itemType);
+            Map<Integer, Long> actual = countActual(itemType);
+            Set<Integer> statuses = diff(locked, actual);
+            for (Integer itemStatus : statuses) {
+                long expected = actual.getOrDefault(itemStatus, 0L);
+                log.warn("修正物品状态计数: itemType={}, status={}, counter={}, actual={}",
+                        itemType, itemStatus, locked.getOrDefault(itemStatus, 0L), expected);
+                if (counterMapper.reset(itemType, itemStatus, expected) == 0) {
+                    counterMapper.adjust(itemType, itemStatus, 0, expected);
+                }
+            }
+            return statuses.size();
+        });
+        return repaired == null ? 0 : repaired;
+    }
+
+    private Map<Integer, Long> countActual(int itemType) {
+        List<ItemStatusCounter> rows = itemType == ItemStatusCounter.ITEM_TYPE_LOST
+                ? counterMapper.countLostByStatus()
+                : counterMapper.countFoundByStatus();
+        return toStatusMap(rows, itemType);
+    }
+
+    private static Set<Integer> diff(Map<Integer, Long> counted, Map<Integer, Long> actual) {
+        Set<Integer> statuses = new HashSet<>(counted.keySet());
+        statuses.addAll(actual.keySet());
+        statuses.removeIf(status -> Objects.equals(counted.getOrDefault(status, 0L), actual.getOrDefault(status, 0L)));
+        return statuses;
+    }
+
+    private static Map<Integer, Long> toStatusMap(List<ItemStatusCounter> rows, int itemType) {
+        Map<Integer, Long> counts = new HashMap<>();
+        for (ItemStatusCounter row : rows) {
+            if (row.getItemType() == itemType && row.getItemCount() != null) {
+                counts.merge(row.getStatus(), row.getItemCount(), Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    private void adjust(int itemType, Integer status, int delta) {
+        if (status == null || delta == 0) {
+            return;
+        }
+        counterMapper.adjust(itemType, status, ThreadLocalRandom.current().nextInt(SLOTS), delta);
+        TransactionUtils.afterCommit(this::invalidate);
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        long currentVersion = version.get();
+        if (current != null && current.version() == currentVersion
+                && System.currentTimeMillis() - current.loadedAt() < snapshotTtlMs) {
+            return current;
+        }
+
+        Map<Integer, Map<Integer, Long>> counts = new HashMap<>();
+        for (ItemStatusCounter row : counterMapper.sumAll()) {
+            counts.computeIfAbsent(row.getItemType(), key -> new HashMap<>())
+                    .put(row.getStatus(), row.getItemCount() == null ? 0L : row.getItemCount());
+        }
+        Snapshot loaded = new Snapshot(currentVersion, System.currentTimeMillis(), counts);
+        snapshot = loaded;
+        return loaded;
+    }
+
+    private void invalidate() {
+        version.incrementAndGet();
+    }
+
+    private record Snapshot(long version, long loadedAt, Map<Integer, Map<Integer, Long>> counts) {
+    }
+}
@@ -1,8 +1,8 @@
 package org.example.springboot.service;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import jakarta.annotation.Resource;
 import org.example.springboot.entity.FoundItem;
+import org.example.springboot.entity.ItemStatusCounter;
 import org.example.springboot.entity.LostItem;
 import org.example.springboot.entity.User;
 import org.example.springboot.enumClass.ItemStatus;
@@ -15,8 +15,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 物品状态管理服务
@@ -33,6 +33,15 @@ public class ItemStatusService {
     
     @Resource
     private NotificationService notificationService;
+
+    @Resource
+    private ItemSearchService itemSearchService;
+
+    @Resource
+    private ItemExpiryService itemExpiryService;
+
+    @Resource
+    private ItemStatusCounterService itemStatusCounterService;
     
     /**
      * 更新失物状态
@@ -58,8 +67,12 @@ public class ItemStatusService {
         // 更新状态
         Integer oldStatus = lostItem.getStatus();
         lostItem.setStatus(newStatus);
+        // 不回写读出的 update_time，由数据库刷新，检索索引追赶依赖它
+        lostItem.setUpdateTime(null);
 
         lostItemMapper.updateById(lostItem);
+        itemStatusCounterService.transition(ItemStatusCounter.ITEM_TYPE_LOST, oldStatus, newStatus, 1);
+        itemSearchService.updateLostStatus(List.of(itemId), newStatus);
         
         // 发送状态变更通知
         sendStatusChangeNotification(lostItem.getUserId(), lostItem.getTitle(), 
@@ -93,8 +106,12 @@ public class ItemStatusService {
         // 更新状态
         Integer oldStatus = foundItem.getStatus();
         foundItem.setStatus(newStatus);
+        // 不回写读出的 update_time，由数据库刷新，检索索引追赶依赖它
+        foundItem.setUpdateTime(null);
 
         foundItemMapper.updateById(foundItem);
+        itemStatusCounterService.transition(ItemStatusCounter.ITEM_TYPE_FOUND, oldStatus, newStatus, 1);
+        itemSearchService.updateFoundStatus(List.of(itemId), newStatus);
         
         // 发送状态变更通知
         sendStatusChangeNotification(foundItem.getUserId(), foundItem.getTitle(), 
@@ -105,64 +122,24 @@ public class ItemStatusService {
     }
     
     /**
-     * 批量处理过期物品
+     * 批量处理过期物品（分批执行，支持断点续跑）
      */
-    @Transactional(rollbackFor = Exception.class)
     public void processExpiredItems(int expireDays) {
-        LocalDateTime expireTime = LocalDateTime.now().minusDays(expireDays);
-        
-        // 处理过期失物
-        LambdaQueryWrapper<LostItem> lostQueryWrapper = new LambdaQueryWrapper<>();
-        lostQueryWrapper.eq(LostItem::getStatus, ItemStatus.PENDING.getValue())
-                       .lt(LostItem::getCreateTime, expireTime);
-        
-        List<LostItem> expiredLostItems = lostItemMapper.selectList(lostQueryWrapper);
-        for (LostItem item : expiredLostItems) {
-            item.setStatus(ItemStatus.EXPIRED.getValue());
-            lostItemMapper.updateById(item);
-            
-            // 发送过期通知
-            sendStatusChangeNotification(item.getUserId(), item.getTitle(), 
-                                       ItemStatus.PENDING.getDescription(), 
-                                       ItemStatus.EXPIRED.getDescription(), item.getId());
-        }
-        
-        // 处理过期招领
-        LambdaQueryWrapper<FoundItem> foundQueryWrapper = new LambdaQueryWrapper<>();
-        foundQueryWrapper.eq(FoundItem::getStatus, ItemStatus.PENDING.getValue())
-                        .lt(FoundItem::getCreateTime, expireTime);
-        
-        List<FoundItem> expiredFoundItems = foundItemMapper.selectList(foundQueryWrapper);
-        for (FoundItem item : expiredFoundItems) {
-            item.setStatus(ItemStatus.EXPIRED.getValue());
-            foundItemMapper.updateById(item);
-            
-            // 发送过期通知
-            sendStatusChangeNotification(item.getUserId(), item.getTitle(), 
-                                       ItemStatus.PENDING.getDescription(), 
-                                       ItemStatus.EXPIRED.getDescription(), item.getId());
-        }
-        
-        log.info("处理过期物品完成: 失物{}个, 招领{}个", expiredLostItems.size(), expiredFoundItems.size());
+        itemExpiryService.processExpiredItems(expireDays);
     }
     
     /**
-     * 获取物品状态统计
+     * 获取物品状态统计（读取状态计数快照）
      */
     public ItemStatusStatistics getStatusStatistics() {
         ItemStatusStatistics statistics = new ItemStatusStatistics();
+        Map<Integer, Long> lostCounts = itemStatusCounterService.getCounts(ItemStatusCounter.ITEM_TYPE_LOST);
+        Map<Integer, Long> foundCounts = itemStatusCounterService.getCounts(ItemStatusCounter.ITEM_TYPE_FOUND);
         
-        // 统计失物状态
         for (ItemStatus status : ItemStatus.values()) {
-            LambdaQueryWrapper<LostItem> lostWrapper = new LambdaQueryWrapper<>();
-            lostWrapper.eq(LostItem::getStatus, status.getValue());
-            long lostCount = lostItemMapper.selectCount(lostWrapper);
-            
-            LambdaQueryWrapper<FoundItem> foundWrapper = new LambdaQueryWrapper<>();
-            foundWrapper.eq(FoundItem::getStatus, status.getValue());
-            long foundCount = foundItemMapper.selectCount(foundWrapper);
-            
-            statistics.addStatusCount(status, lostCount, foundCount);
+            statistics.addStatusCount(status,
+                    lostCounts.getOrDefault(status.getValue(), 0L),
+                    foundCounts.getOrDefault(status.getValue(), 0L));
         }
         
         return statistics;
@@ -5,26 +5,32 @@ import com.baomidou.mybatisplus.core.toolkit.StringUtils;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import jakarta.annotation.Resource;
+import org.example.springboot.common.CursorPage;
 import org.example.springboot.entity.ClaimApplication;
-import org.example.springboot.entity.ItemCategory;
+import org.example.springboot.entity.ItemStatusCounter;
 import org.example.springboot.entity.LostItem;
 import org.example.springboot.entity.User;
 import org.example.springboot.exception.ServiceException;
 import org.example.springboot.mapper.ClaimApplicationMapper;
-import org.example.springboot.mapper.ItemCategoryMapper;
 import org.example.springboot.mapper.LostItemMapper;
-import org.example.springboot.mapper.UserMapper;
 import org.example.springboot.util.JwtTokenUtils;
+import org.example.springboot.util.KeysetCursor;
 import org.example.springboot.util.ValidationUtils;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @Service
 public class LostItemService extends ServiceImpl<LostItemMapper, LostItem> {
+    /**
+     * 游标分页单页最大条数
+     */
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     @Resource
     private LostItemMapper lostItemMapper;
     
@@ -33,10 +39,9 @@ public class LostItemService extends ServiceImpl<LostItemMapper, LostItem> {
     
     @Resource
     private UserService userService;
-    @Autowired
-    private ItemCategoryMapper itemCategoryMapper;
-    @Autowired
-    private UserMapper userMapper;
+
+    @Resource
+    private AssociationHydrator associationHydrator;
 
     @Resource
     private ClaimApplicationMapper claimApplicationMapper;
@@ -44,6 +49,21 @@ public class LostItemService extends ServiceImpl<LostItemMapper, LostItem> {
     @Resource
     private ItemStatusService itemStatusService;
 
+    @Resource
+    private ItemSearchService itemSearchService;
+
+    @Resource
+    private ItemStatusCounterService itemStatusCounterService;
+
+    @Resource
+    private ItemAnalyticsService itemAnalyticsService;
+
+    @Resource
+    private ItemMatchService itemMatchService;
+
+    @Resource
+    private FileBlobService fileBlobService;
+
     /**
      * 添加失物信息
      */
@@ -73,6 +93,11 @@ public class LostItemService extends ServiceImpl<LostItemMapper, LostItem> {
         if (lostItemMapper.insert(lostItem) <= 0) {
             throw new ServiceException("添加失物信息失败");
         }
+        itemStatusCounterService.created(ItemStatusCounter.ITEM_TYPE_LOST, lostItem.getStatus());
+        fileBlobService.retain(lostItem.getImages());
+        itemAnalyticsService.recordPost(ItemStatusCounter.ITEM_TYPE_LOST, lostItem.getCategoryId());
+        itemSearchService.refreshLostItem(lostItem.getId());
+        itemMatchService.matchLostItemAsync(lostItem.getId());
     }
 
     /**
@@ -107,6 +132,7 @@ public class LostItemService extends ServiceImpl<LostItemMapper, LostItem> {
     /**
      * 更新失物信息
      */
+    @Transactional(rollbackFor = Exception.class)
     public void updateLostItem(Long id, LostItem lostItem) {
         // 检查失物信息是否存在
         LostItem existItem = getLostItemById(id);
@@ -122,10 +148,16 @@ public class LostItemService extends ServiceImpl<LostItemMapper, LostItem> {
         // 设置ID，保留创建时间和用户ID
         lostItem.setId(id);
         lostItem.setUserId(existItem.getUserId());
+        // 不回写 update_time，由数据库刷新，检索索引追赶依赖它
+        lostItem.setUpdateTime(null);
         
         if (lostItemMapper.updateById(lostItem) <= 0) {
             throw new ServiceException("更新失物信息失败");
         }
+        itemStatusCounterService.transition(ItemStatusCounter.ITEM_TYPE_LOST, existItem.getStatus(), lostItem.getStatus(), 1);
+        replaceImages(existItem, lostItem);
+        syncClaimItemTitle(existItem, lostItem);
+        itemSearchService.refreshLostItem(id);
     }
     
     /**
@@ -160,6 +192,9 @@ public class LostItemService extends ServiceImpl<LostItemMapper, LostItem> {
         if (lostItemMapper.deleteById(id) <= 0) {
             throw new ServiceException("删除失物信息失败");
         }
+        itemStatusCounterService.deleted(ItemStatusCounter.ITEM_TYPE_LOST, existItem.getStatus());
+        fileBlobService.release(existItem.getImages());
+        itemSearchService.refreshLostItem(id);
     }
 
     /**
@@ -241,9 +276,7 @@ public class LostItemService extends ServiceImpl<LostItemMapper, LostItem> {
         Page<LostItem> page = lostItemMapper.selectPage(new Page<>(currentPage, size), queryWrapper);
         
         // 填充关联信息
-        for (LostItem item : page.getRecords()) {
-            fillInfo(item);
-        }
+        fillInfoBatch(page.getRecords());
         
         return page;
     }
@@ -265,9 +298,7 @@ public class LostItemService extends ServiceImpl<LostItemMapper, LostItem> {
         Page<LostItem> page = lostItemMapper.selectPage(new Page<>(currentPage, size), queryWrapper);
         
         // 填充关联信息
-        for (LostItem item : page.getRecords()) {
-            fillInfo(item);
-        }
+        fillInfoBatch(page.getRecords());
         
         return page;
     }
@@ -352,6 +383,57 @@ public class LostItemService extends ServiceImpl<LostItemMapper, LostItem> {
         return page;
     }
 
+    /**
+     * 游标分页查询失物信息，按 (create_time DESC, id DESC) 排序，不统计总数
+     * @param cursor 上一页返回的游标，第一页为空
+     * @param size 每页大小
+     * @param title 标题(可选)
+     * @param categoryId 分类ID(可选)
+     * @param status 状态(可选)
+     * @param userId 用户ID(可选)
+     * @return 游标分页结果
+     */
+    public CursorPage<LostItem> queryByCursor(String cursor, Integer size, String title, Long categoryId, Integer status, Long userId) {
+        int limit = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        LambdaQueryWrapper<LostItem> queryWrapper = new LambdaQueryWrapper<>();
+        if (StringUtils.isNotBlank(title)) {
+            queryWrapper.like(LostItem::getTitle, title);
+        }
+        if (categoryId != null) {
+            queryWrapper.eq(LostItem::getCategoryId, categoryId);
+        }
+        if (status != null) {
+            queryWrapper.eq(LostItem::getStatus, status);
+        }
+        if (userId != null) {
+            queryWrapper.eq(LostItem::getUserId, userId);
+        }
+        if (after != null) {
+            queryWrapper.and(w -> w.lt(LostItem::getCreateTime, after.getCreateTime())
+                    .or(o -> o.eq(LostItem::getCreateTime, after.getCreateTime()).lt(LostItem::getId, after.getId())));
+        }
+        // 多取一条用于判断是否还有下一页
+        queryWrapper.orderByDesc(LostItem::getCreateTime)
+                .orderByDesc(LostItem::getId)
+                .last("LIMIT " + (limit + 1));
+
+        List<LostItem> records = lostItemMapper.selectList(queryWrapper);
+        boolean hasMore = records.size() > limit;
+        if (hasMore) {
+            records = new ArrayList<>(records.subList(0, limit));
+        }
+        fillInfoBatch(records);
+
+        String nextCursor = null;
+        if (hasMore) {
+            LostItem last = records.get(records.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreateTime(), last.getId()).encode();
+        }
+        return new CursorPage<>(records, nextCursor, hasMore);
+    }
+
     /**
      * 根据ID查询失物信息并填充关联信息
      * @param id 失物ID
@@ -370,43 +452,91 @@ public class LostItemService extends ServiceImpl<LostItemMapper, LostItem> {
      * @param lostItem 失物信息
      */
     private void fillInfo(LostItem lostItem) {
-        // 填充分类名称
-        if (lostItem.getCategoryId() != null) {
-            ItemCategory category = itemCategoryMapper.selectById(lostItem.getCategoryId());
-            if (category != null) {
-                lostItem.setCategoryName(category.getName());
-            }
-        }
-        
-        // 填充用户名
-        if (lostItem.getUserId() != null) {
-            User user = userMapper.selectById(lostItem.getUserId());
-            if (user != null) {
-                lostItem.setUsername(user.getUsername());
-            }
-        }
+        associationHydrator.fillLostItems(Collections.singletonList(lostItem));
     }
     
     /**
      * 批量填充失物关联信息
      * @param lostItems 失物信息列表
      */
-    private void fillInfoBatch(java.util.List<LostItem> lostItems) {
-        if (lostItems != null && !lostItems.isEmpty()) {
-            for (LostItem item : lostItems) {
-                fillInfo(item);
-            }
-        }
+    private void fillInfoBatch(List<LostItem> lostItems) {
+        associationHydrator.fillLostItems(lostItems);
     }
     
     /**
-     * 统计指定状态的失物数量
+     * 按ID直接更新失物信息（不做业务校验），同步维护状态计数和检索索引
+     * @param existItem 更新前的记录
+     * @param changes 要更新的字段，ID取自 existItem
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void updateItem(LostItem existItem, LostItem changes) {
+        changes.setId(existItem.getId());
+        // 不回写 update_time，由数据库刷新，检索索引追赶依赖它
+        changes.setUpdateTime(null);
+        if (lostItemMapper.updateById(changes) > 0) {
+            itemStatusCounterService.transition(ItemStatusCounter.ITEM_TYPE_LOST, existItem.getStatus(), changes.getStatus(), 1);
+            replaceImages(existItem, changes);
+            syncClaimItemTitle(existItem, changes);
+        }
+        itemSearchService.refreshLostItem(existItem.getId());
+    }
+
+    /**
+     * 图片变更时调整上传文件的引用计数（未传 images 表示不修改图片）
+     */
+    private void replaceImages(LostItem existItem, LostItem changes) {
+        if (changes.getImages() != null) {
+            fileBlobService.replace(existItem.getImages(), changes.getImages());
+        }
+    }
+
+    /**
+     * 标题变更时同步认领申请上冗余的物品标题
+     */
+    private void syncClaimItemTitle(LostItem existItem, LostItem changes) {
+        if (changes.getTitle() != null && !changes.getTitle().equals(existItem.getTitle())) {
+            claimApplicationMapper.syncItemTitle(existItem.getId(), 1, changes.getTitle());
+        }
+    }
+
+    /**
+     * 按ID直接删除失物信息（不做业务校验），同步维护状态计数和检索索引
+     * @param existItem 待删除的记录
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void removeItem(LostItem existItem) {
+        if (lostItemMapper.deleteById(existItem.getId()) > 0) {
+            itemStatusCounterService.deleted(ItemStatusCounter.ITEM_TYPE_LOST, existItem.getStatus());
+            fileBlobService.release(existItem.getImages());
+        }
+        itemSearchService.refreshLostItem(existItem.getId());
+    }
+
+    /**
+     * 检索失物信息（标题、描述、丢失地点），按相关度和发布时间排序
+     */
+    public Page<LostItem> search(String keyword, Long categoryId, Integer status, Integer currentPage, Integer size) {
+        if (StringUtils.isBlank(keyword)) {
+            return getLostItemByPage(null, categoryId, status, currentPage, size);
+        }
+        return itemSearchService.searchLostItems(keyword.trim(), categoryId, status, currentPage, size);
+    }
+
+    /**
+     * 统计指定状态的失物数量（读取状态计数）
      * @param status 状态值
      * @return 数量
      */
     public long countByStatus(Integer status) {
-        LambdaQueryWrapper<LostItem> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(LostItem::getStatus, status);
-        return count(queryWrapper);
+        return itemStatusCounterService.getCounts(ItemStatusCounter.ITEM_TYPE_LOST).getOrDefault(status, 0L);
+    }
+
+    /**
+     * 统计失物总数（读取状态计数）
+     * @return 数量
+     */
+    public long countTotal() {
+        return itemStatusCounterService.getCounts(ItemStatusCounter.ITEM_TYPE_LOST).values().stream()
+                .mapToLong(Long::longValue).sum();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,156 @@
+package org.example.springboot.service;
+
+import jakarta.annotation.Resource;
+import org.example.springboot.entity.NotificationUnreadCounter;
+import org.example.springboot.mapper.NotificationUnreadCounterMapper;
+import org.example.springboot.util.TransactionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 未读通知计数服务
+ * 计数保存在 notification_unread_counter 表中，随通知的发送、已读、删除在同一事务内调整；
+ * 读取走内存缓存（按最近使用淘汰，写入后短时间过期），事务提交后失效本节点对应用户的缓存；
+ * 其他节点的变更依靠过期时间收敛，定时对账修正偏差
+ */
+@Service
+public class NotificationCounterService {
+    private static final Logger log = LoggerFactory.getLogger(NotificationCounterService.class);
+
+    @Resource
+    private NotificationUnreadCounterMapper counterMapper;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${notification.counter.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${notification.counter.cache-ttl:5s}")
+    private Duration cacheTtl;
+
+    /**
+     * 缓存的未读数量
+     */
+    private record CachedCount(long count, long expiresAt) {
+    }
+
+    private final Map<Long, CachedCount> cache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, CachedCount> eldest) {
+                    return size() > cacheSize;
+                }
+            });
+
+    /**
+     * 用户计数版本，每次失效递增；写入缓存前校验，防止并发读取的旧值覆盖失效
+     */
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    /**
+     * 获取用户未读数量
+     */
+    public long getUnreadCount(Long userId) {
+        CachedCount cached = cache.get(userId);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            return cached.count();
+        }
+
+        long version = versions.getOrDefault(userId, 0L);
+        NotificationUnreadCounter counter = counterMapper.selectById(userId);
+        long count = counter == null || counter.getUnreadCount() == null ? 0 : counter.getUnreadCount();
+
+        if (versions.getOrDefault(userId, 0L) == version) {
+            cache.put(userId, new CachedCount(count, System.currentTimeMillis() + cacheTtl.toMillis()));
+        }
+        return count;
+    }
+
+    /**
+     * 调整未读数量（在调用方事务内执行）
+     * @param userId 用户ID
+     * @param delta 变化量，新通知为正，已读或删除为负
+     */
+    public void adjust(Long userId, int delta) {
+        if (userId == null || delta == 0) {
+            return;
+        }
+        counterMapper.adjust(userId, delta);
+        invalidateAfterCommit(userId);
+    }
+
+    /**
+     * 对账：按通知表实际数据修正计数
+     * 先用一次分组统计找出可能有偏差的用户，再逐个加锁复核后修正，避免与并发调整互相覆盖
+     * @return 修正的用户数
+     */
+    public int reconcile() {
+        Map<Long, Integer> actual = new HashMap<>();
+        for (NotificationUnreadCounter row : counterMapper.countActualUnread()) {
+            actual.put(row.getUserId(), row.getUnreadCount());
+        }
+
+        Set<Long> suspects = new HashSet<>();
+        for (NotificationUnreadCounter counter : counterMapper.selectList(null)) {
+            Integer expected = actual.remove(counter.getUserId());
+            if (!Objects.equals(counter.getUnreadCount(), expected == null ? 0 : expected)) {
+                suspects.add(counter.getUserId());
+            }
+        }
+        // 有未读通知但没有计数记录的用户
+        suspects.addAll(actual.keySet());
+
+        int repaired = 0;
+        for (Long userId : suspects) {
+            if (repair(userId)) {
+                repaired++;
+            }
+        }
+        return repaired;
+    }
+
+    /**
+     * 加锁复核并修正单个用户的计数
+     * @return 是否确有偏差
+     */
+    private boolean repair(Long userId) {
+        Boolean repaired = transactionTemplate.execute(status -> {
+            Integer current = counterMapper.lockByUserId(userId);
+            int expected = counterMapper.countActualUnreadByUserId(userId);
+            if ((current == null ? 0 : current) == expected) {
+                return false;
+            }
+            log.warn("修正未读计数: userId={}, counter={}, actual={}", userId, current, expected);
+            counterMapper.set(userId, expected);
+            return true;
+        });
+        if (Boolean.TRUE.equals(repaired)) {
+            invalidate(userId);
+            return true;
+        }
+        return false;
+    }
+
+    private void invalidateAfterCommit(Long userId) {
+        TransactionUtils.afterCommit(() -> invalidate(userId));
+    }
+
+    private void invalidate(Long userId) {
+        versions.merge(userId, 1L, Long::sum);
+        cache.remove(userId);
+    }
+}
@@ -0,0 +1,385 @@
+package org.example.springboot.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import org.example.springboot.entity.Notification;
+import org.example.springboot.entity.NotificationOutbox;
+import org.example.springboot.mapper.NotificationMapper;
+import org.example.springboot.mapper.NotificationOutboxMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 通知发件箱服务
+ * 业务事务内只记录通知意图（缓存在事务上下文中，提交前一次多行写入发件箱），
+ * 事务提交后唤醒后台投递线程，按批锁定发件箱记录、多行写入通知表、更新未读计数并推送；
+ * 投递失败按指数退避重试，超过最大次数后标记为失败
+ */
+@Service
+public class NotificationOutboxService {
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutboxService.class);
+
+    /**
+     * 事务上下文中缓存通知意图的资源键
+     */
+    private static final Object TRANSACTION_BUFFER_KEY = new Object();
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    @Resource
+    private NotificationOutboxMapper outboxMapper;
+
+    @Resource
+    private NotificationMapper notificationMapper;
+
+    @Resource
+    private NotificationCounterService notificationCounterService;
+
+    @Resource
+    private NotificationPushService notificationPushService;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${notification.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${notification.outbox.poll-interval-ms:5000}")
+    private long pollIntervalMs;
+
+    @Value("${notification.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${notification.outbox.retry-base-seconds:5}")
+    private long retryBaseSeconds;
+
+    @Value("${notification.outbox.retry-max-seconds:600}")
+    private long retryMaxSeconds;
+
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "notification-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 是否已有待执行的投递任务，合并多次唤醒
+     */
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong enqueueFailures = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private volatile long lastBatchMillis;
+
+    @PostConstruct
+    public void start() {
+        // 定时兜底：处理到期的重试记录以及其他实例遗留的记录
+        dispatcher.scheduleWithFixedDelay(this::drain, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    /**
+     * 记录通知意图
+     * 有活动事务时缓存到事务上下文，提交前统一写入发件箱，写入失败时整个事务随之失败；
+     * 否则直接写入，写入失败只记录日志，不影响主业务流程
+     */
+    public void enqueue(Notification notification) {
+        NotificationOutbox intent = new NotificationOutbox();
+        intent.setUserId(notification.getUserId());
+        intent.setTitle(notification.getTitle());
+        intent.setContent(notification.getContent());
+        intent.setType(notification.getType());
+        intent.setRelatedId(notification.getRelatedId());
+        intent.setCreateTime(notification.getCreateTime() != null ? notification.getCreateTime() : LocalDateTime.now());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionBuffer().add(intent);
+            return;
+        }
+        try {
+            writeIntents(List.of(intent));
+        } catch (RuntimeException e) {
+            enqueueFailures.incrementAndGet();
+            log.error("写入通知发件箱失败: error={}", e.getMessage(), e);
+            return;
+        }
+        wakeUp();
+    }
+
+    /**
+     * 唤醒投递线程
+     */
+    public void wakeUp() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            dispatcher.execute(this::drain);
+        }
+    }
+
+    /**
+     * 投递所有到期记录
+     */
+    private void drain() {
+        drainScheduled.set(false);
+        try {
+            int count;
+            do {
+                count = deliverBatch();
+            } while (count >= batchSize);
+        } catch (Exception e) {
+            log.error("通知投递异常: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 投递一批记录
+     * @return 本批锁定的记录数
+     */
+    private int deliverBatch() {
+        long start = System.currentTimeMillis();
+        List<Long> lockedIds = new ArrayList<>();
+        List<Notification> notifications;
+        try {
+            notifications = transactionTemplate.execute(status -> {
+                List<NotificationOutbox> rows = outboxMapper.lockDue(LocalDateTime.now(), batchSize);
+                if (rows.isEmpty()) {
+                    return List.of();
+                }
+                rows.forEach(row -> lockedIds.add(row.getId()));
+                return deliver(rows);
+            });
+        } catch (Exception e) {
+            // 整批失败时逐条重试，隔离有问题的记录
+            log.warn("通知批量投递失败，逐条重试: count={}, error={}", lockedIds.size(), e.getMessage());
+            for (Long id : lockedIds) {
+                deliverSingle(id);
+            }
+            return lockedIds.size();
+        }
+
+        if (notifications == null || notifications.isEmpty()) {
+            return 0;
+        }
+        delivered.addAndGet(notifications.size());
+        batches.incrementAndGet();
+        lastBatchMillis = System.currentTimeMillis() - start;
+        push(notifications);
+        return lockedIds.size();
+    }
+
+    /**
+     * 单条投递，失败时记录重试
+     */
+    private void deliverSingle(Long id) {
+        try {
+            List<Notification> notifications = transactionTemplate.execute(status -> {
+                NotificationOutbox row = outboxMapper.lockPendingById(id);
+                if (row == null) {
+                    return List.of();
+                }
+                return deliver(List.of(row));
+            });
+            if (notifications != null && !notifications.isEmpty()) {
+                delivered.addAndGet(notifications.size());
+                push(notifications);
+            }
+        } catch (Exception e) {
+            recordFailure(id, e);
+        }
+    }
+
+    /**
+     * 在当前事务中写入通知、调整未读计数并标记发件箱记录已投递
+     */
+    private List<Notification> deliver(List<NotificationOutbox> rows) {
+        List<Notification> notifications = new ArrayList<>(rows.size());
+        // 按用户ID顺序更新计数，避免多个投递线程交叉加锁死锁
+        Map<Long, Integer> unreadDelta = new TreeMap<>();
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (NotificationOutbox row : rows) {
+            Notification notification = new Notification();
+            notification.setUserId(row.getUserId());
+            notification.setTitle(row.getTitle());
+            notification.setContent(row.getContent());
+            notification.setType(row.getType());
+            notification.setRelatedId(row.getRelatedId());
+            notification.setIsRead(0);
+            notification.setCreateTime(row.getCreateTime());
+            notifications.add(notification);
+            unreadDelta.merge(row.getUserId(), 1, Integer::sum);
+            ids.add(row.getId());
+        }
+
+        notificationMapper.insertBatch(notifications);
+        unreadDelta.forEach(notificationCounterService::adjust);
+        outboxMapper.markSent(ids);
+        return notifications;
+    }
+
+    /**
+     * 记录失败并按指数退避安排重试，超过最大次数后标记为失败
+     */
+    private void recordFailure(Long id, Exception e) {
+        try {
+            NotificationOutbox row = outboxMapper.selectById(id);
+            if (row == null || row.getStatus() != NotificationOutbox.STATUS_PENDING) {
+                return;
+            }
+            int attempts = row.getAttempts() == null ? 1 : row.getAttempts() + 1;
+            String error = e.getMessage() == null ? e.getClass().getName() : e.getMessage();
+            if (error.length() > MAX_ERROR_LENGTH) {
+                error = error.substring(0, MAX_ERROR_LENGTH);
+            }
+
+            if (attempts >= maxAttempts) {
+                outboxMapper.markFailed(id, NotificationOutbox.STATUS_DEAD, LocalDateTime.now(), error);
+                deadLettered.incrementAndGet();
+                log.error("通知投递多次失败，已放弃: outboxId={}, userId={}, error={}", id, row.getUserId(), error);
+            } else {
+                long delaySeconds = Math.min(retryBaseSeconds << Math.min(attempts - 1, 20), retryMaxSeconds);
+                outboxMapper.markFailed(id, NotificationOutbox.STATUS_PENDING,
+                        LocalDateTime.now().plusSeconds(delaySeconds), error);
+                retries.incrementAndGet();
+                log.warn("通知投递失败，{}秒后重试: outboxId={}, attempts={}, error={}", delaySeconds, id, attempts, error);
+            }
+        } catch (Exception ex) {
+            log.error("记录通知投递失败时出错: outboxId={}, error={}", id, ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * 推送给在线用户
+     */
+    private void push(List<Notification> notifications) {
+        for (Notification notification : notifications) {
+            Long userId = notification.getUserId();
+            if (!notificationPushService.isOnline(userId)) {
+                continue;
+            }
+            try {
+                notification.setTypeDescription(Notification.NotificationType.fromValue(notification.getType()).getDescription());
+            } catch (Exception e) {
+                notification.setTypeDescription("未知类型");
+            }
+            notificationPushService.publishNotification(userId, notification,
+                    notificationCounterService.getUnreadCount(userId));
+        }
+    }
+
+    /**
+     * 获取当前事务的通知意图缓存，首次使用时注册提交前写入和提交后唤醒
+     */
+    @SuppressWarnings("unchecked")
+    private List<NotificationOutbox> transactionBuffer() {
+        List<NotificationOutbox> buffer =
+                (List<NotificationOutbox>) TransactionSynchronizationManager.getResource(TRANSACTION_BUFFER_KEY);
+        if (buffer != null) {
+            return buffer;
+        }
+
+        List<NotificationOutbox> newBuffer = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(TRANSACTION_BUFFER_KEY, newBuffer);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                try {
+                    writeIntents(newBuffer);
+                } catch (RuntimeException e) {
+                    enqueueFailures.addAndGet(newBuffer.size());
+                    throw e;
+                }
+            }
+
+            @Override
+            public void afterCommit() {
+                if (!newBuffer.isEmpty()) {
+                    wakeUp();
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_BUFFER_KEY);
+            }
+        });
+        return newBuffer;
+    }
+
+    /**
+     * 多行写入发件箱
+     * 在提交前回调中执行时异常向外传播，使业务事务一同回滚：不能出现业务已提交而通知丢失，
+     * 死锁时 InnoDB 已回滚整个事务，吞掉异常会让随后的提交"成功"却什么都没写入
+     */
+    private void writeIntents(List<NotificationOutbox> intents) {
+        if (intents.isEmpty()) {
+            return;
+        }
+        outboxMapper.insertBatch(intents);
+        enqueued.addAndGet(intents.size());
+    }
+
+    /**
+     * 清理已投递的历史记录
+     * @param retentionDays 保留天数
+     * @return 删除的记录数
+     */
+    public int purgeSent(int retentionDays) {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = outboxMapper.deleteSentBefore(before, 1000);
+            total += deleted;
+        } while (deleted >= 1000);
+        return total;
+    }
+
+    /**
+     * 投递指标
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enqueued", enqueued.get());
+        metrics.put("enqueueFailures", enqueueFailures.get());
+        metrics.put("delivered", delivered.get());
+        metrics.put("batches", batches.get());
+        metrics.put("retries", retries.get());
+        metrics.put("deadLettered", deadLettered.get());
+        metrics.put("lastBatchMillis", lastBatchMillis);
+        metrics.put("pending", countByStatus(NotificationOutbox.STATUS_PENDING));
+        metrics.put("dead", countByStatus(NotificationOutbox.STATUS_DEAD));
+        return metrics;
+    }
+
+    private long countByStatus(int status) {
+        LambdaQueryWrapper<NotificationOutbox> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(NotificationOutbox::getStatus, status);
+        return outboxMapper.selectCount(queryWrapper);
+    }
+}
@@ -0,0 +1,175 @@
+package org.example.springboot.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.springboot.entity.Notification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * 通知实时推送服务（Server-Sent Events）
+ * 按用户维护连接，每个用户的连接数有上限，超出时先向最早的连接发送 replaced 事件再关闭，
+ * 客户端收到后不再重连、改为轮询，避免多个标签页互相挤占形成重连循环；
+ * 推送在独立线程执行，不阻塞业务事务。
+ * 连接只登记在本节点，其他节点产生的通知推送不到这里的连接，
+ * 客户端在 SSE 连接期间仍以较长间隔轮询未读数量兜底
+ */
+@Service
+public class NotificationPushService {
+    private static final Logger log = LoggerFactory.getLogger(NotificationPushService.class);
+
+    public static final String EVENT_NOTIFICATION = "notification";
+    public static final String EVENT_UNREAD_COUNT = "unread-count";
+    public static final String EVENT_REPLACED = "replaced";
+
+    @Value("${notification.sse.max-connections-per-user:3}")
+    private int maxConnectionsPerUser;
+
+    @Value("${notification.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private final Map<Long, Deque<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    private final ExecutorService pushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "notification-push");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    public void shutdown() {
+        pushExecutor.shutdown();
+        emitters.values().forEach(userEmitters -> userEmitters.forEach(SseEmitter::complete));
+        emitters.clear();
+    }
+
+    /**
+     * 建立推送连接
+     * @param userId 用户ID
+     * @param unreadCount 当前未读数量，连接建立后立即推送
+     * @return SSE 连接
+     */
+    public SseEmitter subscribe(Long userId, long unreadCount) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Deque<SseEmitter> userEmitters = emitters.compute(userId, (key, existing) -> {
+            Deque<SseEmitter> deque = existing != null ? existing : new ConcurrentLinkedDeque<>();
+            deque.addLast(emitter);
+            return deque;
+        });
+
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+
+        // 超出连接上限时关闭最早的连接；直接 complete 会触发浏览器自动重连，再挤掉其他连接，
+        // 因此先发送终止事件，由客户端主动关闭并退回轮询
+        while (userEmitters.size() > maxConnectionsPerUser) {
+            SseEmitter oldest = userEmitters.pollFirst();
+            if (oldest == null) {
+                break;
+            }
+            send(userId, oldest, SseEmitter.event().name(EVENT_REPLACED).data(maxConnectionsPerUser));
+            oldest.complete();
+        }
+
+        send(userId, emitter, SseEmitter.event().name(EVENT_UNREAD_COUNT).data(unreadCount));
+        return emitter;
+    }
+
+    /**
+     * 推送新通知及最新未读数量
+     */
+    public void publishNotification(Long userId, Notification notification, long unreadCount) {
+        if (!emitters.containsKey(userId)) {
+            return;
+        }
+        pushExecutor.execute(() -> {
+            broadcast(userId, () -> SseEmitter.event().name(EVENT_NOTIFICATION)
+                    .data(notification, MediaType.APPLICATION_JSON));
+            broadcast(userId, () -> SseEmitter.event().name(EVENT_UNREAD_COUNT).data(unreadCount));
+        });
+    }
+
+    /**
+     * 推送未读数量变化
+     */
+    public void publishUnreadCount(Long userId, long unreadCount) {
+        if (!emitters.containsKey(userId)) {
+            return;
+        }
+        pushExecutor.execute(() -> broadcast(userId, () -> SseEmitter.event().name(EVENT_UNREAD_COUNT).data(unreadCount)));
+    }
+
+    /**
+     * 是否有在线连接，用于跳过无人接收时的未读数查询
+     */
+    public boolean isOnline(Long userId) {
+        Deque<SseEmitter> userEmitters = emitters.get(userId);
+        return userEmitters != null && !userEmitters.isEmpty();
+    }
+
+    public int connectionCount() {
+        return emitters.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    /**
+     * 定时发送心跳，防止代理断开空闲连接，同时清理已失效的连接
+     */
+    @Scheduled(fixedRateString = "${notification.sse.heartbeat-ms:25000}")
+    public void heartbeat() {
+        if (emitters.isEmpty()) {
+            return;
+        }
+        pushExecutor.execute(() -> {
+            for (Long userId : new ArrayList<>(emitters.keySet())) {
+                broadcast(userId, () -> SseEmitter.event().comment("heartbeat"));
+            }
+        });
+    }
+
+    /**
+     * 向用户的所有连接推送事件；SseEventBuilder 构建后不可复用，因此每个连接单独创建
+     */
+    private void broadcast(Long userId, Supplier<SseEmitter.SseEventBuilder> event) {
+        Deque<SseEmitter> userEmitters = emitters.get(userId);
+        if (userEmitters == null) {
+            return;
+        }
+        List<SseEmitter> snapshot = new ArrayList<>(userEmitters);
+        for (SseEmitter emitter : snapshot) {
+            send(userId, emitter, event.get());
+        }
+    }
+
+    private void send(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("推送连接已断开: userId={}, error={}", userId, e.getMessage());
+            remove(userId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (key, userEmitters) -> {
+            userEmitters.remove(emitter);
+            return userEmitters.isEmpty() ? null : userEmitters;
+        });
+    }
+}
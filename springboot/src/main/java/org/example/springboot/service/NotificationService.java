@@ -1,21 +1,26 @@
 package org.example.springboot.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import jakarta.annotation.Resource;
+import org.example.springboot.entity.ClaimApplication;
 import org.example.springboot.entity.Notification;
 import org.example.springboot.entity.User;
 import org.example.springboot.exception.ServiceException;
 import org.example.springboot.mapper.NotificationMapper;
 import org.example.springboot.mapper.UserMapper;
 import org.example.springboot.util.JwtTokenUtils;
+import org.example.springboot.util.TransactionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 通知服务类
@@ -29,11 +34,20 @@ public class NotificationService {
     
     @Resource
     private UserMapper userMapper;
+
+    @Resource
+    private NotificationPushService notificationPushService;
+
+    @Resource
+    private NotificationCounterService notificationCounterService;
+
+    @Resource
+    private NotificationOutboxService notificationOutboxService;
     
     /**
      * 发送通知
+     * 只记录到发件箱，由后台在事务提交后批量投递；事务回滚时通知随之丢弃
      */
-    @Transactional(rollbackFor = Exception.class)
     public void sendNotification(Long userId, String title, String content, 
                                Notification.NotificationType type, Long relatedId) {
         try {
@@ -46,8 +60,8 @@ public class NotificationService {
             notification.setIsRead(0); // 未读
             notification.setCreateTime(LocalDateTime.now());
             
-            notificationMapper.insert(notification);
-            log.info("通知发送成功: userId={}, title={}", userId, title);
+            notificationOutboxService.enqueue(notification);
+            log.debug("通知已加入发件箱: userId={}, title={}", userId, title);
         } catch (Exception e) {
             log.error("通知发送失败: userId={}, title={}, error={}", userId, title, e.getMessage(), e);
             // 通知发送失败不应该影响主业务流程，所以这里只记录日志
@@ -80,6 +94,16 @@ public class NotificationService {
                         Notification.NotificationType.AUDIT, applicationId);
     }
     
+    /**
+     * 批量发送审核结果通知，每个申请人一条；同一事务内的通知由发件箱合并为一条多行插入
+     */
+    public void sendAuditResultNotifications(List<ClaimApplication> applications, String itemTitle,
+                                           boolean approved, String auditRemark) {
+        for (ClaimApplication application : applications) {
+            sendAuditResultNotification(application.getUserId(), itemTitle, approved, auditRemark, application.getId());
+        }
+    }
+    
     /**
      * 发送状态变更通知
      */
@@ -92,6 +116,26 @@ public class NotificationService {
                         Notification.NotificationType.SYSTEM, itemId);
     }
     
+    /**
+     * 发送匹配通知
+     * @param userId 接收用户ID
+     * @param ownItemTitle 接收用户发布的物品标题
+     * @param matchedItemTitle 匹配到的物品标题
+     * @param matchedIsFound 匹配到的是否为招领信息
+     * @param matchedItemId 匹配到的物品ID
+     */
+    public void sendMatchNotification(Long userId, String ownItemTitle, String matchedItemTitle,
+                                      boolean matchedIsFound, Long matchedItemId) {
+        String title = matchedIsFound ? "发现可能匹配的招领信息" : "发现可能匹配的失物信息";
+        String content = matchedIsFound
+                ? String.format("新发布的招领信息：%s，与您丢失的物品：%s 相似度较高，请及时查看确认。",
+                                matchedItemTitle, ownItemTitle)
+                : String.format("新发布的失物信息：%s，与您发布的招领物品：%s 相似度较高，请及时查看确认。",
+                                matchedItemTitle, ownItemTitle);
+        sendNotification(userId, title, content,
+                        Notification.NotificationType.MATCH, matchedItemId);
+    }
+    
     /**
      * 获取用户通知列表
      */
@@ -128,11 +172,47 @@ public class NotificationService {
             return 0;
         }
         
-        LambdaQueryWrapper<Notification> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(Notification::getUserId, currentUser.getId())
-                   .eq(Notification::getIsRead, 0);
-        
-        return notificationMapper.selectCount(queryWrapper);
+        return countUnread(currentUser.getId());
+    }
+
+    /**
+     * 建立通知推送连接
+     */
+    public SseEmitter subscribe() {
+        User currentUser = JwtTokenUtils.getCurrentUser();
+        if (currentUser == null) {
+            throw new ServiceException("用户未登录");
+        }
+        return notificationPushService.subscribe(currentUser.getId(), countUnread(currentUser.getId()));
+    }
+
+    /**
+     * 统计用户未读通知数量
+     */
+    private long countUnread(Long userId) {
+        return notificationCounterService.getUnreadCount(userId);
+    }
+
+    /**
+     * 事务提交后向在线用户推送最新未读数量
+     */
+    private void pushUnreadCount(Long userId) {
+        TransactionUtils.afterCommit(() -> {
+            if (notificationPushService.isOnline(userId)) {
+                notificationPushService.publishUnreadCount(userId, countUnread(userId));
+            }
+        });
+    }
+    
+    /**
+     * 获取通知发件箱投递指标
+     */
+    public Map<String, Object> getOutboxMetrics() {
+        User currentUser = JwtTokenUtils.getCurrentUser();
+        if (currentUser == null || !"ADMIN".equals(currentUser.getRoleCode())) {
+            throw new ServiceException("无权限查看");
+        }
+        return notificationOutboxService.getMetrics();
     }
     
     /**
@@ -154,9 +234,14 @@ public class NotificationService {
             throw new ServiceException("无权限操作此通知");
         }
         
-        if (notification.getIsRead() == 0) {
-            notification.setIsRead(1);
-            notificationMapper.updateById(notification);
+        // 条件更新，并发重复标记时只有一次生效，计数只减一次
+        LambdaUpdateWrapper<Notification> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.set(Notification::getIsRead, 1)
+                    .eq(Notification::getId, notificationId)
+                    .eq(Notification::getIsRead, 0);
+        if (notificationMapper.update(null, updateWrapper) > 0) {
+            notificationCounterService.adjust(currentUser.getId(), -1);
+            pushUnreadCount(currentUser.getId());
         }
     }
     
@@ -170,15 +255,15 @@ public class NotificationService {
             throw new ServiceException("用户未登录");
         }
         
-        LambdaQueryWrapper<Notification> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(Notification::getUserId, currentUser.getId())
-                   .eq(Notification::getIsRead, 0);
+        LambdaUpdateWrapper<Notification> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.set(Notification::getIsRead, 1)
+                    .eq(Notification::getUserId, currentUser.getId())
+                    .eq(Notification::getIsRead, 0);
         
-        List<Notification> unreadNotifications = notificationMapper.selectList(queryWrapper);
-        
-        for (Notification notification : unreadNotifications) {
-            notification.setIsRead(1);
-            notificationMapper.updateById(notification);
+        int updated = notificationMapper.update(null, updateWrapper);
+        if (updated > 0) {
+            notificationCounterService.adjust(currentUser.getId(), -updated);
+            pushUnreadCount(currentUser.getId());
         }
     }
     
@@ -201,7 +286,16 @@ public class NotificationService {
             throw new ServiceException("无权限删除此通知");
         }
         
-        notificationMapper.deleteById(notificationId);
+        // 先按未读条件删除，以删除时的实际已读状态决定是否调整计数
+        LambdaQueryWrapper<Notification> unreadWrapper = new LambdaQueryWrapper<>();
+        unreadWrapper.eq(Notification::getId, notificationId)
+                    .eq(Notification::getIsRead, 0);
+        if (notificationMapper.delete(unreadWrapper) > 0) {
+            notificationCounterService.adjust(currentUser.getId(), -1);
+            pushUnreadCount(currentUser.getId());
+        } else {
+            notificationMapper.deleteById(notificationId);
+        }
     }
     
     /**
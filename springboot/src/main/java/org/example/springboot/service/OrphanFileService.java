@@ -0,0 +1,290 @@
+package org.example.springboot.service;
+
+import jakarta.annotation.Resource;
+import org.apache.ibatis.cursor.Cursor;
+import org.example.springboot.entity.User;
+import org.example.springboot.exception.ServiceException;
+import org.example.springboot.mapper.FileBlobMapper;
+import org.example.springboot.mapper.FoundItemMapper;
+import org.example.springboot.mapper.LostItemMapper;
+import org.example.springboot.mapper.UserMapper;
+import org.example.springboot.storage.BlobInfo;
+import org.example.springboot.storage.BlobStore;
+import org.example.springboot.util.BloomFilter;
+import org.example.springboot.util.FileUtil;
+import org.example.springboot.util.JwtTokenUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 孤立上传文件清理服务
+ * 上传先于物品保存，放弃发布、修改图片、更换头像都会留下不再被引用的文件。清理分四步：
+ * 1. 用游标流式读取物品图片和用户头像，把引用的文件标识写入布隆过滤器（内存占用与引用数成正比，约1.2MB/百万）
+ * 2. 遍历存储（本地目录或对象存储），修改时间超过宽限期且过滤器判断未引用的文件作为候选
+ * 3. 再次流式读取引用做精确复核，剔除扫描期间新产生引用的候选
+ * 4. 按速率限制逐个删除，仍有引用计数或宽限期内重新上传过的文件跳过
+ * 过滤器的误判只会让少量孤立文件保留到下一轮（每轮使用不同的哈希种子）
+ */
+@Service
+public class OrphanFileService {
+    private static final Logger log = LoggerFactory.getLogger(OrphanFileService.class);
+
+    /**
+     * 估算引用数时每条物品按的图片数
+     */
+    private static final int IMAGES_PER_ITEM = 4;
+
+    @Resource
+    private LostItemMapper lostItemMapper;
+
+    @Resource
+    private FoundItemMapper foundItemMapper;
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private FileBlobMapper fileBlobMapper;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${file.gc.grace-hours:24}")
+    private long graceHours;
+
+    @Value("${file.gc.bloom-fpp:0.01}")
+    private double bloomFpp;
+
+    @Value("${file.gc.max-deletes-per-run:10000}")
+    private int maxDeletesPerRun;
+
+    @Value("${file.gc.deletes-per-second:50}")
+    private int deletesPerSecond;
+
+    /**
+     * 同一实例内不允许并发执行（定时任务与管理员手动触发可能重叠）
+     */
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    /**
+     * 清理报告
+     *
+     * @param references     引用数（物品图片与头像）
+     * @param bloomBytes     布隆过滤器占用的字节数
+     * @param scannedFiles   遍历的文件数
+     * @param recentFiles    宽限期内的文件数
+     * @param candidates     过滤器判断未引用的文件数
+     * @param verifiedOrphans 精确复核后确认未引用的文件数
+     * @param deletedFiles   实际删除的文件数（试运行时为0）
+     * @param reclaimedBytes 删除（或试运行时可删除）的字节数
+     * @param durationMs     耗时
+     */
+    public record CollectReport(long references, long bloomBytes, long scannedFiles, long recentFiles,
+                                long candidates, long verifiedOrphans, long deletedFiles, long reclaimedBytes,
+                                long durationMs) {
+    }
+
+    /**
+     * 管理员手动清理
+     *
+     * @param dryRun 只统计不删除
+     */
+    public CollectReport collectByAdmin(boolean dryRun) {
+        User currentUser = JwtTokenUtils.getCurrentUser();
+        if (currentUser == null || !"ADMIN".equals(currentUser.getRoleCode())) {
+            throw new ServiceException("无权限操作");
+        }
+        CollectReport report = collect(dryRun);
+        if (report == null) {
+            throw new ServiceException("文件清理正在执行，请稍后再试");
+        }
+        return report;
+    }
+
+    /**
+     * 清理孤立文件
+     *
+     * @param dryRun 只统计不删除
+     * @return 清理报告；已有清理在执行时返回 null
+     */
+    public CollectReport collect(boolean dryRun) {
+        if (!runLock.tryLock()) {
+            log.warn("孤立文件清理正在执行，跳过本次调用");
+            return null;
+        }
+        try {
+            return doCollect(dryRun);
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private CollectReport doCollect(boolean dryRun) {
+        long start = System.currentTimeMillis();
+        Instant cutoff = Instant.now().minus(Duration.ofHours(graceHours));
+        long cutoffMillis = cutoff.toEpochMilli();
+        BlobStore store = FileUtil.blobStore();
+
+        // 1. 引用写入布隆过滤器
+        long expected = (lostItemMapper.selectCount(null) + foundItemMapper.selectCount(null)) * IMAGES_PER_ITEM
+                + userMapper.selectCount(null);
+        BloomFilter referenced = new BloomFilter(expected, bloomFpp, ThreadLocalRandom.current().nextLong());
+        long references = streamReferences(referenced::put);
+
+        // 2. 遍历存储找出候选（同一内容标识可能对应原图和多个衍生图）
+        Map<String, List<BlobInfo>> candidates = new HashMap<>();
+        long[] counters = new long[3]; // 遍历数, 宽限期内, 候选数
+        try {
+            store.list("", blob -> {
+                counters[0]++;
+                if (blob.lastModified() >= cutoffMillis) {
+                    counters[1]++;
+                    return true;
+                }
+                String name = blob.key().substring(blob.key().lastIndexOf('/') + 1);
+                String key = FileUtil.contentKey(name);
+                if (!referenced.mightContain(key)) {
+                    candidates.computeIfAbsent(key, k -> new ArrayList<>()).add(blob);
+                    counters[2]++;
+                    // 本轮的量已够，剩余的留给下一轮
+                    return counters[2] < maxDeletesPerRun;
+                }
+                return true;
+            });
+        } catch (IOException e) {
+            log.error("遍历存储失败: {}", e.getMessage(), e);
+        }
+
+        // 3. 精确复核：去掉遍历期间新产生引用的候选
+        if (!candidates.isEmpty()) {
+            streamReferences(candidates::remove);
+        }
+
+        // 4. 限速删除
+        long verified = 0;
+        long deleted = 0;
+        long reclaimed = 0;
+        LocalDateTime blobCutoff = LocalDateTime.ofInstant(cutoff, ZoneId.systemDefault());
+        long intervalNanos = deletesPerSecond > 0 ? 1_000_000_000L / deletesPerSecond : 0;
+        long next = System.nanoTime();
+        for (List<BlobInfo> blobs : candidates.values()) {
+            for (BlobInfo blob : blobs) {
+                verified++;
+                if (dryRun) {
+                    reclaimed += blob.size();
+                    continue;
+                }
+                next = throttle(next, intervalNanos);
+                long size = delete(store, blob.key(), cutoffMillis, blobCutoff);
+                if (size >= 0) {
+                    deleted++;
+                    reclaimed += size;
+                }
+            }
+        }
+
+        CollectReport report = new CollectReport(references, referenced.sizeInBytes(), counters[0], counters[1],
+                counters[2], verified, deleted, reclaimed, System.currentTimeMillis() - start);
+        log.info("孤立文件清理{}: {}", dryRun ? "(试运行)" : "", report);
+        return report;
+    }
+
+    /**
+     * 流式读取全部引用（物品图片、用户头像），以内容标识回调
+     *
+     * @return 引用数
+     */
+    private long streamReferences(Consumer<String> consumer) {
+        long[] count = {0};
+        List<Supplier<Cursor<String>>> sources = List.of(
+                lostItemMapper::streamImages, foundItemMapper::streamImages, userMapper::streamAvatars);
+        for (Supplier<Cursor<String>> source : sources) {
+            // 游标只在事务（同一连接）内有效
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Cursor<String> cursor = source.get()) {
+                    for (String value : cursor) {
+                        for (String path : value.split(",")) {
+                            if (!path.isBlank()) {
+                                consumer.accept(FileUtil.contentKey(path.trim()));
+                                count[0]++;
+                            }
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+        return count[0];
+    }
+
+    /**
+     * 删除单个文件：仍有引用计数或宽限期内重新上传（预约）过的跳过
+     * 复核和删除在登记记录的行锁内完成，相同内容的上传在预约时等待，不会复用即将删除的文件
+     *
+     * @return 删除的字节数，跳过返回 -1
+     */
+    private long delete(BlobStore store, String key, long cutoffMillis, LocalDateTime blobCutoff) {
+        try {
+            // 遍历之后可能被重新上传过，以当前状态为准
+            BlobInfo blob = store.stat(key);
+            if (blob == null || blob.lastModified() >= cutoffMillis) {
+                return -1;
+            }
+            String webPath = "/" + key;
+            Boolean deleted = transactionTemplate.execute(status -> {
+                if (fileBlobMapper.lockByPath(webPath) != null
+                        && fileBlobMapper.deleteUnreferenced(webPath, blobCutoff) == 0) {
+                    return false;
+                }
+                try {
+                    store.delete(key);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return true;
+            });
+            if (!Boolean.TRUE.equals(deleted)) {
+                return -1;
+            }
+            log.debug("删除孤立文件: {}", webPath);
+            return blob.size();
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("删除孤立文件失败: key={}, error={}", key, e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * 按固定间隔放行，限制删除速率
+     */
+    private static long throttle(long next, long intervalNanos) {
+        long wait = next - System.nanoTime();
+        if (wait > 0) {
+            try {
+                Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return Math.max(next, System.nanoTime()) + intervalNanos;
+    }
+}
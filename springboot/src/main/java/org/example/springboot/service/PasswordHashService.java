@@ -0,0 +1,199 @@
+package org.example.springboot.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import org.example.springboot.common.ResultCode;
+import org.example.springboot.exception.ServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 密码哈希服务
+ * BCrypt 每次计算占满一个 CPU 核心数十毫秒，开学等登录高峰时在请求线程上直接计算会拖慢所有接口。
+ * 哈希和校验统一交给独立的有界线程池：
+ * 1. 同时占用的 CPU 核心数不超过工作线程数，其余请求线程不受影响
+ * 2. 队列已满时立即拒绝（返回 429），不让请求线程排队堆积
+ * 3. 等待超过上限的请求放弃，排队中的任务取消，不再白白计算
+ */
+@Service
+public class PasswordHashService {
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashService.class);
+
+    private static final String BUSY_MESSAGE = "登录人数较多，请稍后再试";
+
+    @Resource
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${password.hash.workers:2}")
+    private int workers;
+
+    @Value("${password.hash.queue-size:32}")
+    private int queueSize;
+
+    @Value("${password.hash.max-wait-ms:3000}")
+    private long maxWaitMs;
+
+    private ThreadPoolExecutor executor;
+
+    private final AtomicLong encoded = new AtomicLong();
+    private final AtomicLong verified = new AtomicLong();
+    private final AtomicLong rehashed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong hashed = new AtomicLong();
+    private final AtomicLong hashNanos = new AtomicLong();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger sequence = new AtomicInteger();
+        // 默认 AbortPolicy：队列满时抛出 RejectedExecutionException，由调用方快速失败
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        log.info("密码哈希线程池已启动: workers={}, queueSize={}, maxWaitMs={}", workers, queueSize, maxWaitMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 计算密码哈希
+     */
+    public String encode(String rawPassword) {
+        String hash = execute(() -> passwordEncoder.encode(rawPassword));
+        encoded.incrementAndGet();
+        return hash;
+    }
+
+    /**
+     * 校验密码
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        boolean matched = execute(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+        verified.incrementAndGet();
+        return matched;
+    }
+
+    /**
+     * 已有哈希的强度低于当前配置时需要重新计算（调高 password.hash.strength 后逐步升级）
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * 登录成功后顺带升级哈希；线程池有排队时跳过，不给高峰期增加额外负担，下次登录再升级
+     *
+     * @return 新哈希，跳过时返回 null
+     */
+    public String rehashIfIdle(String rawPassword, String encodedPassword) {
+        if (!needsRehash(encodedPassword) || !executor.getQueue().isEmpty()) {
+            return null;
+        }
+        try {
+            String hash = encode(rawPassword);
+            rehashed.incrementAndGet();
+            return hash;
+        } catch (ServiceException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 在哈希线程池中执行；拒绝和超时只计数不逐条告警，高峰期看 getMetrics
+     */
+    private <T> T execute(Callable<T> task) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                record(waitNanos, maxWaitNanos, start - submitted);
+                try {
+                    return task.call();
+                } finally {
+                    hashed.incrementAndGet();
+                    record(hashNanos, maxHashNanos, System.nanoTime() - start);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            log.debug("密码哈希队列已满，拒绝请求: queue={}", executor.getQueue().size());
+            throw busy();
+        }
+        try {
+            return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 仍在排队的任务直接出队作废；已在计算的让它算完
+            future.cancel(false);
+            timedOut.incrementAndGet();
+            log.debug("密码哈希等待超时: maxWaitMs={}", maxWaitMs);
+            throw busy();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static ServiceException busy() {
+        return new ServiceException(ResultCode.TOO_MANY_REQUESTS.getCode(), BUSY_MESSAGE);
+    }
+
+    private static void record(AtomicLong total, AtomicLong max, long nanos) {
+        total.addAndGet(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * 线程池与耗时指标（耗时单位毫秒）
+     */
+    public Map<String, Object> getMetrics() {
+        long completed = hashed.get();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("workers", workers);
+        metrics.put("active", executor.getActiveCount());
+        metrics.put("queueDepth", executor.getQueue().size());
+        metrics.put("queueCapacity", queueSize);
+        metrics.put("encoded", encoded.get());
+        metrics.put("verified", verified.get());
+        metrics.put("rehashed", rehashed.get());
+        metrics.put("rejected", rejected.get());
+        metrics.put("timedOut", timedOut.get());
+        metrics.put("avgHashMillis", completed > 0 ? hashNanos.get() / completed / 1_000_000.0 : 0);
+        metrics.put("maxHashMillis", maxHashNanos.get() / 1_000_000.0);
+        metrics.put("avgWaitMillis", completed > 0 ? waitNanos.get() / completed / 1_000_000.0 : 0);
+        metrics.put("maxWaitMillis", maxWaitNanos.get() / 1_000_000.0);
+        return metrics;
+    }
+}
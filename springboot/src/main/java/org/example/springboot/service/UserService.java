@@ -1,6 +1,7 @@
 package org.example.springboot.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.toolkit.StringUtils;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import jakarta.annotation.Resource;
@@ -11,12 +12,14 @@ import org.example.springboot.enumClass.AccountStatus;
 import org.example.springboot.exception.ServiceException;
 import org.example.springboot.mapper.UserMapper;
 import org.example.springboot.util.JwtTokenUtils;
+import org.example.springboot.util.TransactionUtils;
+import org.example.springboot.util.VerifiedTokenCache;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class UserService {
@@ -29,7 +32,10 @@ public class UserService {
     private String DEFAULT_PWD;
 
     @Resource
-    private PasswordEncoder bCryptPasswordEncoder;
+    private PasswordHashService passwordHashService;
+
+    @Resource
+    private VerifiedTokenCache verifiedTokenCache;
 
     public User getByEmail(String email) {
         User user = userMapper.selectOne(new LambdaQueryWrapper<User>().eq(User::getEmail, email));
@@ -44,7 +50,7 @@ public class UserService {
         // 用户存在性检查已经在 getByUsername 中处理
 
         // 验证密码
-        if (!bCryptPasswordEncoder.matches(user.getPassword(), dbUser.getPassword())) {
+        if (!passwordHashService.matches(user.getPassword(), dbUser.getPassword())) {
             throw new ServiceException("用户名或密码错误");
         }
 
@@ -54,8 +60,10 @@ public class UserService {
             throw new ServiceException(accountStatus.getDescription() + ": " + accountStatus.getTransitionAdvice());
         }
 
+        rehashPassword(dbUser, user.getPassword());
+
         // 生成token
-        String token = JwtTokenUtils.genToken(String.valueOf(dbUser.getId()), dbUser.getPassword());
+        String token = JwtTokenUtils.genToken(String.valueOf(dbUser.getId()), JwtTokenUtils.signingKey(dbUser));
         dbUser.setToken(token);
 
         // 记录登录时间（可选）
@@ -94,7 +102,8 @@ public class UserService {
 
 
         user.setPassword(StringUtils.isNotBlank(user.getPassword()) ? user.getPassword() : DEFAULT_PWD);
-        user.setPassword(bCryptPasswordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHashService.encode(user.getPassword()));
+        user.setTokenSecret(JwtTokenUtils.newTokenSecret());
         
         if (userMapper.insert(user) <= 0) {
             throw new ServiceException("用户创建失败");
@@ -103,6 +112,7 @@ public class UserService {
 
     /**
      * 更新用户状态
+     * 本节点的已验证token缓存随即失效；其他节点最多在 auth.token-cache.max-ttl-seconds 后生效
      */
     @Transactional(rollbackFor = Exception.class)
     public void updateUserStatus(Long userId, Integer status, String reason) {
@@ -124,6 +134,7 @@ public class UserService {
         if (userMapper.updateById(user) <= 0) {
             throw new ServiceException("状态更新失败");
         }
+        invalidateTokenCache(userId);
 
         // 记录状态变更日志（可选）
         // logStatusChange(userId, currentStatus, newStatus, reason);
@@ -186,6 +197,7 @@ public class UserService {
         if (userMapper.updateById(user) <= 0) {
             throw new ServiceException("用户更新失败");
         }
+        invalidateTokenCache(id);
     }
 
     public User getByUsername(String username) {
@@ -203,6 +215,9 @@ public class UserService {
         if (userMapper.deleteByIds(ids) <= 0) {
             throw new ServiceException("批量删除失败");
         }
+        for (Integer id : ids) {
+            invalidateTokenCache(id.longValue());
+        }
     }
 
     public List<User> getUserList() {
@@ -246,15 +261,17 @@ public class UserService {
         }
         
         // 验证旧密码
-        if (!bCryptPasswordEncoder.matches(update.getOldPassword(), user.getPassword())) {
+        if (!passwordHashService.matches(update.getOldPassword(), user.getPassword())) {
             throw new ServiceException("原密码错误");
         }
         
-        // 更新新密码
-        user.setPassword(bCryptPasswordEncoder.encode(update.getNewPassword()));
+        // 更新新密码，同时更换 token 签名密钥，使已签发的 token 全部失效
+        user.setPassword(passwordHashService.encode(update.getNewPassword()));
+        user.setTokenSecret(JwtTokenUtils.newTokenSecret());
         if (userMapper.updateById(user) <= 0) {
             throw new ServiceException("密码修改失败");
         }
+        invalidateTokenCache(id);
     }
 
     public void forgetPassword(String email, String newPassword) {
@@ -266,15 +283,62 @@ public class UserService {
             throw new ServiceException("邮箱不存在");
         }
         
-        user.setPassword(bCryptPasswordEncoder.encode(newPassword));
+        user.setPassword(passwordHashService.encode(newPassword));
+        user.setTokenSecret(JwtTokenUtils.newTokenSecret());
         if (userMapper.updateById(user) <= 0) {
             throw new ServiceException("密码重置失败");
         }
+        invalidateTokenCache(user.getId());
     }
 
     public void deleteUserById(Long id) {
         if (userMapper.deleteById(id) <= 0) {
             throw new ServiceException("删除失败");
         }
+        invalidateTokenCache(id);
+    }
+
+    /**
+     * 密码哈希强度低于当前配置时升级（失败或跳过不影响登录）
+     * token 以独立的 token_secret 签名，升级哈希不影响该用户其他设备上已签发的 token；
+     * 还没有 token_secret 的旧用户 token 以旧哈希签名，升级时把旧哈希固定为其 token_secret
+     */
+    private void rehashPassword(User dbUser, String rawPassword) {
+        String oldHash = dbUser.getPassword();
+        String newHash = passwordHashService.rehashIfIdle(rawPassword, oldHash);
+        if (newHash == null) {
+            return;
+        }
+        boolean pinSecret = StringUtils.isBlank(dbUser.getTokenSecret());
+        // 条件更新：期间密码被修改过则放弃
+        LambdaUpdateWrapper<User> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.set(User::getPassword, newHash)
+                .set(pinSecret, User::getTokenSecret, oldHash)
+                .eq(User::getId, dbUser.getId())
+                .eq(User::getPassword, oldHash);
+        if (userMapper.update(null, updateWrapper) > 0) {
+            dbUser.setPassword(newHash);
+            if (pinSecret) {
+                dbUser.setTokenSecret(oldHash);
+            }
+        }
+    }
+
+    /**
+     * 管理员查看密码哈希线程池指标
+     */
+    public Map<String, Object> getPasswordHashMetrics() {
+        User currentUser = JwtTokenUtils.getCurrentUser();
+        if (currentUser == null || !"ADMIN".equals(currentUser.getRoleCode())) {
+            throw new ServiceException("无权限查看");
+        }
+        return passwordHashService.getMetrics();
+    }
+
+    /**
+     * 用户信息变更提交后失效其已验证token缓存
+     */
+    private void invalidateTokenCache(Long userId) {
+        TransactionUtils.afterCommit(() -> verifiedTokenCache.invalidateUser(userId));
     }
 }
@@ -0,0 +1,11 @@
+package org.example.springboot.storage;
+
+/**
+ * 存储对象信息
+ *
+ * @param key          对象 key
+ * @param size         字节数
+ * @param lastModified 修改时间（毫秒）
+ */
+public record BlobInfo(String key, long size, long lastModified) {
+}
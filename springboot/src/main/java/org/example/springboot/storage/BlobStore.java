@@ -0,0 +1,98 @@
+package org.example.springboot.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Predicate;
+
+/**
+ * 上传文件存储
+ * 对象以 key 标识，key 为去掉前导斜杠的访问路径，例如 /img/3f/a2/xxx.jpg -> img/3f/a2/xxx.jpg。
+ * 本地磁盘只适合单节点部署；多节点部署使用 S3 兼容的对象存储，应用节点不保存状态
+ */
+public interface BlobStore {
+
+    /**
+     * 异步写入对象（同名对象被覆盖），完成前调用方不能删除源文件
+     *
+     * @param source      本地文件
+     * @param contentType 内容类型
+     */
+    CompletableFuture<Void> putAsync(String key, Path source, String contentType);
+
+    /**
+     * 写入对象（同名对象被覆盖）
+     */
+    default void put(String key, Path source, String contentType) throws IOException {
+        try {
+            putAsync(key, source, contentType).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 流式读取对象的一段内容
+     *
+     * @param start 起始字节
+     * @param end   结束字节（包含），小于0表示读到末尾
+     * @throws java.nio.file.NoSuchFileException 对象不存在
+     */
+    InputStream open(String key, long start, long end) throws IOException;
+
+    /**
+     * 流式读取整个对象
+     */
+    default InputStream open(String key) throws IOException {
+        return open(key, 0, -1);
+    }
+
+    /**
+     * 对象信息，不存在时返回 null
+     */
+    BlobInfo stat(String key) throws IOException;
+
+    /**
+     * 对象是否存在；实现可以短时间缓存结果，其他节点刚写入或删除的对象可能暂时判断不准
+     */
+    default boolean exists(String key) throws IOException {
+        return stat(key) != null;
+    }
+
+    /**
+     * 删除对象
+     *
+     * @return 是否删除了对象（无法得知时对象存储返回 true）
+     */
+    boolean delete(String key) throws IOException;
+
+    /**
+     * 刷新对象的修改时间（重复上传相同内容时延长清理宽限期）
+     *
+     * @throws java.nio.file.NoSuchFileException 对象不存在
+     */
+    void touch(String key) throws IOException;
+
+    /**
+     * 遍历 prefix 下的全部对象
+     *
+     * @param visitor 返回 false 时停止遍历
+     */
+    void list(String prefix, Predicate<BlobInfo> visitor) throws IOException;
+
+    /**
+     * 客户端可直接下载的预签名地址，不支持时返回 null
+     */
+    URI presignedGet(String key);
+
+    /**
+     * 对象在本机磁盘上的路径（可用 sendfile 发送、原地处理），不是本地存储时返回 null
+     */
+    Path localPath(String key);
+}
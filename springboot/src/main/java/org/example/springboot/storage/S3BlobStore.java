@@ -0,0 +1,537 @@
+package org.example.springboot.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLConnection;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * S3 兼容对象存储（AWS S3、MinIO 等）
+ * 基于 JDK HttpClient 实现 Signature V4 签名，不依赖 SDK：
+ * 1. 小文件单次 PUT；超过阈值的文件分片上传，多个分片并发发送，失败时中止分片上传
+ * 2. 读取直接返回响应流，支持 Range
+ * 3. 客户端下载使用有时效的预签名 GET 地址，图片流量不经过应用节点
+ * MinIO 等本地替身使用路径风格地址（endpoint/bucket/key）
+ */
+public class S3BlobStore implements BlobStore {
+    private static final Logger log = LoggerFactory.getLogger(S3BlobStore.class);
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    private static final String EMPTY_SHA256 = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+    private static final DateTimeFormatter AMZ_DATE =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    /**
+     * S3 要求除最后一片外每个分片不小于5MB
+     */
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    /**
+     * 对象是否存在的缓存条数（缩略图判断等高频查询不必每次 HEAD）
+     */
+    private static final int EXISTS_CACHE_SIZE = 10000;
+
+    private static final Pattern CONTENTS = Pattern.compile("<Contents>(.*?)</Contents>", Pattern.DOTALL);
+
+    /**
+     * 连接参数
+     *
+     * @param endpoint           服务地址，例如 https://s3.amazonaws.com、http://127.0.0.1:9000
+     * @param pathStyle          使用路径风格地址（MinIO 等），否则使用虚拟主机风格（bucket.endpoint）
+     * @param multipartThreshold 超过该大小的文件分片上传
+     * @param partSize           分片大小
+     * @param uploadConcurrency  单个文件并发上传的分片数
+     * @param presignTtl         预签名地址有效期
+     * @param requestTimeout     单次请求超时
+     * @param existsCacheTtl     存在/不存在结果的缓存时间；其他节点的写入和删除最多延迟这么久可见
+     */
+    public record Options(String endpoint, String region, String bucket, String accessKey, String secretKey,
+                          boolean pathStyle, long multipartThreshold, long partSize, int uploadConcurrency,
+                          Duration presignTtl, Duration requestTimeout, Duration existsCacheTtl) {
+    }
+
+    /**
+     * 缓存的存在性判断
+     */
+    private record CachedExists(boolean exists, long expiresAt) {
+    }
+
+    private final Options options;
+    private final String scheme;
+    private final String host;
+    private final String basePath;
+    private final long partSize;
+    private final HttpClient httpClient;
+    private final Map<String, CachedExists> existsCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedExists> eldest) {
+                    return size() > EXISTS_CACHE_SIZE;
+                }
+            });
+
+    public S3BlobStore(Options options) {
+        this.options = options;
+        URI endpoint = URI.create(options.endpoint());
+        this.scheme = endpoint.getScheme();
+        String endpointHost = endpoint.getHost();
+        int port = endpoint.getPort();
+        boolean defaultPort = port == -1 || ("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443);
+        String hostPort = defaultPort ? endpointHost : endpointHost + ":" + port;
+        String endpointPath = endpoint.getRawPath() == null ? "" : endpoint.getRawPath().replaceAll("/+$", "");
+        if (options.pathStyle()) {
+            this.host = hostPort;
+            this.basePath = endpointPath + "/" + encode(options.bucket(), false);
+        } else {
+            this.host = options.bucket() + "." + hostPort;
+            this.basePath = endpointPath;
+        }
+        this.partSize = Math.max(MIN_PART_SIZE, options.partSize());
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.requestTimeout())
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<Void> putAsync(String key, Path source, String contentType) {
+        long size;
+        try {
+            size = Files.size(source);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        String type = contentType != null ? contentType : contentTypeOf(key);
+        CompletableFuture<Void> upload = size <= options.multipartThreshold()
+                ? putObject(key, source, type)
+                : multipartUpload(key, source, size, type);
+        return upload.thenRun(() -> cacheExists(key, true));
+    }
+
+    private CompletableFuture<Void> putObject(String key, Path source, String contentType) {
+        HttpRequest request;
+        try {
+            request = signed("PUT", key, Map.of(), Map.of("content-type", contentType), UNSIGNED_PAYLOAD,
+                    HttpRequest.BodyPublishers.ofFile(source));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenAccept(response -> checkAsync(response, "PUT", key));
+    }
+
+    /**
+     * 分片上传：分片按序号轮流分配给 uploadConcurrency 条通道，每条通道内顺序发送，
+     * 同时在途的分片数（及读取缓冲）有上限；分片内容直接从文件流式读取
+     */
+    private CompletableFuture<Void> multipartUpload(String key, Path source, long size, String contentType) {
+        HttpRequest initiate = signed("POST", key, Map.of("uploads", ""), Map.of("content-type", contentType),
+                EMPTY_SHA256, HttpRequest.BodyPublishers.noBody());
+        return httpClient.sendAsync(initiate, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> tag(checkAsync(response, "CreateMultipartUpload", key).body(), "UploadId"))
+                .thenCompose(uploadId -> {
+                    int partCount = (int) ((size + partSize - 1) / partSize);
+                    String[] etags = new String[partCount];
+                    int lanes = Math.max(1, Math.min(options.uploadConcurrency(), partCount));
+                    List<CompletableFuture<Void>> futures = new ArrayList<>(lanes);
+                    for (int lane = 0; lane < lanes; lane++) {
+                        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+                        for (int part = lane + 1; part <= partCount; part += lanes) {
+                            int partNumber = part;
+                            chain = chain.thenCompose(v -> uploadPart(key, uploadId, source, size, partNumber, etags));
+                        }
+                        futures.add(chain);
+                    }
+                    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                            .thenCompose(v -> completeMultipart(key, uploadId, etags))
+                            .whenComplete((v, e) -> {
+                                if (e != null) {
+                                    abortMultipart(key, uploadId);
+                                }
+                            });
+                });
+    }
+
+    private CompletableFuture<Void> uploadPart(String key, String uploadId, Path source, long size, int partNumber,
+                                               String[] etags) {
+        long offset = (partNumber - 1) * partSize;
+        long length = Math.min(partSize, size - offset);
+        HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.fromPublisher(
+                HttpRequest.BodyPublishers.ofInputStream(() -> openSlice(source, offset, length)), length);
+        HttpRequest request = signed("PUT", key,
+                Map.of("partNumber", String.valueOf(partNumber), "uploadId", uploadId), Map.of(), UNSIGNED_PAYLOAD, body);
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenAccept(response -> {
+                    checkAsync(response, "UploadPart", key);
+                    etags[partNumber - 1] = response.headers().firstValue("ETag")
+                            .orElseThrow(() -> new CompletionException(new IOException("UploadPart returned no ETag: " + key)));
+                });
+    }
+
+    private CompletableFuture<Void> completeMultipart(String key, String uploadId, String[] etags) {
+        StringBuilder xml = new StringBuilder("<CompleteMultipartUpload>");
+        for (int i = 0; i < etags.length; i++) {
+            xml.append("<Part><PartNumber>").append(i + 1).append("</PartNumber><ETag>")
+                    .append(escapeXml(etags[i])).append("</ETag></Part>");
+        }
+        xml.append("</CompleteMultipartUpload>");
+        byte[] body = xml.toString().getBytes(StandardCharsets.UTF_8);
+        HttpRequest request = signed("POST", key, Map.of("uploadId", uploadId), Map.of("content-type", "application/xml"),
+                sha256Hex(body), HttpRequest.BodyPublishers.ofByteArray(body));
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenAccept(response -> {
+                    // 合并失败时也可能返回200，错误在响应体中
+                    checkAsync(response, "CompleteMultipartUpload", key);
+                    if (response.body().contains("<Error>")) {
+                        throw new CompletionException(new IOException("CompleteMultipartUpload failed: " + key + " " + response.body()));
+                    }
+                });
+    }
+
+    private void abortMultipart(String key, String uploadId) {
+        HttpRequest request = signed("DELETE", key, Map.of("uploadId", uploadId), Map.of(), EMPTY_SHA256,
+                HttpRequest.BodyPublishers.noBody());
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, e) -> {
+                    if (e != null || response.statusCode() / 100 != 2) {
+                        log.warn("中止分片上传失败: key={}, uploadId={}", key, uploadId);
+                    }
+                });
+    }
+
+    @Override
+    public InputStream open(String key, long start, long end) throws IOException {
+        Map<String, String> headers = start > 0 || end >= 0
+                ? Map.of("range", "bytes=" + start + "-" + (end >= 0 ? end : ""))
+                : Map.of();
+        HttpRequest request = signed("GET", key, Map.of(), headers, EMPTY_SHA256, HttpRequest.BodyPublishers.noBody());
+        HttpResponse<InputStream> response = send(request, HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() / 100 != 2) {
+            try (InputStream body = response.body()) {
+                throw failure(response.statusCode(), "GET", key, new String(body.readNBytes(1024), StandardCharsets.UTF_8));
+            }
+        }
+        return response.body();
+    }
+
+    @Override
+    public BlobInfo stat(String key) throws IOException {
+        HttpRequest request = signed("HEAD", key, Map.of(), Map.of(), EMPTY_SHA256, HttpRequest.BodyPublishers.noBody());
+        HttpResponse<Void> response = send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 404) {
+            cacheExists(key, false);
+            return null;
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw failure(response.statusCode(), "HEAD", key, "");
+        }
+        long size = response.headers().firstValueAsLong("Content-Length").orElse(0);
+        long lastModified = response.headers().firstValue("Last-Modified")
+                .map(value -> ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli())
+                .orElse(0L);
+        cacheExists(key, true);
+        return new BlobInfo(key, size, lastModified);
+    }
+
+    /**
+     * 优先使用未过期的缓存结果（包括不存在），过期后重新 HEAD
+     */
+    @Override
+    public boolean exists(String key) throws IOException {
+        CachedExists cached = existsCache.get(key);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            return cached.exists();
+        }
+        return stat(key) != null;
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        cacheExists(key, false);
+        HttpRequest request = signed("DELETE", key, Map.of(), Map.of(), EMPTY_SHA256, HttpRequest.BodyPublishers.noBody());
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2 && response.statusCode() != 404) {
+            throw failure(response.statusCode(), "DELETE", key, response.body());
+        }
+        return true;
+    }
+
+    /**
+     * 对象存储不能直接修改时间，复制到自身并替换元数据
+     *
+     * @throws NoSuchFileException 对象已不存在（例如刚被其他节点删除）
+     */
+    @Override
+    public void touch(String key) throws IOException {
+        Map<String, String> headers = new TreeMap<>();
+        headers.put("x-amz-copy-source", "/" + encode(options.bucket(), false) + "/" + encode(key, true));
+        headers.put("x-amz-metadata-directive", "REPLACE");
+        headers.put("content-type", contentTypeOf(key));
+        HttpRequest request = signed("PUT", key, Map.of(), headers, EMPTY_SHA256, HttpRequest.BodyPublishers.noBody());
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
+        // 复制请求出错时也可能返回200，错误信息在响应体中
+        if (response.statusCode() / 100 != 2 || response.body().contains("<Error>")) {
+            int status = response.body().contains("<Code>NoSuchKey</Code>") ? 404 : response.statusCode();
+            if (status == 404) {
+                cacheExists(key, false);
+            }
+            throw failure(status, "COPY", key, response.body());
+        }
+    }
+
+    private void cacheExists(String key, boolean exists) {
+        existsCache.put(key, new CachedExists(exists, System.currentTimeMillis() + options.existsCacheTtl().toMillis()));
+    }
+
+    @Override
+    public void list(String prefix, Predicate<BlobInfo> visitor) throws IOException {
+        String continuationToken = null;
+        do {
+            Map<String, String> query = new TreeMap<>();
+            query.put("list-type", "2");
+            query.put("prefix", prefix == null ? "" : prefix);
+            if (continuationToken != null) {
+                query.put("continuation-token", continuationToken);
+            }
+            HttpRequest request = signed("GET", "", query, Map.of(), EMPTY_SHA256, HttpRequest.BodyPublishers.noBody());
+            HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                throw failure(response.statusCode(), "LIST", prefix, response.body());
+            }
+            String body = response.body();
+            Matcher contents = CONTENTS.matcher(body);
+            while (contents.find()) {
+                String entry = contents.group(1);
+                BlobInfo info = new BlobInfo(unescapeXml(tag(entry, "Key")), Long.parseLong(tag(entry, "Size")),
+                        Instant.parse(tag(entry, "LastModified")).toEpochMilli());
+                if (!visitor.test(info)) {
+                    return;
+                }
+            }
+            continuationToken = "true".equals(tag(body, "IsTruncated")) ? unescapeXml(tag(body, "NextContinuationToken")) : null;
+        } while (continuationToken != null);
+    }
+
+    @Override
+    public URI presignedGet(String key) {
+        return presignedGet(key, Instant.now());
+    }
+
+    /**
+     * 生成预签名 GET 地址（查询参数签名，只签 host 头）
+     */
+    URI presignedGet(String key, Instant now) {
+        String amzDate = AMZ_DATE.format(now);
+        String scope = amzDate.substring(0, 8) + "/" + options.region() + "/s3/aws4_request";
+        Map<String, String> query = new TreeMap<>();
+        query.put("X-Amz-Algorithm", ALGORITHM);
+        query.put("X-Amz-Credential", options.accessKey() + "/" + scope);
+        query.put("X-Amz-Date", amzDate);
+        query.put("X-Amz-Expires", String.valueOf(options.presignTtl().toSeconds()));
+        query.put("X-Amz-SignedHeaders", "host");
+        String path = pathOf(key);
+        String canonicalQuery = canonicalQuery(query);
+        String canonicalRequest = "GET\n" + path + "\n" + canonicalQuery + "\nhost:" + host + "\n\nhost\n" + UNSIGNED_PAYLOAD;
+        String signature = signature(amzDate, scope, canonicalRequest);
+        return URI.create(scheme + "://" + host + path + "?" + canonicalQuery + "&X-Amz-Signature=" + signature);
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return null;
+    }
+
+    /**
+     * 构造带 Authorization 头的请求，x-amz-* 及传入的头全部参与签名
+     */
+    HttpRequest signed(String method, String key, Map<String, String> query, Map<String, String> headers,
+                       String payloadHash, HttpRequest.BodyPublisher body) {
+        return signed(method, key, query, headers, payloadHash, body, Instant.now());
+    }
+
+    HttpRequest signed(String method, String key, Map<String, String> query, Map<String, String> headers,
+                       String payloadHash, HttpRequest.BodyPublisher body, Instant now) {
+        String amzDate = AMZ_DATE.format(now);
+        String scope = amzDate.substring(0, 8) + "/" + options.region() + "/s3/aws4_request";
+        Map<String, String> signedHeaders = new TreeMap<>();
+        headers.forEach((name, value) -> signedHeaders.put(name.toLowerCase(), value.trim()));
+        signedHeaders.put("host", host);
+        signedHeaders.put("x-amz-content-sha256", payloadHash);
+        signedHeaders.put("x-amz-date", amzDate);
+
+        String path = pathOf(key);
+        String canonicalQuery = canonicalQuery(query);
+        StringBuilder canonicalHeaders = new StringBuilder();
+        signedHeaders.forEach((name, value) -> canonicalHeaders.append(name).append(':').append(value).append('\n'));
+        String signedHeaderNames = String.join(";", signedHeaders.keySet());
+        String canonicalRequest = method + "\n" + path + "\n" + canonicalQuery + "\n" + canonicalHeaders + "\n"
+                + signedHeaderNames + "\n" + payloadHash;
+        String authorization = ALGORITHM + " Credential=" + options.accessKey() + "/" + scope
+                + ", SignedHeaders=" + signedHeaderNames + ", Signature=" + signature(amzDate, scope, canonicalRequest);
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(
+                        URI.create(scheme + "://" + host + path + (canonicalQuery.isEmpty() ? "" : "?" + canonicalQuery)))
+                .timeout(options.requestTimeout())
+                .method(method, body);
+        signedHeaders.forEach((name, value) -> {
+            // host 由 HttpClient 按地址生成
+            if (!"host".equals(name)) {
+                builder.header(name, value);
+            }
+        });
+        return builder.header("Authorization", authorization).build();
+    }
+
+    private String signature(String amzDate, String scope, String canonicalRequest) {
+        String stringToSign = ALGORITHM + "\n" + amzDate + "\n" + scope + "\n"
+                + sha256Hex(canonicalRequest.getBytes(StandardCharsets.UTF_8));
+        byte[] key = hmac(("AWS4" + options.secretKey()).getBytes(StandardCharsets.UTF_8), amzDate.substring(0, 8));
+        key = hmac(key, options.region());
+        key = hmac(key, "s3");
+        key = hmac(key, "aws4_request");
+        return HexFormat.of().formatHex(hmac(key, stringToSign));
+    }
+
+    private String pathOf(String key) {
+        return key.isEmpty() ? (basePath.isEmpty() ? "/" : basePath) : basePath + "/" + encode(key, true);
+    }
+
+    private static String canonicalQuery(Map<String, String> query) {
+        Map<String, String> sorted = new TreeMap<>();
+        query.forEach((name, value) -> sorted.put(encode(name, false), encode(value, false)));
+        StringBuilder result = new StringBuilder();
+        sorted.forEach((name, value) -> {
+            if (!result.isEmpty()) {
+                result.append('&');
+            }
+            result.append(name).append('=').append(value);
+        });
+        return result.toString();
+    }
+
+    /**
+     * RFC 3986 编码，只保留非保留字符（路径中保留斜杠）
+     */
+    static String encode(String value, boolean keepSlash) {
+        StringBuilder result = new StringBuilder();
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || (keepSlash && c == '/')) {
+                result.append(c);
+            } else {
+                result.append('%').append(Character.toUpperCase(Character.forDigit((c >> 4) & 0xF, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(c & 0xF, 16)));
+            }
+        }
+        return result.toString();
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return httpClient.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("S3 request interrupted: " + request.uri());
+        }
+    }
+
+    private static <T> HttpResponse<T> checkAsync(HttpResponse<T> response, String action, String key) {
+        if (response.statusCode() / 100 != 2) {
+            throw new CompletionException(failure(response.statusCode(), action, key, String.valueOf(response.body())));
+        }
+        return response;
+    }
+
+    private static IOException failure(int status, String action, String key, String body) {
+        if (status == 404) {
+            return new NoSuchFileException(key);
+        }
+        String detail = body.length() > 500 ? body.substring(0, 500) : body;
+        return new IOException("S3 " + action + " failed: key=" + key + ", status=" + status + ", body=" + detail);
+    }
+
+    private static InputStream openSlice(Path source, long offset, long length) {
+        try {
+            FileChannel channel = FileChannel.open(source, StandardOpenOption.READ);
+            channel.position(offset);
+            return new LimitedInputStream(Channels.newInputStream(channel), length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String tag(String xml, String name) {
+        Matcher matcher = Pattern.compile("<" + name + ">(.*?)</" + name + ">", Pattern.DOTALL).matcher(xml);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private static String escapeXml(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static String unescapeXml(String value) {
+        return value == null ? null : value.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&apos;", "'").replace("&amp;", "&");
+    }
+
+    private static String contentTypeOf(String key) {
+        String type = URLConnection.guessContentTypeFromName(key);
+        return type != null ? type : "application/octet-stream";
+    }
+
+    private static String sha256Hex(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.springboot.task;
+
+import jakarta.annotation.Resource;
+import org.example.springboot.service.OrphanFileService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 上传文件清理定时任务
+ */
+@Component
+public class FileCleanupTask {
+    private static final Logger log = LoggerFactory.getLogger(FileCleanupTask.class);
+
+    @Resource
+    private OrphanFileService orphanFileService;
+
+    /**
+     * 每天凌晨4点清理超过宽限期且不再被引用的上传文件
+     */
+    @Scheduled(cron = "0 0 4 * * ?")
+    public void collectOrphanFiles() {
+        try {
+            log.info("开始清理孤立上传文件...");
+            orphanFileService.collect(false);
+        } catch (Exception e) {
+            log.error("清理孤立上传文件失败: {}", e.getMessage(), e);
+        }
+    }
+}
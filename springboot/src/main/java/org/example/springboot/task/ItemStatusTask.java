@@ -1,6 +1,7 @@
 package org.example.springboot.task;
 
 import jakarta.annotation.Resource;
+import org.example.springboot.service.ItemStatusCounterService;
 import org.example.springboot.service.ItemStatusService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,10 +17,13 @@ public class ItemStatusTask {
     
     @Resource
     private ItemStatusService itemStatusService;
+
+    @Resource
+    private ItemStatusCounterService itemStatusCounterService;
     
     /**
      * 每天凌晨2点处理过期物品
-     * 将超过30天未被认领的物品标记为过期
+     * 将超过30天未被认领的物品标记为过期，分批执行，中断后下次从断点继续
      */
     @Scheduled(cron = "0 0 2 * * ?")
     public void processExpiredItems() {
@@ -49,4 +53,19 @@ public class ItemStatusTask {
             log.error("统计物品状态失败: {}", e.getMessage(), e);
         }
     }
+    
+    /**
+     * 每小时第45分钟按物品表实际数据对账状态计数
+     */
+    @Scheduled(cron = "0 45 * * * ?")
+    public void reconcileStatusCounters() {
+        try {
+            int repaired = itemStatusCounterService.reconcile();
+            if (repaired > 0) {
+                log.info("物品状态计数对账完成，修正{}项", repaired);
+            }
+        } catch (Exception e) {
+            log.error("物品状态计数对账失败: {}", e.getMessage(), e);
+        }
+    }
 }
@@ -0,0 +1,36 @@
+package org.example.springboot.task;
+
+import jakarta.annotation.Resource;
+import org.example.springboot.service.NotificationCounterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 未读通知计数对账任务
+ */
+@Component
+public class NotificationCounterTask {
+    private static final Logger log = LoggerFactory.getLogger(NotificationCounterTask.class);
+
+    @Resource
+    private NotificationCounterService notificationCounterService;
+
+    /**
+     * 每小时按通知表实际数据修正未读计数
+     */
+    @Scheduled(cron = "0 30 * * * ?")
+    public void reconcileUnreadCounters() {
+        try {
+            int repaired = notificationCounterService.reconcile();
+            if (repaired > 0) {
+                log.warn("未读计数对账完成，修正{}个用户", repaired);
+            } else {
+                log.info("未读计数对账完成，无偏差");
+            }
+        } catch (Exception e) {
+            log.error("未读计数对账失败: {}", e.getMessage(), e);
+        }
+    }
+}
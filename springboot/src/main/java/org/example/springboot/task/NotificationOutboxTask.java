@@ -0,0 +1,32 @@
+package org.example.springboot.task;
+
+import jakarta.annotation.Resource;
+import org.example.springboot.service.NotificationOutboxService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 通知发件箱清理任务
+ */
+@Component
+public class NotificationOutboxTask {
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutboxTask.class);
+
+    @Resource
+    private NotificationOutboxService notificationOutboxService;
+
+    /**
+     * 每天凌晨4点清理7天前已投递的发件箱记录
+     */
+    @Scheduled(cron = "0 0 4 * * ?")
+    public void purgeSentOutbox() {
+        try {
+            int deleted = notificationOutboxService.purgeSent(7);
+            log.info("通知发件箱清理完成，删除{}条记录", deleted);
+        } catch (Exception e) {
+            log.error("通知发件箱清理失败: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.springboot.task;
+
+import jakarta.annotation.Resource;
+import org.example.springboot.service.ItemSearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 物品检索索引定时任务
+ */
+@Component
+public class SearchIndexTask {
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexTask.class);
+
+    @Resource
+    private ItemSearchService itemSearchService;
+
+    /**
+     * 每天凌晨3点全量重建检索索引，修正增量更新和追赶可能遗漏的变更
+     */
+    @Scheduled(cron = "0 0 3 * * ?")
+    public void rebuildSearchIndex() {
+        try {
+            log.info("开始重建物品检索索引...");
+            itemSearchService.rebuildAll();
+        } catch (Exception e) {
+            log.error("重建物品检索索引失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 每隔几秒按 update_time 追赶其他节点的变更
+     */
+    @Scheduled(fixedDelayString = "${search.index.catch-up-interval-ms:5000}")
+    public void catchUpSearchIndex() {
+        try {
+            itemSearchService.catchUp();
+        } catch (Exception e) {
+            log.error("追赶物品检索索引失败: {}", e.getMessage(), e);
+        }
+    }
+}
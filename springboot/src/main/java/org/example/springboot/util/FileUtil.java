@@ -1,5 +1,7 @@
 package org.example.springboot.util;
 
+import org.example.springboot.storage.BlobStore;
+import org.example.springboot.storage.LocalBlobStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.Resource;
@@ -9,13 +11,38 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class FileUtil {
     private final static  Logger LOGGER = LoggerFactory.getLogger(FileUtil.class);
     public final static String FILE_BASE_PATH = System.getProperty("user.dir") + "/files/";
+
+    /**
+     * 本地暂存目录（相对于 FILE_BASE_PATH），上传和衍生图先写到这里再写入存储
+     */
+    public final static String STAGING_DIRECTORY = ".tmp";
+
+    /**
+     * 上传文件存储，默认本地磁盘
+     */
+    private static volatile BlobStore blobStore = new LocalBlobStore(Paths.get(FILE_BASE_PATH));
     // 获取项目根目录路径
     public static Path getProjectRootPath() throws IOException {
 
@@ -29,48 +56,230 @@ public class FileUtil {
         return rootDir.toPath();
     }
 
+    /**
+     * 内容寻址文件名使用的摘要长度（十六进制字符数，128位）
+     */
+    private static final int NAME_DIGEST_LENGTH = 32;
+
+    /**
+     * 以内容摘要开头的文件名（原图及其衍生图），按摘要前缀分层存放
+     */
+    private static final Pattern CONTENT_NAME = Pattern.compile("^[0-9a-f]{32}[._].*");
+
+    /**
+     * 内容寻址之前按上传时间戳命名的旧文件及其衍生图，例如 1700000000000.jpg、1700000000000_thumb.jpg，
+     * 按时间戳的摘要分层存放（文件名不变，原有引用和登记记录继续有效）
+     */
+    private static final Pattern LEGACY_NAME = Pattern.compile("^([0-9]+)(?:[._].*)?$");
+
+    /**
+     * 单次通道传输的字节数
+     */
+    private static final long TRANSFER_CHUNK = 1024 * 1024;
+
+    /**
+     * 已保存的文件
+     *
+     * @param path    访问路径
+     * @param digest  内容 SHA-256 摘要（十六进制）
+     * @param size    文件大小
+     * @param created 是否由本次保存新写入（false 表示内容已存在）
+     */
+    public record StoredFile(String path, String digest, long size, boolean created) {
+    }
+
+    /**
+     * 上传预约：摘要算出后、判断文件是否已存在之前预约，写入失败时取消，
+     * 保证复用已有文件期间该文件不会被并发的删除操作删掉
+     */
+    public interface Reservation {
+        void reserve(String path, String digest, long size);
+
+        void cancel(String path);
+    }
+
     // 公共的文件保存方法
     public static String saveFile(MultipartFile file, String folderName, String baseDir) {
+        StoredFile stored = storeFile(file, folderName, baseDir);
+        return stored != null ? stored.path() : null;
+    }
+
+    /**
+     * 按内容寻址保存上传的文件，扩展名取自原始文件名
+     *
+     * @return 保存结果，失败返回 null
+     */
+    public static StoredFile storeFile(MultipartFile file, String folderName, String baseDir) {
         String originalFilename = file.getOriginalFilename();
         assert originalFilename != null;
-        long timestamp = System.currentTimeMillis();
-        String extension = ""; // 文件扩展名，默认为空
-
-        // 获取文件扩展名
-        int dotIndex = originalFilename.lastIndexOf('.');
-        if (dotIndex > 0) {
-            extension = originalFilename.substring(dotIndex);
+        try (InputStream in = file.getInputStream()) {
+            return storeStream(in, extensionOf(originalFilename), folderName, baseDir, Long.MAX_VALUE, null);
+        } catch (IOException e) {
+            LOGGER.error("Error saving file: {}", originalFilename, e);
+            return null;
         }
+    }
 
-        String dFileName = timestamp + extension;
+    /**
+     * 按内容寻址保存数据流：经 NIO 通道写入本地暂存文件并同时计算摘要，再以摘要为名写入存储。
+     * 相同内容得到相同路径，已存在时直接返回已有路径；并发上传互不覆盖
+     *
+     * @param extension   扩展名（含点号，可为空串）
+     * @param maxSize     允许的最大字节数，超出时中止写入并抛出异常
+     * @param reservation 上传预约，可为 null；成功返回后由调用方登记并结束预约
+     */
+    public static StoredFile storeStream(InputStream input, String extension, String folderName, String baseDir,
+                                         long maxSize, Reservation reservation) throws IOException {
+        // 如果folderName不为null，则在指定目录后面加入folderName
+        String directory = baseDir + (folderName != null && !folderName.isEmpty() ? "/" + folderName : "");
 
-        // 获取项目根目录路径
-        Path projectRootPath = null;
+        Path temp = createStagingFile(".upload-");
         try {
-            projectRootPath = Paths.get(FILE_BASE_PATH);
-            Path fileDirectory = projectRootPath.resolve(baseDir);
+            MessageDigest messageDigest = newSha256();
+            long size = 0;
+            try (ReadableByteChannel source = Channels.newChannel(new DigestInputStream(input, messageDigest));
+                 FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                long transferred;
+                while ((transferred = target.transferFrom(source, size, TRANSFER_CHUNK)) > 0) {
+                    size += transferred;
+                    if (size > maxSize) {
+                        throw new IOException("File exceeds size limit: " + maxSize);
+                    }
+                }
+            }
+            String digest = HexFormat.of().formatHex(messageDigest.digest());
+            String dFileName = digest.substring(0, NAME_DIGEST_LENGTH) + extension;
 
-            // 如果folderName不为null，则在指定目录后面加入folderName
-            if (folderName != null && !folderName.isEmpty()) {
-                fileDirectory = fileDirectory.resolve(folderName);
+            // 按摘要前两级十六进制前缀分层，单个目录的文件数不随总量增长
+            String key = directory + "/" + shardOf(dFileName) + "/" + dFileName;
+            // 返回相对路径，不再添加/api前缀
+            String path = "/" + key;
+            if (reservation == null) {
+                return new StoredFile(path, digest, size, writeOrTouch(key, temp, dFileName));
+            }
+            reservation.reserve(path, digest, size);
+            try {
+                return new StoredFile(path, digest, size, writeOrTouch(key, temp, dFileName));
+            } catch (IOException | RuntimeException e) {
+                reservation.cancel(path);
+                throw e;
             }
+        } finally {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                LOGGER.warn("Failed to delete temp file: {}", temp);
+            }
+        }
+    }
 
-            if (!Files.exists(fileDirectory)) {
-                Files.createDirectories(fileDirectory); // 如果目录不存在，则创建目录
+    /**
+     * 以摘要为名写入存储，已存在时只刷新修改时间
+     *
+     * @return 是否新写入
+     */
+    private static boolean writeOrTouch(String key, Path temp, String dFileName) throws IOException {
+        BlobStore store = blobStore;
+        boolean created = false;
+        if (store.exists(key)) {
+            try {
+                // 刷新修改时间，清理任务的宽限期从最近一次上传算起
+                store.touch(key);
+                LOGGER.info("File already stored: {}", key);
+            } catch (NoSuchFileException e) {
+                // 存在性判断来自缓存，对象已被删除（例如其他节点的清理任务），重新写入
+                store.put(key, temp, contentTypeOf(dFileName));
+                created = true;
+                LOGGER.info("File re-saved at: {}", key);
             }
-            Path uploadFilePath = fileDirectory.resolve(dFileName);
-            File uploadFile = uploadFilePath.toFile();
+        } else {
+            // 并发上传相同内容时后到者覆盖的也是相同字节
+            store.put(key, temp, contentTypeOf(dFileName));
+            created = true;
+            LOGGER.info("File saved at: {}", key);
+        }
+        return created;
+    }
 
-            file.transferTo(uploadFile);
-            LOGGER.info("File saved at: {}", uploadFile.getAbsolutePath());
-        } catch (IOException e) {
-            e.printStackTrace();
-            return null;
+    /**
+     * 在本地暂存目录创建临时文件（与本地存储同一文件系统，写入存储时可原子重命名）
+     */
+    public static Path createStagingFile(String prefix) throws IOException {
+        Path staging = Paths.get(FILE_BASE_PATH, STAGING_DIRECTORY);
+        Files.createDirectories(staging);
+        return Files.createTempFile(staging, prefix, ".tmp");
+    }
+
+    /**
+     * 按文件名推断内容类型
+     */
+    public static String contentTypeOf(String fileName) {
+        String extension = extensionOf(fileName);
+        if (".webp".equals(extension)) {
+            return "image/webp";
         }
+        String type = URLConnection.guessContentTypeFromName(fileName);
+        return type != null ? type : "application/octet-stream";
+    }
+
+    /**
+     * 分层目录：摘要的第1-2位和第3-4位，例如 3fa2...jpg -> 3f/a2；
+     * 时间戳命名的旧文件取时间戳 SHA-256 摘要的前4位（相邻时间戳也能均匀分散）
+     *
+     * @return 分层目录；不是内容寻址或时间戳命名的文件返回 null
+     */
+    private static String shardOf(String fileName) {
+        String hex;
+        if (CONTENT_NAME.matcher(fileName).matches()) {
+            hex = fileName;
+        } else {
+            Matcher legacy = LEGACY_NAME.matcher(fileName);
+            if (!legacy.matches()) {
+                return null;
+            }
+            hex = HexFormat.of().formatHex(newSha256().digest(legacy.group(1).getBytes(StandardCharsets.US_ASCII)));
+        }
+        return hex.substring(0, 2) + "/" + hex.substring(2, 4);
+    }
+
+    /**
+     * 是否为内容寻址的文件（原图或衍生图）
+     *
+     * @param path 访问路径或文件名
+     */
+    public static boolean isContentAddressed(String path) {
+        return CONTENT_NAME.matcher(path.substring(path.lastIndexOf('/') + 1)).matches();
+    }
+
+    /**
+     * 文件的内容标识：内容寻址的文件（含衍生图）取摘要部分，时间戳命名的旧文件（含衍生图）取时间戳，
+     * 其他文件取文件名
+     *
+     * @param path 访问路径或文件名
+     */
+    public static String contentKey(String path) {
+        String fileName = path.substring(path.lastIndexOf('/') + 1);
+        if (CONTENT_NAME.matcher(fileName).matches()) {
+            return fileName.substring(0, NAME_DIGEST_LENGTH);
+        }
+        Matcher legacy = LEGACY_NAME.matcher(fileName);
+        return legacy.matches() ? legacy.group(1) : fileName;
+    }
+
+    /**
+     * 取文件名的扩展名（小写，含点号），没有扩展名时返回空串
+     */
+    public static String extensionOf(String filename) {
+        int dotIndex = filename.lastIndexOf('.');
+        return dotIndex > 0 ? filename.substring(dotIndex).toLowerCase() : "";
+    }
 
-        // 返回相对路径，不再添加/api前缀
-        String relativePath = "/" + baseDir + "/" + (folderName != null && !folderName.isEmpty() ? folderName + "/" : "") + dFileName;
-        return relativePath;
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     // 保存图片的方法
@@ -84,25 +293,24 @@ public class FileUtil {
     }
     /**
      * 根据文件名删除文件
+     * 只做磁盘删除、不检查引用，业务上删除上传文件应通过 FileBlobService
      *
      * @param filename 文件名（相对于项目根目录的相对路径）
      * @return 删除成功返回 true，否则返回 false
      */
     public static boolean deleteFile(String filename) {
         try {
-            // 如果路径有前导斜杠，移除它，以便路径解析正确
-            if (filename.startsWith("/")) {
-                filename = filename.substring(1);
+            // 如果路径没有前导斜杠，补上后按访问路径解析
+            String key = keyOf(filename.startsWith("/") ? filename : "/" + filename);
+            if (key == null) {
+                LOGGER.warn("Invalid file path: {}", filename);
+                return false;
             }
-            
-            // 获取文件的绝对路径
-            Path filePath = Paths.get(FILE_BASE_PATH, filename);
-            if (Files.exists(filePath)) {
-                Files.delete(filePath);
-                LOGGER.info("File deleted: {}", filePath);
+            if (blobStore.delete(key)) {
+                LOGGER.info("File deleted: {}", key);
                 return true;
             } else {
-                LOGGER.warn("File not found: {}", filePath);
+                LOGGER.warn("File not found: {}", key);
                 return false;
             }
         } catch (Exception e) {
@@ -111,6 +319,154 @@ public class FileUtil {
         }
     }
 
+    /**
+     * 当前使用的存储
+     */
+    public static BlobStore blobStore() {
+        return blobStore;
+    }
+
+    /**
+     * 切换存储（启动时由 BlobStoreConfig 按配置设置）
+     */
+    public static void setBlobStore(BlobStore store) {
+        blobStore = store;
+    }
+
+    /**
+     * 是否使用本地磁盘存储
+     */
+    public static boolean isLocalStore() {
+        return blobStore instanceof LocalBlobStore;
+    }
+
+    /**
+     * 访问路径转换为存储 key：去掉 /api 前缀和前导斜杠
+     *
+     * @return key；外部链接或包含 . / .. 等非法片段的路径返回 null
+     */
+    public static String keyOf(String webPath) {
+        if (webPath == null || !webPath.startsWith("/")) {
+            return null;
+        }
+        String key = webPath.startsWith("/api/") ? webPath.substring(5) : webPath.substring(1);
+        if (key.isEmpty() || key.indexOf('\\') >= 0) {
+            return null;
+        }
+        for (String segment : key.split("/", -1)) {
+            if (segment.isEmpty() || ".".equals(segment) || "..".equals(segment)) {
+                return null;
+            }
+        }
+        return key;
+    }
+
+    /**
+     * 文件是否存在；本地存储时兼容已迁移到分层目录的平铺路径
+     */
+    public static boolean exists(String webPath) {
+        if (isLocalStore()) {
+            Path path = locate(webPath);
+            return path != null && Files.isRegularFile(path);
+        }
+        String key = keyOf(webPath);
+        try {
+            return key != null && blobStore.exists(key);
+        } catch (IOException e) {
+            LOGGER.warn("Error checking file: {}, {}", webPath, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 文件在存储中的实际 key；本地存储时兼容已迁移到分层目录的平铺路径
+     *
+     * @return key，路径非法时返回 null
+     */
+    public static String locateKey(String webPath) {
+        if (isLocalStore()) {
+            Path path = locate(webPath);
+            return path == null ? null : toWebPath(path).substring(1);
+        }
+        return keyOf(webPath);
+    }
+
+    /**
+     * 把上传返回的访问路径（如 /img/xxx.jpg，可带 /api 前缀）解析为磁盘路径
+     *
+     * @return 文件存储目录内的绝对路径；外部链接或越出存储目录的路径返回 null
+     */
+    public static Path resolve(String webPath) {
+        if (webPath == null || !webPath.startsWith("/")) {
+            return null;
+        }
+        String relative = webPath.startsWith("/api/") ? webPath.substring(5) : webPath.substring(1);
+        Path base = Paths.get(FILE_BASE_PATH).toAbsolutePath().normalize();
+        Path path = base.resolve(relative).normalize();
+        return path.startsWith(base) && !path.equals(base) ? path : null;
+    }
+
+    /**
+     * 解析访问路径并定位实际文件：分层目录上线前的平铺路径（如 /img/xxx.jpg）
+     * 在文件已迁移到分层目录后仍可访问
+     *
+     * @return 存在的文件路径；都不存在时返回 resolve 的结果
+     */
+    public static Path locate(String webPath) {
+        Path path = resolve(webPath);
+        if (path == null || Files.exists(path)) {
+            return path;
+        }
+        Path sharded = shardedPath(path);
+        return sharded != null && Files.exists(sharded) ? sharded : path;
+    }
+
+    /**
+     * 平铺存放的文件（内容寻址或时间戳命名）对应的分层路径
+     *
+     * @return 分层路径；已经是分层路径或文件名不可分层时返回 null
+     */
+    public static Path shardedPath(Path path) {
+        String fileName = path.getFileName().toString();
+        String shard = shardOf(fileName);
+        if (shard == null) {
+            return null;
+        }
+        Path parent = path.getParent();
+        if (parent != null && parent.getParent() != null
+                && parent.getFileName().toString().equals(shard.substring(3))
+                && parent.getParent().getFileName().toString().equals(shard.substring(0, 2))) {
+            return null;
+        }
+        return path.resolveSibling(shard).resolve(fileName);
+    }
+
+    /**
+     * 把平铺存放的文件移动到分层路径；目标已存在时（内容相同）直接删除源文件
+     *
+     * @return 源文件存在并已迁移返回 true
+     */
+    public static boolean relocate(Path source, Path target) throws IOException {
+        if (!Files.isRegularFile(source)) {
+            return false;
+        }
+        Files.createDirectories(target.getParent());
+        if (Files.exists(target)) {
+            Files.delete(source);
+        } else {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+        return true;
+    }
+
+    /**
+     * 磁盘路径转换为访问路径（resolve 的逆操作）
+     */
+    public static String toWebPath(Path path) {
+        Path base = Paths.get(FILE_BASE_PATH).toAbsolutePath().normalize();
+        return "/" + base.relativize(path.toAbsolutePath().normalize()).toString().replace('\\', '/');
+    }
+
     public static void writeToFile(String fileName, String content) throws IOException {
         // 创建文件对象
         File file = new File(fileName);
@@ -0,0 +1,300 @@
+package org.example.springboot.util;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 图片处理工具（纯 Java，基于 ImageIO 和 Java2D）
+ * 重新编码输出的图片不携带 EXIF 等元数据
+ */
+public class ImageUtil {
+
+    private ImageUtil() {
+    }
+
+    /**
+     * 识别文件头需要的字节数
+     */
+    public static final int HEADER_LENGTH = 12;
+
+    /**
+     * detectFormat 能识别的全部格式，即上传图片可能使用的扩展名
+     */
+    public static final List<String> FORMATS = List.of("jpg", "png", "gif", "webp", "bmp");
+
+    /**
+     * 按文件头魔数识别图片格式，不依赖文件名和客户端声明的类型
+     * @return 扩展名（jpg、png、gif、webp、bmp），不是支持的图片时返回 null
+     */
+    public static String detectFormat(byte[] header) {
+        if (header.length >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return "jpg";
+        }
+        if (header.length >= 8 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G') {
+            return "png";
+        }
+        if (header.length >= 6 && header[0] == 'G' && header[1] == 'I' && header[2] == 'F' && header[3] == '8') {
+            return "gif";
+        }
+        if (header.length >= 12 && header[0] == 'R' && header[1] == 'I' && header[2] == 'F' && header[3] == 'F'
+                && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P') {
+            return "webp";
+        }
+        if (header.length >= 2 && header[0] == 'B' && header[1] == 'M') {
+            return "bmp";
+        }
+        return null;
+    }
+
+    /**
+     * 读取图片尺寸而不解码像素
+     * @return [宽, 高]，无法识别的格式返回 null
+     */
+    public static int[] readSize(Path path) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(path.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                return new int[]{reader.getWidth(0), reader.getHeight(0)};
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 读取 JPEG 的 EXIF 方向标记（1-8），非 JPEG 或没有方向信息时返回 1
+     */
+    public static int readOrientation(Path path) {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+            if (in.readUnsignedShort() != 0xFFD8) {
+                return 1;
+            }
+            while (true) {
+                int marker = in.readUnsignedShort();
+                if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA || marker == 0xFFD9) {
+                    return 1;
+                }
+                int length = in.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return 1;
+                }
+                if (marker == 0xFFE1 && length > 14) {
+                    byte[] app1 = in.readNBytes(length);
+                    if (app1.length == length && app1[0] == 'E' && app1[1] == 'x' && app1[2] == 'i' && app1[3] == 'f') {
+                        return parseTiffOrientation(app1, 6);
+                    }
+                } else {
+                    skipFully(in, length);
+                }
+            }
+        } catch (IOException e) {
+            return 1;
+        }
+    }
+
+    private static int parseTiffOrientation(byte[] data, int tiff) {
+        if (data.length < tiff + 8) {
+            return 1;
+        }
+        boolean little = data[tiff] == 'I';
+        int ifd = tiff + readInt(data, tiff + 4, little);
+        if (ifd < 0 || ifd + 2 > data.length) {
+            return 1;
+        }
+        int entries = readShort(data, ifd, little);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > data.length) {
+                return 1;
+            }
+            if (readShort(data, entry, little) == 0x0112) {
+                int orientation = readShort(data, entry + 8, little);
+                return orientation >= 1 && orientation <= 8 ? orientation : 1;
+            }
+        }
+        return 1;
+    }
+
+    private static int readShort(byte[] data, int offset, boolean little) {
+        int b0 = data[offset] & 0xFF;
+        int b1 = data[offset + 1] & 0xFF;
+        return little ? (b1 << 8) | b0 : (b0 << 8) | b1;
+    }
+
+    private static int readInt(byte[] data, int offset, boolean little) {
+        int high = readShort(data, offset, little);
+        int low = readShort(data, offset + 2, little);
+        return little ? (low << 16) | high : (high << 16) | low;
+    }
+
+    private static void skipFully(InputStream in, long n) throws IOException {
+        while (n > 0) {
+            long skipped = in.skip(n);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    throw new IOException("Unexpected end of image");
+                }
+                skipped = 1;
+            }
+            n -= skipped;
+        }
+    }
+
+    /**
+     * 按 EXIF 方向标记旋转/翻转，输出正向的 RGB 图片（透明区域填充白色）
+     */
+    public static BufferedImage normalize(BufferedImage source, int orientation) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        boolean swap = orientation >= 5;
+        AffineTransform transform = new AffineTransform();
+        switch (orientation) {
+            case 2 -> transform.scale(-1, 1);
+            case 3 -> transform.rotate(Math.PI);
+            case 4 -> transform.scale(1, -1);
+            case 5 -> {
+                transform.rotate(Math.PI / 2);
+                transform.scale(1, -1);
+            }
+            case 6 -> transform.rotate(Math.PI / 2);
+            case 7 -> {
+                transform.rotate(-Math.PI / 2);
+                transform.scale(1, -1);
+            }
+            case 8 -> transform.rotate(-Math.PI / 2);
+            default -> {
+            }
+        }
+        // 变换后把图像平移回画布内
+        Rectangle bounds = transform.createTransformedShape(new Rectangle(width, height)).getBounds();
+        AffineTransform toCanvas = AffineTransform.getTranslateInstance(-bounds.x, -bounds.y);
+        toCanvas.concatenate(transform);
+
+        BufferedImage target = new BufferedImage(swap ? height : width, swap ? width : height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, target.getWidth(), target.getHeight());
+            g.drawImage(source, toCanvas, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * 等比缩放到最长边不超过 maxSize，本身更小时原样返回
+     */
+    public static BufferedImage scaleToFit(BufferedImage source, int maxSize) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        if (width <= maxSize && height <= maxSize) {
+            return source;
+        }
+        double ratio = Math.min((double) maxSize / width, (double) maxSize / height);
+        return resize(source, 0, 0, width, height,
+                Math.max(1, (int) Math.round(width * ratio)), Math.max(1, (int) Math.round(height * ratio)));
+    }
+
+    /**
+     * 居中裁剪为正方形后缩放到 size x size
+     */
+    public static BufferedImage cropToSquare(BufferedImage source, int size) {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        int x = (source.getWidth() - side) / 2;
+        int y = (source.getHeight() - side) / 2;
+        int target = Math.min(size, side);
+        return resize(source, x, y, side, side, target, target);
+    }
+
+    private static BufferedImage resize(BufferedImage source, int x, int y, int width, int height,
+                                        int targetWidth, int targetHeight) {
+        // 缩小超过一半时逐级减半，避免一次双线性插值产生明显锯齿
+        BufferedImage current = source.getSubimage(x, y, width, height);
+        int currentWidth = width;
+        int currentHeight = height;
+        do {
+            int nextWidth = Math.max(targetWidth, currentWidth / 2);
+            int nextHeight = Math.max(targetHeight, currentHeight / 2);
+            BufferedImage next = new BufferedImage(nextWidth, nextHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, nextWidth, nextHeight, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+            currentWidth = nextWidth;
+            currentHeight = nextHeight;
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+        return current;
+    }
+
+    /**
+     * 是否存在指定格式的编码器（例如 webp 需要额外的 ImageIO 插件）
+     */
+    public static boolean canWrite(String format) {
+        return ImageIO.getImageWritersByFormatName(format).hasNext();
+    }
+
+    /**
+     * 编码写入文件：先写临时文件再原子替换，读取方不会看到写了一半的图片
+     * @param quality 压缩质量（0-1），编码器不支持时忽略
+     */
+    public static void write(BufferedImage image, String format, float quality, Path target) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("No image writer for format: " + format);
+        }
+        ImageWriter writer = writers.next();
+        Path temp = Files.createTempFile(target.getParent(), ".derivative-", ".tmp");
+        try {
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(output);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                if (param.canWriteCompressed()) {
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    if (param.getCompressionTypes() != null && param.getCompressionType() == null) {
+                        param.setCompressionType(param.getCompressionTypes()[0]);
+                    }
+                    param.setCompressionQuality(quality);
+                }
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
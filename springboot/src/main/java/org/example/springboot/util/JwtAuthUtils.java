@@ -4,6 +4,7 @@ import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.baomidou.mybatisplus.core.toolkit.StringUtils;
 import org.example.springboot.entity.User;
 import org.example.springboot.mapper.UserMapper;
@@ -22,6 +23,9 @@ public class JwtAuthUtils {
     
     @Autowired
     private UserMapper userMapper;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
     
     /**
      * 验证JWT Token并返回用户信息
@@ -34,9 +38,17 @@ public class JwtAuthUtils {
             return null;
         }
         
+        // 命中已验证缓存时跳过数据库查询和验签
+        User cachedUser = verifiedTokenCache.get(token);
+        if (cachedUser != null) {
+            return cachedUser;
+        }
+        
         try {
             // 解码token获取用户ID
-            String userId = JWT.decode(token).getAudience().get(0);
+            DecodedJWT decodedJWT = JWT.decode(token);
+            String userId = decodedJWT.getAudience().get(0);
+            long generation = verifiedTokenCache.currentGeneration();
             User user = userMapper.selectById(Long.valueOf(userId));
             
             if (user == null) {
@@ -45,9 +57,10 @@ public class JwtAuthUtils {
             }
             
             // 验证token签名
-            JWTVerifier jwtVerifier = JWT.require(Algorithm.HMAC256(user.getPassword())).build();
+            JWTVerifier jwtVerifier = JWT.require(Algorithm.HMAC256(JwtTokenUtils.signingKey(user))).build();
             jwtVerifier.verify(token);
             
+            verifiedTokenCache.put(token, user, decodedJWT.getExpiresAt(), generation);
             log.debug("Token验证成功: userId={}", userId);
             return user;
             
@@ -20,10 +20,13 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.security.SecureRandom;
+import java.util.Base64;
 import java.util.Date;
 
 @Component
 public class JwtTokenUtils {
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
     private static UserService staticUserService;
     @Resource
     private  UserService userService;
@@ -35,6 +38,24 @@ public class JwtTokenUtils {
     public static String genToken(String userId,String sign){
     return JWT.create().withAudience(userId).withExpiresAt(DateUtil.offsetHour(new Date(),2)).sign(Algorithm.HMAC256(sign));
     }
+
+    /**
+     * 用户的 token 签名密钥
+     * 使用独立的 token_secret，只在修改或重置密码时重新生成，升级密码哈希不会让其他设备上的 token 失效；
+     * 迁移前的旧数据没有密钥时退回使用密码哈希
+     */
+    public static String signingKey(User user) {
+        return StringUtils.isNotBlank(user.getTokenSecret()) ? user.getTokenSecret() : user.getPassword();
+    }
+
+    /**
+     * 生成新的 token 签名密钥
+     */
+    public static String newTokenSecret() {
+        byte[] bytes = new byte[32];
+        SECURE_RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
     /**
      * 获取当前登录用户
      * 优先从Spring Security上下文中获取，如果没有则尝试从请求中解析token
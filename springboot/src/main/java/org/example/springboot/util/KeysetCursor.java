@@ -0,0 +1,61 @@
+package org.example.springboot.util;
+
+import org.example.springboot.exception.ServiceException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * 按 (create_time DESC, id DESC) 排序的键集分页游标
+ * 对外是不透明的 base64url 字符串，内容为 "创建时间毫秒:ID"
+ */
+public class KeysetCursor {
+
+    private final LocalDateTime createTime;
+    private final Long id;
+
+    public KeysetCursor(LocalDateTime createTime, Long id) {
+        this.createTime = createTime;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreateTime() {
+        return createTime;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * 编码游标
+     */
+    public String encode() {
+        long millis = createTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+        String raw = millis + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标
+     * @param cursor 游标字符串，为空表示第一页
+     * @return 游标，第一页返回null
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            long millis = Long.parseLong(raw.substring(0, separator));
+            long id = Long.parseLong(raw.substring(separator + 1));
+            return new KeysetCursor(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC), id);
+        } catch (RuntimeException e) {
+            throw new ServiceException("无效的分页游标");
+        }
+    }
+}
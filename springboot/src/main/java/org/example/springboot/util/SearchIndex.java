@@ -0,0 +1,326 @@
+package org.example.springboot.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 内存倒排索引
+ * 文档由若干带权重的字段组成，检索时按 BM25 计算相关度，
+ * 再叠加按发布时间衰减的新鲜度加成；支持按分类、状态过滤。
+ * 字母数字查询词按前缀匹配（"iph" 命中 "iphone"），与原来的模糊查询一致
+ */
+public class SearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /**
+     * 新鲜度加成上限及衰减周期（天）
+     */
+    private static final double RECENCY_BOOST = 0.5;
+    private static final double RECENCY_DECAY_DAYS = 30.0;
+
+    /**
+     * 多词查询时文档至少需要命中的词比例
+     */
+    private static final double MIN_COVERAGE = 0.5;
+
+    /**
+     * 单个查询词按前缀展开的词数上限
+     */
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 词 -> (文档ID -> 加权词频)，按词排序以支持前缀查找
+     */
+    private final NavigableMap<String, Map<Long, Double>> postings = new TreeMap<>();
+
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    private double totalLength = 0;
+
+    /**
+     * 新增或替换文档
+     * @param id 文档ID
+     * @param fields 带权重的字段
+     * @param createdAt 发布时间（毫秒），用于新鲜度加成
+     * @param categoryId 分类ID
+     * @param status 状态
+     */
+    public void upsert(long id, List<Field> fields, long createdAt, Long categoryId, Integer status) {
+        Map<String, Double> termFrequencies = new HashMap<>();
+        double length = 0;
+        for (Field field : fields) {
+            for (String token : TextTokenizer.indexTokens(field.text)) {
+                termFrequencies.merge(token, field.weight, Double::sum);
+                length += field.weight;
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            Document document = new Document(termFrequencies, length, createdAt, categoryId, status);
+            documents.put(id, document);
+            totalLength += length;
+            for (Map.Entry<String, Double> term : termFrequencies.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), key -> new HashMap<>()).put(id, term.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除文档
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 仅更新文档状态
+     */
+    public void updateStatus(long id, Integer status) {
+        lock.writeLock().lock();
+        try {
+            Document document = documents.get(id);
+            if (document != null) {
+                document.status = status;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 当前所有文档ID的快照
+     */
+    public Set<Long> ids() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(documents.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 检索
+     * @param query 查询文本
+     * @param categoryId 分类过滤（可选）
+     * @param status 状态过滤（可选）
+     * @param offset 偏移量
+     * @param limit 返回数量
+     * @return 命中总数及当前页的文档ID（按得分降序）
+     */
+    public SearchResult search(String query, Long categoryId, Integer status, int offset, int limit) {
+        Set<String> queryTerms = TextTokenizer.uniqueTokens(query);
+        if (queryTerms.isEmpty()) {
+            return new SearchResult(0, new ArrayList<>());
+        }
+
+        long now = System.currentTimeMillis();
+        Map<Long, double[]> scores = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (documentCount == 0) {
+                return new SearchResult(0, new ArrayList<>());
+            }
+            double averageLength = totalLength / documentCount;
+
+            for (String term : queryTerms) {
+                Map<Long, Double> posting = postingOf(term);
+                if (posting.isEmpty()) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                for (Map.Entry<Long, Double> entry : posting.entrySet()) {
+                    Document document = documents.get(entry.getKey());
+                    if (!document.matches(categoryId, status)) {
+                        continue;
+                    }
+                    double tf = entry.getValue();
+                    double norm = K1 * (1 - B + B * document.length / averageLength);
+                    double[] score = scores.computeIfAbsent(entry.getKey(), key -> new double[2]);
+                    score[0] += idf * tf * (K1 + 1) / (tf + norm);
+                    score[1] += 1;
+                }
+            }
+
+            List<ScoredDocument> ranked = new ArrayList<>(scores.size());
+            for (Map.Entry<Long, double[]> entry : scores.entrySet()) {
+                double coverage = entry.getValue()[1] / queryTerms.size();
+                if (coverage < MIN_COVERAGE) {
+                    continue;
+                }
+                Document document = documents.get(entry.getKey());
+                double ageDays = Math.max(0, now - document.createdAt) / 86_400_000.0;
+                double recency = 1 + RECENCY_BOOST * Math.exp(-ageDays / RECENCY_DECAY_DAYS);
+                ranked.add(new ScoredDocument(entry.getKey(), entry.getValue()[0] * coverage * recency));
+            }
+
+            ranked.sort((a, b) -> a.score != b.score ? Double.compare(b.score, a.score) : Long.compare(b.id, a.id));
+
+            List<Long> ids = new ArrayList<>();
+            for (int i = offset; i < ranked.size() && ids.size() < limit; i++) {
+                ids.add(ranked.get(i).id);
+            }
+            return new SearchResult(ranked.size(), ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 查询词的倒排表：汉字词精确匹配；字母数字词合并所有以它为前缀的词（同一文档词频相加）。
+     * 展开词超过上限时保留完全匹配的词和文档数最多的词，而不是字典序靠前的词
+     */
+    private Map<Long, Double> postingOf(String term) {
+        if (!TextTokenizer.isAlphanumeric(term)) {
+            return postings.getOrDefault(term, Map.of());
+        }
+        SortedMap<String, Map<Long, Double>> expansions = postings.subMap(term, true, term + Character.MAX_VALUE, false);
+        Collection<Map<Long, Double>> selected = expansions.values();
+        if (expansions.size() > MAX_PREFIX_EXPANSIONS) {
+            Map<Long, Double> exact = expansions.get(term);
+            int capacity = exact == null ? MAX_PREFIX_EXPANSIONS : MAX_PREFIX_EXPANSIONS - 1;
+            // 小顶堆保留文档数最多的若干个词
+            PriorityQueue<Map<Long, Double>> top = new PriorityQueue<>(capacity, Comparator.comparingInt(Map::size));
+            for (Map<Long, Double> posting : expansions.values()) {
+                if (posting == exact) {
+                    continue;
+                }
+                if (top.size() < capacity) {
+                    top.add(posting);
+                } else if (posting.size() > top.peek().size()) {
+                    top.poll();
+                    top.add(posting);
+                }
+            }
+            selected = new ArrayList<>(top);
+            if (exact != null) {
+                selected.add(exact);
+            }
+        }
+        Map<Long, Double> merged = new HashMap<>();
+        for (Map<Long, Double> posting : selected) {
+            posting.forEach((id, tf) -> merged.merge(id, tf, Double::sum));
+        }
+        return merged;
+    }
+
+    private void removeInternal(long id) {
+        Document existing = documents.remove(id);
+        if (existing == null) {
+            return;
+        }
+        totalLength -= existing.length;
+        for (String term : existing.termFrequencies.keySet()) {
+            Map<Long, Double> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * 带权重的索引字段
+     */
+    public static class Field {
+        private final String text;
+        private final double weight;
+
+        public Field(String text, double weight) {
+            this.text = text;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * 检索结果
+     */
+    public static class SearchResult {
+        private final long total;
+        private final List<Long> ids;
+
+        public SearchResult(long total, List<Long> ids) {
+            this.total = total;
+            this.ids = ids;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+    }
+
+    private static final class Document {
+        private final Map<String, Double> termFrequencies;
+        private final double length;
+        private final long createdAt;
+        private final Long categoryId;
+        private Integer status;
+
+        private Document(Map<String, Double> termFrequencies, double length, long createdAt,
+                         Long categoryId, Integer status) {
+            this.termFrequencies = termFrequencies;
+            this.length = length;
+            this.createdAt = createdAt;
+            this.categoryId = categoryId;
+            this.status = status;
+        }
+
+        private boolean matches(Long categoryId, Integer status) {
+            return (categoryId == null || Objects.equals(this.categoryId, categoryId))
+                    && (status == null || Objects.equals(this.status, status));
+        }
+    }
+
+    private static final class ScoredDocument {
+        private final long id;
+        private final double score;
+
+        private ScoredDocument(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+}
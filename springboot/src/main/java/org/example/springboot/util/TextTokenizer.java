@@ -0,0 +1,108 @@
+package org.example.springboot.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 中文友好的文本分词工具
+ * 连续的汉字按二元组（bigram）切分，单个汉字保留为单字词；
+ * 字母和数字按连续片段切分并转为小写，其余字符作为分隔符。
+ * 建索引时另外保留每个汉字的单字词，单字查询（如"伞"）也能命中"雨伞"
+ */
+public class TextTokenizer {
+
+    /**
+     * 分词，保留重复词（用于统计词频）
+     */
+    public static List<String> tokenize(String text) {
+        return tokenize(text, false);
+    }
+
+    /**
+     * 建索引用的分词：在 tokenize 的基础上额外输出连续汉字中的每个单字
+     */
+    public static List<String> indexTokens(String text) {
+        return tokenize(text, true);
+    }
+
+    /**
+     * 是否为字母数字词（检索时可按前缀匹配），汉字词返回 false
+     */
+    public static boolean isAlphanumeric(String token) {
+        return !token.isEmpty() && !isCjk(token.codePointAt(0));
+    }
+
+    private static List<String> tokenize(String text, boolean unigrams) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        StringBuilder word = new StringBuilder();
+        StringBuilder cjkRun = new StringBuilder();
+        int length = text.length();
+        for (int i = 0; i < length; ) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+
+            if (isCjk(codePoint)) {
+                flushWord(word, tokens);
+                cjkRun.appendCodePoint(codePoint);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                flushCjk(cjkRun, tokens, unigrams);
+                word.appendCodePoint(Character.toLowerCase(codePoint));
+            } else {
+                flushWord(word, tokens);
+                flushCjk(cjkRun, tokens, unigrams);
+            }
+        }
+        flushWord(word, tokens);
+        flushCjk(cjkRun, tokens, unigrams);
+        return tokens;
+    }
+
+    /**
+     * 分词并去重
+     */
+    public static Set<String> uniqueTokens(String text) {
+        return new LinkedHashSet<>(tokenize(text));
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (word.length() > 0) {
+            tokens.add(word.toString().toLowerCase(Locale.ROOT));
+            word.setLength(0);
+        }
+    }
+
+    private static void flushCjk(StringBuilder cjkRun, List<String> tokens, boolean unigrams) {
+        int count = cjkRun.codePointCount(0, cjkRun.length());
+        if (count == 1) {
+            tokens.add(cjkRun.toString());
+        } else if (count > 1) {
+            int start = 0;
+            for (int n = 0; n < count; n++) {
+                int next = cjkRun.offsetByCodePoints(start, 1);
+                if (unigrams) {
+                    tokens.add(cjkRun.substring(start, next));
+                }
+                if (n < count - 1) {
+                    tokens.add(cjkRun.substring(start, cjkRun.offsetByCodePoints(next, 1)));
+                }
+                start = next;
+            }
+        }
+        cjkRun.setLength(0);
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.springboot.util;
+
+import org.example.springboot.entity.User;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 已验证 token 缓存
+ * 以 token 摘要为键缓存验签通过的用户，过期时间取 token 的 exp 与最大存活时间中较早者，
+ * 命中时跳过数据库查询和 HMAC 验签；用户密码、状态等变更时按用户失效。
+ * 失效只作用于本节点，多节点部署时其他节点的缓存最多在 max-ttl-seconds 后才看到变更
+ * （如封禁用户），因此最大存活时间应保持较短
+ */
+@Component
+public class VerifiedTokenCache {
+
+    @Value("${auth.token-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${auth.token-cache.max-ttl-seconds:60}")
+    private long maxTtlSeconds;
+
+    private final Map<String, CachedPrincipal> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 失效代数，任一用户失效时递增；写入缓存前校验，防止失效期间验签的旧数据被写回。
+     * 全局计数不随用户数增长，代价是失效期间其他用户的写入也会被跳过（仅少一次缓存）
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * 查询缓存
+     * @param token JWT token
+     * @return 用户信息副本，未命中或已过期返回null
+     */
+    public User get(String token) {
+        String key = digest(token);
+        CachedPrincipal cached = entries.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key, cached);
+            return null;
+        }
+        return copyOf(cached.user);
+    }
+
+    /**
+     * 获取当前的失效代数，应在查询数据库之前读取
+     */
+    public long currentGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * 写入缓存
+     * @param token JWT token
+     * @param user 验签通过的用户
+     * @param tokenExpiresAt token过期时间
+     * @param generation 查询用户前读取的失效代数
+     */
+    public void put(String token, User user, Date tokenExpiresAt, long generation) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + maxTtlSeconds * 1000;
+        if (tokenExpiresAt != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiresAt.getTime());
+        }
+        if (expiresAt <= now || currentGeneration() != generation) {
+            return;
+        }
+
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        String key = digest(token);
+        CachedPrincipal principal = new CachedPrincipal(copyOf(user), expiresAt);
+        entries.put(key, principal);
+
+        // 写入与失效并发时，以失效为准：代数已变化则撤回本次写入，
+        // 否则失效在此之后才递增代数，随后的清理会移除本次写入
+        if (currentGeneration() != generation) {
+            entries.remove(key, principal);
+        }
+    }
+
+    /**
+     * 失效指定用户的所有缓存token
+     */
+    public void invalidateUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        entries.values().removeIf(cached -> userId.equals(cached.user.getId()));
+    }
+
+    /**
+     * 缓存已满时先清理过期条目，仍不足则淘汰最早过期的十分之一
+     */
+    private synchronized void evict(long now) {
+        entries.values().removeIf(cached -> cached.expiresAt <= now);
+        if (entries.size() < maxSize) {
+            return;
+        }
+
+        List<Map.Entry<String, CachedPrincipal>> snapshot = new ArrayList<>(entries.entrySet());
+        snapshot.sort(Comparator.comparingLong(entry -> entry.getValue().expiresAt));
+        int toRemove = Math.max(1, snapshot.size() / 10);
+        for (int i = 0; i < toRemove; i++) {
+            Map.Entry<String, CachedPrincipal> entry = snapshot.get(i);
+            entries.remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private static User copyOf(User user) {
+        User copy = new User();
+        BeanUtils.copyProperties(user, copy);
+        return copy;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = messageDigest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    private static final class CachedPrincipal {
+        private final User user;
+        private final long expiresAt;
+
+        private CachedPrincipal(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
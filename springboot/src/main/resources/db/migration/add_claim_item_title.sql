@@ -0,0 +1,17 @@
+-- 认领申请冗余物品标题，按物品名称检索申请时走全文索引并保证分页正确
+
+ALTER TABLE `claim_application` ADD COLUMN `item_title` varchar(100) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL COMMENT '物品标题' AFTER `item_type`;
+
+-- 按现有物品回填
+UPDATE `claim_application` ca
+INNER JOIN `found_item` f ON ca.item_type = 0 AND f.id = ca.item_id
+SET ca.item_title = f.title
+WHERE ca.item_title IS NULL;
+
+UPDATE `claim_application` ca
+INNER JOIN `lost_item` l ON ca.item_type = 1 AND l.id = ca.item_id
+SET ca.item_title = l.title
+WHERE ca.item_title IS NULL;
+
+-- 中文标题使用 ngram 分词
+ALTER TABLE `claim_application` ADD FULLTEXT INDEX `ft_item_title` (`item_title`) WITH PARSER ngram;
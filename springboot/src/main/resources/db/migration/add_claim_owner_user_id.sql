@@ -0,0 +1,16 @@
+-- 认领申请冗余物品发布者ID，"待我审核"列表直接按发布者走索引
+
+ALTER TABLE `claim_application` ADD COLUMN `owner_user_id` bigint NULL DEFAULT NULL COMMENT '物品发布者ID' AFTER `user_id`;
+
+-- 按现有物品回填
+UPDATE `claim_application` ca
+INNER JOIN `found_item` f ON ca.item_type = 0 AND f.id = ca.item_id
+SET ca.owner_user_id = f.user_id
+WHERE ca.owner_user_id IS NULL;
+
+UPDATE `claim_application` ca
+INNER JOIN `lost_item` l ON ca.item_type = 1 AND l.id = ca.item_id
+SET ca.owner_user_id = l.user_id
+WHERE ca.owner_user_id IS NULL;
+
+ALTER TABLE `claim_application` ADD INDEX `idx_owner_status_create_time` (`owner_user_id`, `status`, `create_time`);
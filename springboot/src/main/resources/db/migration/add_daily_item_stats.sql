@@ -0,0 +1,18 @@
+-- 按天预聚合的物品统计：发布、认领申请、审核通过、过期及认领耗时，供趋势图表查询
+
+CREATE TABLE IF NOT EXISTS `daily_item_stats` (
+  `stat_date` date NOT NULL COMMENT '统计日期',
+  `item_type` tinyint NOT NULL COMMENT '物品类型(0招领,1失物)',
+  `category_id` bigint NOT NULL DEFAULT 0 COMMENT '分类ID（物品已删除时为0）',
+  `posts` int NOT NULL DEFAULT 0 COMMENT '发布数量',
+  `claims` int NOT NULL DEFAULT 0 COMMENT '认领申请数量',
+  `approvals` int NOT NULL DEFAULT 0 COMMENT '审核通过数量',
+  `expirations` int NOT NULL DEFAULT 0 COMMENT '过期数量',
+  `claim_seconds` bigint NOT NULL DEFAULT 0 COMMENT '审核通过物品从发布到认领的总耗时(秒)',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`stat_date`, `item_type`, `category_id`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '物品每日统计表';
+
+-- 回填按天扫描认领申请，需要时间索引
+ALTER TABLE `claim_application` ADD INDEX `idx_create_time` (`create_time`);
+ALTER TABLE `claim_application` ADD INDEX `idx_status_audit_time` (`status`, `audit_time`);
@@ -0,0 +1,12 @@
+-- 上传文件内容寻址存储：文件名取内容摘要，相同内容只存一份，按物品引用计数决定能否删除
+
+CREATE TABLE IF NOT EXISTS `file_blob` (
+  `path` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NOT NULL COMMENT '访问路径，如 /img/<摘要>.jpg',
+  `digest` char(64) CHARACTER SET ascii COLLATE ascii_bin NOT NULL COMMENT '内容SHA-256摘要',
+  `size` bigint NOT NULL DEFAULT 0 COMMENT '文件大小(字节)',
+  `ref_count` int NOT NULL DEFAULT 0 COMMENT '引用该文件的物品数',
+  `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '首次上传时间',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`path`) USING BTREE,
+  INDEX `idx_ref_count_update_time`(`ref_count`, `update_time`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '上传文件表';
@@ -0,0 +1,3 @@
+-- 上传预约计数：上传相同内容时先预约文件记录再复用已有文件，删除在同一行锁内检查预约，避免删掉刚被复用的文件
+
+ALTER TABLE `file_blob` ADD COLUMN `pending` int NOT NULL DEFAULT 0 COMMENT '进行中的上传数(预约)' AFTER `ref_count`;
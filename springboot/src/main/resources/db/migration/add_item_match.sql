@@ -0,0 +1,21 @@
+-- 失物与招领自动匹配
+
+-- 匹配结果表
+CREATE TABLE IF NOT EXISTS `item_match` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT '匹配ID',
+  `lost_item_id` bigint NOT NULL COMMENT '失物ID',
+  `found_item_id` bigint NOT NULL COMMENT '招领ID',
+  `score` decimal(6,4) NOT NULL DEFAULT 0 COMMENT '匹配得分(0-1)',
+  `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE KEY `uk_lost_found` (`lost_item_id`, `found_item_id`),
+  INDEX `idx_found_item_id` (`found_item_id`)
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '失物招领匹配表';
+
+-- 候选集按 分类 + 状态 + 时间 范围扫描
+ALTER TABLE `lost_item` ADD INDEX `idx_category_status_lost_time` (`category_id`, `status`, `lost_time`);
+ALTER TABLE `found_item` ADD INDEX `idx_category_status_found_time` (`category_id`, `status`, `found_time`);
+
+-- 通知类型增加匹配消息
+ALTER TABLE `notification` MODIFY COLUMN `type` tinyint NOT NULL DEFAULT 0 COMMENT '类型(0系统消息,1申请消息,2审核消息,3匹配消息)';
@@ -0,0 +1,19 @@
+-- 物品状态计数：按 (物品类型, 状态) 分槽累加，状态统计直接读取汇总值
+
+CREATE TABLE IF NOT EXISTS `item_status_counter` (
+  `item_type` tinyint NOT NULL COMMENT '物品类型(0招领,1失物)',
+  `status` int NOT NULL COMMENT '物品状态',
+  `slot` tinyint NOT NULL COMMENT '分槽编号，分散并发更新的热点行',
+  `item_count` bigint NOT NULL DEFAULT 0 COMMENT '数量',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`item_type`, `status`, `slot`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '物品状态计数表';
+
+-- 按现有数据初始化计数
+INSERT INTO `item_status_counter` (`item_type`, `status`, `slot`, `item_count`)
+SELECT 1, `status`, 0, COUNT(*) FROM `lost_item` GROUP BY `status`
+ON DUPLICATE KEY UPDATE `item_count` = VALUES(`item_count`);
+
+INSERT INTO `item_status_counter` (`item_type`, `status`, `slot`, `item_count`)
+SELECT 0, `status`, 0, COUNT(*) FROM `found_item` GROUP BY `status`
+ON DUPLICATE KEY UPDATE `item_count` = VALUES(`item_count`);
@@ -0,0 +1,3 @@
+-- 检索索引增量追赶按 update_time 拉取最近修改的记录
+ALTER TABLE `lost_item` ADD INDEX `idx_update_time` (`update_time`);
+ALTER TABLE `found_item` ADD INDEX `idx_update_time` (`update_time`);
@@ -0,0 +1,13 @@
+-- 批处理任务断点：分批执行的定时任务记录游标位置，异常中断后从断点继续
+
+CREATE TABLE IF NOT EXISTS `job_checkpoint` (
+  `job_name` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NOT NULL COMMENT '任务名称',
+  `status` tinyint NOT NULL DEFAULT 0 COMMENT '状态(0执行中,1已完成)',
+  `cutoff_time` datetime NULL DEFAULT NULL COMMENT '本轮处理的截止时间',
+  `cursor_time` datetime NULL DEFAULT NULL COMMENT '游标位置(时间)',
+  `cursor_id` bigint NOT NULL DEFAULT 0 COMMENT '游标位置(ID)',
+  `processed_count` bigint NOT NULL DEFAULT 0 COMMENT '本轮已处理数量',
+  `start_time` datetime NULL DEFAULT NULL COMMENT '本轮开始时间',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`job_name`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '批处理任务断点表';
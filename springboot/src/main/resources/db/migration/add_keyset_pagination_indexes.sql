@@ -0,0 +1,18 @@
+-- 列表游标分页（按 create_time DESC, id DESC）所需索引
+-- InnoDB 二级索引隐含主键，(..., create_time) 即可覆盖 (create_time, id) 排序
+
+-- 分类 + 状态 过滤；原 idx_category_status 为其前缀，一并替换
+ALTER TABLE `lost_item` DROP INDEX `idx_category_status`;
+ALTER TABLE `lost_item` ADD INDEX `idx_category_status_create_time` (`category_id`, `status`, `create_time`);
+ALTER TABLE `found_item` DROP INDEX `idx_category_status`;
+ALTER TABLE `found_item` ADD INDEX `idx_category_status_create_time` (`category_id`, `status`, `create_time`);
+
+-- 按发布用户过滤；原 idx_user_id 为其前缀，一并替换
+ALTER TABLE `lost_item` DROP INDEX `idx_user_id`;
+ALTER TABLE `lost_item` ADD INDEX `idx_user_create_time` (`user_id`, `create_time`);
+ALTER TABLE `found_item` DROP INDEX `idx_user_id`;
+ALTER TABLE `found_item` ADD INDEX `idx_user_create_time` (`user_id`, `create_time`);
+
+-- 无过滤条件时按创建时间倒序扫描
+ALTER TABLE `lost_item` ADD INDEX `idx_create_time` (`create_time`);
+ALTER TABLE `found_item` ADD INDEX `idx_create_time` (`create_time`);
@@ -0,0 +1,19 @@
+-- 通知发件箱：业务事务内记录通知意图，提交后由后台批量投递
+
+CREATE TABLE IF NOT EXISTS `notification_outbox` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT 'ID',
+  `user_id` bigint NOT NULL COMMENT '接收用户ID',
+  `title` varchar(100) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NOT NULL COMMENT '标题',
+  `content` text CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NOT NULL COMMENT '内容',
+  `type` tinyint NOT NULL DEFAULT 0 COMMENT '通知类型',
+  `related_id` bigint NULL DEFAULT NULL COMMENT '关联ID',
+  `status` tinyint NOT NULL DEFAULT 0 COMMENT '状态(0待投递,1已投递,2投递失败)',
+  `attempts` int NOT NULL DEFAULT 0 COMMENT '投递次数',
+  `next_attempt_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '下次投递时间',
+  `last_error` varchar(500) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL COMMENT '最近一次失败原因',
+  `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_status_next_attempt` (`status`, `next_attempt_time`),
+  INDEX `idx_status_update_time` (`status`, `update_time`)
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '通知发件箱';
@@ -0,0 +1,13 @@
+-- 用户未读通知计数
+
+CREATE TABLE IF NOT EXISTS `notification_unread_counter` (
+  `user_id` bigint NOT NULL COMMENT '用户ID',
+  `unread_count` int NOT NULL DEFAULT 0 COMMENT '未读通知数量',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`user_id`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '用户未读通知计数表';
+
+-- 按现有通知初始化计数，没有计数记录的用户视为0
+INSERT INTO `notification_unread_counter` (`user_id`, `unread_count`)
+SELECT `user_id`, COUNT(*) FROM `notification` WHERE `is_read` = 0 GROUP BY `user_id`
+ON DUPLICATE KEY UPDATE `unread_count` = VALUES(`unread_count`);
@@ -0,0 +1,5 @@
+-- 用户 token 签名密钥，与密码哈希分离：升级哈希强度不再使其他会话失效，只有修改或重置密码时重新生成
+-- 不回填现有用户：密钥为空时仍以密码哈希签名和验签，上线后已签发的 token 继续有效，
+-- 密钥在下次修改或重置密码（或升级哈希时固定为旧哈希）时写入
+
+ALTER TABLE `user` ADD COLUMN `token_secret` varchar(64) NULL DEFAULT NULL COMMENT 'token签名密钥(修改密码时重新生成)' AFTER `password`;
@@ -0,0 +1,77 @@
+package org.example.springboot.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageResourceServletTest {
+
+    private static final String ETAG = "\"3fa2-400\"";
+    // Thu, 24 Oct 2024 08:00:00 GMT
+    private static final long LAST_MODIFIED = 1_729_756_800_000L;
+
+    @Test
+    void parsesSingleRange() {
+        assertArrayEquals(new long[]{0, 99}, ImageResourceServlet.parseRange("bytes=0-99", 1000));
+        assertArrayEquals(new long[]{500, 999}, ImageResourceServlet.parseRange("bytes=500-", 1000));
+        assertArrayEquals(new long[]{900, 999}, ImageResourceServlet.parseRange("bytes=-100", 1000));
+        assertArrayEquals(new long[]{0, 999}, ImageResourceServlet.parseRange("bytes=-5000", 1000));
+        assertArrayEquals(new long[]{990, 999}, ImageResourceServlet.parseRange("bytes=990-2000", 1000));
+    }
+
+    @Test
+    void unsatisfiableRangeReturnsNull() {
+        assertNull(ImageResourceServlet.parseRange("bytes=1000-", 1000));
+        assertNull(ImageResourceServlet.parseRange("bytes=-0", 1000));
+        assertNull(ImageResourceServlet.parseRange("bytes=-10", 0));
+    }
+
+    @Test
+    void unsupportedRangeFallsBackToFullContent() {
+        assertArrayEquals(new long[0], ImageResourceServlet.parseRange("bytes=0-1,5-9", 1000));
+        assertArrayEquals(new long[0], ImageResourceServlet.parseRange("items=0-9", 1000));
+        assertArrayEquals(new long[0], ImageResourceServlet.parseRange("bytes=9-0", 1000));
+        assertArrayEquals(new long[0], ImageResourceServlet.parseRange("bytes=a-b", 1000));
+        assertArrayEquals(new long[0], ImageResourceServlet.parseRange("bytes=100", 1000));
+    }
+
+    @Test
+    void matchesEtagLists() {
+        assertTrue(ImageResourceServlet.etagMatches(ETAG, ETAG, true));
+        assertTrue(ImageResourceServlet.etagMatches("\"other\", " + ETAG, ETAG, true));
+        assertTrue(ImageResourceServlet.etagMatches("*", ETAG, false));
+        assertFalse(ImageResourceServlet.etagMatches("\"other\"", ETAG, true));
+    }
+
+    @Test
+    void weakEtagsOnlyMatchWeakComparison() {
+        assertTrue(ImageResourceServlet.etagMatches("W/" + ETAG, ETAG, true));
+        assertFalse(ImageResourceServlet.etagMatches("W/" + ETAG, ETAG, false));
+    }
+
+    @Test
+    void ifRangeRequiresStrongEtagOrExactDate() {
+        assertTrue(ImageResourceServlet.ifRangeMatches(null, ETAG, LAST_MODIFIED));
+        assertTrue(ImageResourceServlet.ifRangeMatches(ETAG, ETAG, LAST_MODIFIED));
+        assertFalse(ImageResourceServlet.ifRangeMatches("W/" + ETAG, ETAG, LAST_MODIFIED));
+        assertFalse(ImageResourceServlet.ifRangeMatches("\"stale\"", ETAG, LAST_MODIFIED));
+        assertTrue(ImageResourceServlet.ifRangeMatches("Thu, 24 Oct 2024 08:00:00 GMT", ETAG, LAST_MODIFIED + 500));
+        assertFalse(ImageResourceServlet.ifRangeMatches("Thu, 24 Oct 2024 07:59:59 GMT", ETAG, LAST_MODIFIED));
+        assertFalse(ImageResourceServlet.ifRangeMatches("not a date", ETAG, LAST_MODIFIED));
+    }
+
+    @Test
+    void derivativeFallsBackToOriginalCandidates() {
+        String base = "/img/ab/cd/abcd0123456789abcdef0123456789ab";
+        assertEquals(List.of(base + ".jpg", base + ".png", base + ".gif", base + ".webp", base + ".bmp"),
+                ImageResourceServlet.originalCandidates(base + "_thumb.jpg"));
+        assertEquals(base + ".png", ImageResourceServlet.originalCandidates(base + "_large.jpg").get(1));
+        assertTrue(ImageResourceServlet.originalCandidates(base + ".png").isEmpty());
+    }
+}
@@ -0,0 +1,270 @@
+package org.example.springboot.service;
+
+import org.example.springboot.DTO.ClaimAuditDTO;
+import org.example.springboot.DTO.ClaimAuditResultDTO;
+import org.example.springboot.common.ResultCode;
+import org.example.springboot.entity.ClaimApplication;
+import org.example.springboot.entity.FoundItem;
+import org.example.springboot.entity.User;
+import org.example.springboot.exception.ServiceException;
+import org.example.springboot.mapper.ClaimApplicationMapper;
+import org.example.springboot.mapper.FoundItemMapper;
+import org.example.springboot.mapper.LostItemMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * 认领审核（单条与批量）：Mapper 全部模拟，事务由真实的 TransactionTemplate 驱动模拟的事务管理器，
+ * 以校验抛出冲突时事务回滚、不写入通知
+ */
+@ExtendWith(MockitoExtension.class)
+class ClaimApplicationServiceTest {
+
+    private static final long OWNER_ID = 7L;
+    private static final long FOUND_ITEM_ID = 10L;
+
+    @Mock
+    private ClaimApplicationMapper claimApplicationMapper;
+    @Mock
+    private FoundItemMapper foundItemMapper;
+    @Mock
+    private LostItemMapper lostItemMapper;
+    @Mock
+    private NotificationService notificationService;
+    @Mock
+    private AssociationHydrator associationHydrator;
+    @Mock
+    private ItemSearchService itemSearchService;
+    @Mock
+    private ItemStatusCounterService itemStatusCounterService;
+    @Mock
+    private ItemAnalyticsService itemAnalyticsService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    @InjectMocks
+    private ClaimApplicationService claimApplicationService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        ReflectionTestUtils.setField(claimApplicationService, "transactionTemplate",
+                new TransactionTemplate(transactionManager));
+        login(OWNER_ID, "USER");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void firstApprovalOfAnItemWins() {
+        ClaimApplication first = pendingApplication(1L, 101L);
+        ClaimApplication second = pendingApplication(2L, 102L);
+        when(claimApplicationMapper.selectById(1L)).thenReturn(first);
+        when(claimApplicationMapper.selectById(2L)).thenReturn(second);
+        when(foundItemMapper.selectById(FOUND_ITEM_ID)).thenReturn(foundItem());
+        // 第一次审核抢占物品成功，之后物品已不是待认领
+        when(foundItemMapper.updatePendingStatus(List.of(FOUND_ITEM_ID), 1)).thenReturn(1, 0);
+        when(claimApplicationMapper.updateIfPending(first)).thenReturn(1);
+        when(claimApplicationMapper.lockPendingByItem(FOUND_ITEM_ID, 0, 1L)).thenReturn(List.of());
+
+        claimApplicationService.audit(1L, 1, null);
+        ServiceException e = assertThrows(ServiceException.class, () -> claimApplicationService.audit(2L, 1, null));
+
+        assertEquals(ResultCode.CONFLICT.getCode(), e.getCode());
+        verify(claimApplicationMapper, never()).updateIfPending(second);
+        verify(notificationService).sendAuditResultNotification(101L, "黑色雨伞", true, null, 1L);
+        verify(notificationService, never()).sendAuditResultNotification(eq(102L), any(), anyBoolean(), any(), any());
+        verify(transactionManager).commit(transactionStatus);
+        verify(transactionManager).rollback(transactionStatus);
+    }
+
+    @Test
+    void alreadyProcessedApplicationIsConflict() {
+        ClaimApplication application = pendingApplication(1L, 101L);
+        application.setStatus(2);
+        when(claimApplicationMapper.selectById(1L)).thenReturn(application);
+
+        ServiceException e = assertThrows(ServiceException.class, () -> claimApplicationService.audit(1L, 1, null));
+
+        assertEquals(ResultCode.CONFLICT.getCode(), e.getCode());
+        verify(foundItemMapper, never()).updatePendingStatus(anyList(), anyInt());
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void rollsBackItemClaimWhenApplicationIsNoLongerPending() {
+        ClaimApplication application = pendingApplication(1L, 101L);
+        when(claimApplicationMapper.selectById(1L)).thenReturn(application);
+        when(foundItemMapper.selectById(FOUND_ITEM_ID)).thenReturn(foundItem());
+        when(foundItemMapper.updatePendingStatus(List.of(FOUND_ITEM_ID), 1)).thenReturn(1);
+        // 申请在抢占物品之后被取消
+        when(claimApplicationMapper.updateIfPending(application)).thenReturn(0);
+
+        ServiceException e = assertThrows(ServiceException.class, () -> claimApplicationService.audit(1L, 1, null));
+
+        assertEquals(ResultCode.CONFLICT.getCode(), e.getCode());
+        verify(transactionManager).rollback(transactionStatus);
+        verify(transactionManager, never()).commit(any());
+        verify(claimApplicationMapper, never()).lockPendingByItem(any(), any(), any());
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void retriesLockFailuresThenReportsConflict() {
+        when(claimApplicationMapper.selectById(1L)).thenThrow(new CannotAcquireLockException("lock wait timeout"));
+
+        ServiceException e = assertThrows(ServiceException.class, () -> claimApplicationService.audit(1L, 1, null));
+
+        assertEquals(ResultCode.CONFLICT.getCode(), e.getCode());
+        verify(claimApplicationMapper, times(3)).selectById(1L);
+        verify(transactionManager, times(3)).rollback(transactionStatus);
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void batchRejectsDuplicateIdsWithoutTouchingTheDatabase() {
+        List<ClaimAuditResultDTO> results = claimApplicationService.auditBatch(List.of(audit(1L, 1), audit(1L, 2)));
+
+        assertEquals(2, results.size());
+        for (ClaimAuditResultDTO result : results) {
+            assertEquals(1L, result.getId());
+            assertEquals(ResultCode.VALIDATE_FAILED.getCode(), result.getCode());
+            assertEquals("申请ID重复", result.getMessage());
+        }
+        verifyNoInteractions(claimApplicationMapper, notificationService);
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    void batchLowestIdWinsWithinAnItem() {
+        ClaimApplication higher = pendingApplication(5L, 105L);
+        ClaimApplication lower = pendingApplication(3L, 103L);
+        when(claimApplicationMapper.selectBatchIds(any())).thenReturn(List.of(higher, lower));
+        when(foundItemMapper.lockPendingByIds(List.of(FOUND_ITEM_ID))).thenReturn(List.of(foundItem()));
+        when(claimApplicationMapper.lockPendingByIds(List.of(3L))).thenReturn(List.of(lower));
+        when(foundItemMapper.updatePendingStatus(List.of(FOUND_ITEM_ID), 1)).thenReturn(1);
+        when(claimApplicationMapper.lockPendingByItems(List.of(lower))).thenReturn(List.of());
+
+        List<ClaimAuditResultDTO> results = claimApplicationService.auditBatch(List.of(audit(5L, 1), audit(3L, 1)));
+
+        assertEquals(5L, results.get(0).getId());
+        assertEquals(ResultCode.CONFLICT.getCode(), results.get(0).getCode());
+        assertEquals(3L, results.get(1).getId());
+        assertEquals(ResultCode.SUCCESS.getCode(), results.get(1).getCode());
+        verify(claimApplicationMapper).auditBatch(eq(List.of(lower)), eq(OWNER_ID), any());
+        verify(notificationService).sendAuditResultNotification(103L, "黑色雨伞", true, null, 3L);
+        verify(notificationService, never()).sendAuditResultNotification(eq(105L), any(), anyBoolean(), any(), any());
+    }
+
+    @Test
+    void batchReportsItemAlreadyClaimed() {
+        ClaimApplication application = pendingApplication(4L, 104L);
+        when(claimApplicationMapper.selectBatchIds(any())).thenReturn(List.of(application));
+        // 物品已不是待认领，锁定不到
+        when(foundItemMapper.lockPendingByIds(List.of(FOUND_ITEM_ID))).thenReturn(List.of());
+        when(claimApplicationMapper.lockPendingByIds(List.of(4L))).thenReturn(List.of(application));
+
+        List<ClaimAuditResultDTO> results = claimApplicationService.auditBatch(List.of(audit(4L, 1)));
+
+        assertEquals(ResultCode.CONFLICT.getCode(), results.get(0).getCode());
+        assertEquals("该物品已被认领或已关闭，无法继续处理", results.get(0).getMessage());
+        verify(foundItemMapper, never()).updatePendingStatus(anyList(), anyInt());
+        verify(claimApplicationMapper, never()).auditBatch(anyList(), any(), any());
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void batchResultsFollowRequestOrder() {
+        ClaimApplication rejected = pendingApplication(9L, 109L);
+        ClaimApplication notOwned = pendingApplication(6L, 106L);
+        notOwned.setOwnerUserId(99L);
+        // 申请 8 不存在
+        when(claimApplicationMapper.selectBatchIds(any())).thenReturn(List.of(notOwned, rejected));
+        when(claimApplicationMapper.lockPendingByIds(List.of(9L))).thenReturn(List.of(rejected));
+
+        List<ClaimAuditResultDTO> results = claimApplicationService.auditBatch(
+                Arrays.asList(audit(9L, 2), audit(null, 1), audit(8L, 1), audit(6L, 2)));
+
+        assertEquals(4, results.size());
+        assertEquals(9L, results.get(0).getId());
+        assertEquals(ResultCode.SUCCESS.getCode(), results.get(0).getCode());
+        assertNull(results.get(1).getId());
+        assertEquals(ResultCode.VALIDATE_FAILED.getCode(), results.get(1).getCode());
+        assertEquals(8L, results.get(2).getId());
+        assertEquals(ResultCode.ERROR.getCode(), results.get(2).getCode());
+        assertEquals(6L, results.get(3).getId());
+        assertEquals(ResultCode.FORBIDDEN.getCode(), results.get(3).getCode());
+        verify(claimApplicationMapper).auditBatch(eq(List.of(rejected)), eq(OWNER_ID), any());
+        verify(notificationService).sendAuditResultNotification(109L, "黑色雨伞", false, null, 9L);
+    }
+
+    private static ClaimAuditDTO audit(Long id, Integer status) {
+        ClaimAuditDTO audit = new ClaimAuditDTO();
+        audit.setId(id);
+        audit.setStatus(status);
+        return audit;
+    }
+
+    private static void login(Long id, String roleCode) {
+        User user = new User();
+        user.setId(id);
+        user.setRoleCode(roleCode);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    private static ClaimApplication pendingApplication(Long id, Long applicantId) {
+        ClaimApplication application = new ClaimApplication();
+        application.setId(id);
+        application.setItemId(FOUND_ITEM_ID);
+        application.setItemType(0);
+        application.setItemTitle("黑色雨伞");
+        application.setUserId(applicantId);
+        application.setOwnerUserId(OWNER_ID);
+        application.setStatus(0);
+        return application;
+    }
+
+    private static FoundItem foundItem() {
+        FoundItem item = new FoundItem();
+        item.setId(FOUND_ITEM_ID);
+        item.setUserId(OWNER_ID);
+        item.setTitle("黑色雨伞");
+        return item;
+    }
+}
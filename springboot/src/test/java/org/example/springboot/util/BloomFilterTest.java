@@ -0,0 +1,43 @@
+package org.example.springboot.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    private static final int INSERTIONS = 20_000;
+
+    @Test
+    void hasNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01, 7);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("img-" + i);
+        }
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertTrue(filter.mightContain("img-" + i), "img-" + i);
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01, 7);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("img-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < INSERTIONS; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < INSERTIONS * 0.02, "误判数 " + falsePositives);
+    }
+
+    @Test
+    void sizeFollowsExpectedInsertions() {
+        // 1% 误判率约 9.6 bit/元素
+        long size = new BloomFilter(1_000_000, 0.01, 1).sizeInBytes();
+        assertTrue(size > 1_100_000 && size < 1_300_000, "大小 " + size);
+    }
+}
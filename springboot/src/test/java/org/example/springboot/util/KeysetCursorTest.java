@@ -0,0 +1,49 @@
+package org.example.springboot.util;
+
+import org.example.springboot.exception.ServiceException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTrips() {
+        LocalDateTime createTime = LocalDateTime.of(2024, 9, 1, 8, 30, 15, 123_000_000);
+        KeysetCursor decoded = KeysetCursor.decode(new KeysetCursor(createTime, 42L).encode());
+
+        assertEquals(createTime, decoded.getCreateTime());
+        assertEquals(42L, decoded.getId());
+    }
+
+    @Test
+    void encodesAsUrlSafeText() {
+        String cursor = new KeysetCursor(LocalDateTime.of(2024, 9, 1, 8, 30), Long.MAX_VALUE).encode();
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void blankCursorMeansFirstPage() {
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode(""));
+        assertNull(KeysetCursor.decode("  "));
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThrows(ServiceException.class, () -> KeysetCursor.decode("not base64!"));
+        assertThrows(ServiceException.class, () -> KeysetCursor.decode(encode("123")));
+        assertThrows(ServiceException.class, () -> KeysetCursor.decode(encode("abc:1")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
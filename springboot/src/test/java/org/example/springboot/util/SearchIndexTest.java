@@ -0,0 +1,90 @@
+package org.example.springboot.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchIndexTest {
+
+    private static final long NOW = System.currentTimeMillis();
+
+    private static SearchIndex sampleIndex() {
+        SearchIndex index = new SearchIndex();
+        index.upsert(1, List.of(new SearchIndex.Field("黑色雨伞", 3), new SearchIndex.Field("图书馆门口捡到", 1)),
+                NOW, 10L, 0);
+        index.upsert(2, List.of(new SearchIndex.Field("iPhone 手机", 3), new SearchIndex.Field("黑色外壳", 1)),
+                NOW, 20L, 0);
+        index.upsert(3, List.of(new SearchIndex.Field("校园卡", 3), new SearchIndex.Field("下雨天丢在食堂", 1)),
+                NOW, 30L, 1);
+        return index;
+    }
+
+    @Test
+    void singleCharacterQueryMatchesLongerWords() {
+        SearchIndex index = sampleIndex();
+        assertEquals(List.of(1L), index.search("伞", null, null, 0, 10).getIds());
+        assertEquals(List.of(1L, 3L), index.search("雨", null, null, 0, 10).getIds());
+    }
+
+    @Test
+    void alphanumericQueryMatchesByPrefix() {
+        SearchIndex index = sampleIndex();
+        assertEquals(List.of(2L), index.search("iph", null, null, 0, 10).getIds());
+        assertEquals(List.of(2L), index.search("IPHONE", null, null, 0, 10).getIds());
+        assertTrue(index.search("phone", null, null, 0, 10).getIds().isEmpty());
+    }
+
+    @Test
+    void prefixExpansionKeepsMostFrequentTerms() {
+        SearchIndex index = new SearchIndex();
+        // 100 个字典序靠前、只出现一次的词
+        for (int i = 0; i < 100; i++) {
+            index.upsert(i, List.of(new SearchIndex.Field(String.format("ab%03d", i), 3)), NOW, null, 0);
+        }
+        for (long id = 200; id < 203; id++) {
+            index.upsert(id, List.of(new SearchIndex.Field("abz", 3)), NOW, null, 0);
+        }
+        index.upsert(300, List.of(new SearchIndex.Field("ab", 3)), NOW, null, 0);
+
+        List<Long> ids = index.search("ab", null, null, 0, 200).getIds();
+        assertTrue(ids.containsAll(List.of(200L, 201L, 202L, 300L)));
+    }
+
+    @Test
+    void titleWeightRanksHigher() {
+        // "黑色" 是 1 的标题、2 的描述
+        assertEquals(List.of(1L, 2L), sampleIndex().search("黑色", null, null, 0, 10).getIds());
+    }
+
+    @Test
+    void filtersByCategoryAndStatus() {
+        SearchIndex index = sampleIndex();
+        assertEquals(List.of(2L), index.search("黑色", 20L, null, 0, 10).getIds());
+        assertEquals(List.of(3L), index.search("雨", null, 1, 0, 10).getIds());
+
+        index.updateStatus(1, 1);
+        assertEquals(List.of(1L, 3L), index.search("雨", null, 1, 0, 10).getIds());
+    }
+
+    @Test
+    void upsertReplacesAndRemoveDeletes() {
+        SearchIndex index = sampleIndex();
+        index.upsert(1, List.of(new SearchIndex.Field("蓝色水杯", 3)), NOW, 10L, 0);
+        assertTrue(index.search("雨伞", null, null, 0, 10).getIds().isEmpty());
+        assertEquals(List.of(1L), index.search("水杯", null, null, 0, 10).getIds());
+
+        index.remove(1);
+        assertTrue(index.search("水杯", null, null, 0, 10).getIds().isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void pagesResultsAndReportsTotal() {
+        SearchIndex.SearchResult result = sampleIndex().search("雨", null, null, 1, 1);
+        assertEquals(2, result.getTotal());
+        assertEquals(List.of(3L), result.getIds());
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.springboot.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextTokenizerTest {
+
+    @Test
+    void splitsCjkRunsIntoBigrams() {
+        assertEquals(List.of("黑色", "色雨", "雨伞"), TextTokenizer.tokenize("黑色雨伞"));
+    }
+
+    @Test
+    void keepsSingleCjkCharacter() {
+        assertEquals(List.of("伞"), TextTokenizer.tokenize("伞"));
+        assertEquals(List.of("伞", "包"), TextTokenizer.tokenize("伞，包"));
+    }
+
+    @Test
+    void lowercasesAlphanumericWords() {
+        assertEquals(List.of("airpods", "pro", "2", "代"), TextTokenizer.tokenize("AirPods-Pro 2代"));
+    }
+
+    @Test
+    void indexTokensAddCjkUnigrams() {
+        assertEquals(List.of("黑", "黑色", "色", "色雨", "雨", "雨伞", "伞", "iphone15"),
+                TextTokenizer.indexTokens("黑色雨伞 iPhone15"));
+    }
+
+    @Test
+    void uniqueTokensDropDuplicates() {
+        assertEquals(Set.of("雨伞"), TextTokenizer.uniqueTokens("雨伞 雨伞"));
+        assertTrue(TextTokenizer.uniqueTokens("  ，。 ").isEmpty());
+        assertTrue(TextTokenizer.uniqueTokens(null).isEmpty());
+    }
+
+    @Test
+    void detectsAlphanumericTokens() {
+        assertTrue(TextTokenizer.isAlphanumeric("iph"));
+        assertTrue(TextTokenizer.isAlphanumeric("15"));
+        assertFalse(TextTokenizer.isAlphanumeric("雨伞"));
+        assertFalse(TextTokenizer.isAlphanumeric(""));
+    }
+}
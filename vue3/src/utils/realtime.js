@@ -73,44 +73,121 @@ export function useRealTimeData(fetchFunction, interval = 30000, immediate = tru
 }
 
 /**
- * 通知轮询 Hook
+ * 通知推送 Hook
+ * 优先通过 SSE（/notification/stream）接收新通知和未读数量，
+ * 浏览器不支持、连接被服务端关闭或被同一用户的新连接替换时退回定时轮询。
+ * 推送连接只登记在所连的节点上，其他节点产生的通知不会推送过来，
+ * 因此 SSE 连接期间仍以较长间隔（ssePollInterval）轮询未读数量兜底
  */
-export function useNotificationPolling() {
+export function useNotificationPolling(pollInterval = 60000, ssePollInterval = 300000) {
   const unreadCount = ref(0)
   const notifications = ref([])
-  
-  const { data: notificationData, refresh: refreshNotifications } = useRealTimeData(
-    async () => {
+  let eventSource = null
+  let pollTimer = null
+  let currentPollInterval = null
+
+  const fetchUnreadCount = async () => {
+    try {
+      await request.get('/notification/unread-count', {}, {
+        onSuccess: (data) => {
+          updateUnreadCount(data || 0, true)
+        }
+      })
+    } catch (error) {
+      console.error('获取未读通知数量失败:', error)
+    }
+  }
+
+  // 通过推送收到的新通知已由 notification 事件提示，只有轮询发现的增量才提示
+  const updateUnreadCount = (newCount, fromPolling = false) => {
+    if (fromPolling && newCount > unreadCount.value && unreadCount.value > 0) {
+      ElMessage.info(`您有 ${newCount - unreadCount.value} 条新通知`)
+    }
+    unreadCount.value = newCount
+  }
+
+  const startPolling = (interval = pollInterval) => {
+    if (pollTimer && currentPollInterval === interval) return
+    stopPolling()
+    // 切到 SSE 兜底轮询时刚收到推送的数量，不必立即拉取
+    if (interval !== ssePollInterval) {
+      fetchUnreadCount()
+    }
+    currentPollInterval = interval
+    pollTimer = setInterval(fetchUnreadCount, interval)
+  }
+
+  const stopPolling = () => {
+    if (pollTimer) {
+      clearInterval(pollTimer)
+      pollTimer = null
+      currentPollInterval = null
+    }
+  }
+
+  const connect = () => {
+    const token = localStorage.getItem('token')
+    if (!token || typeof EventSource === 'undefined') {
+      startPolling()
+      return
+    }
+
+    const baseURL = import.meta.env.VITE_APP_BASE_API || '/api'
+    eventSource = new EventSource(`${baseURL}/notification/stream?token=${encodeURIComponent(token)}`)
+
+    eventSource.addEventListener('unread-count', (event) => {
+      startPolling(ssePollInterval)
+      updateUnreadCount(Number(event.data) || 0)
+    })
+
+    eventSource.addEventListener('notification', (event) => {
       try {
-        let result = 0
-        await request.get('/notification/unread-count', {}, {
-          onSuccess: (data) => {
-            result = data || 0
-          }
-        })
-        return result
+        const notification = JSON.parse(event.data)
+        notifications.value = [notification, ...notifications.value].slice(0, 10)
+        ElMessage.info(`新通知：${notification.title}`)
       } catch (error) {
-        console.error('获取未读通知数量失败:', error)
-        return 0
+        console.error('解析通知失败:', error)
       }
-    },
-    60000 // 每分钟检查一次
-  )
-
-  // 监听通知数据变化
-  watch(() => notificationData.value, (newCount) => {
-    if (newCount !== null && newCount !== unreadCount.value) {
-      if (newCount > unreadCount.value && unreadCount.value > 0) {
-        ElMessage.info(`您有 ${newCount - unreadCount.value} 条新通知`)
+    })
+
+    // 同一用户连接数超限时服务端关闭最早的连接；此时不能让浏览器自动重连，否则会挤掉其他标签页的连接
+    eventSource.addEventListener('replaced', () => {
+      if (eventSource) {
+        eventSource.close()
+        eventSource = null
+      }
+      startPolling()
+    })
+
+    eventSource.onerror = () => {
+      // 网络中断时浏览器会自动重连；连接被关闭（如认证失败）时退回轮询
+      if (eventSource && eventSource.readyState === EventSource.CLOSED) {
+        eventSource = null
+        startPolling()
       }
-      unreadCount.value = newCount
     }
+  }
+
+  const disconnect = () => {
+    if (eventSource) {
+      eventSource.close()
+      eventSource = null
+    }
+    stopPolling()
+  }
+
+  onMounted(() => {
+    connect()
+  })
+
+  onUnmounted(() => {
+    disconnect()
   })
 
   return {
     unreadCount,
     notifications,
-    refreshNotifications
+    refreshNotifications: fetchUnreadCount
   }
 }
 